@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -283,11 +283,20 @@ class Instance {
       from(waitForPolyfill()).pipe(ignoreElements()),
       Observable.create(observer => {
         const eventSource = new EventSource('instances/events');
-        eventSource.onmessage = message => observer.next({
+        const next = message => observer.next({
           ...message,
+          type: message.type,
           data: JSON.parse(message.data)
         });
-        eventSource.onerror = err => observer.error(err);
+        eventSource.onmessage = next;
+        // sent when the missed events can't be replayed after a reconnect
+        eventSource.addEventListener('reset', next);
+        eventSource.onerror = err => {
+          // the browser reconnects on its own and resumes after the Last-Event-ID
+          if (eventSource.readyState === EventSource.CLOSED) {
+            observer.error(err);
+          }
+        };
         return () => {
           eventSource.close();
         };
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,15 @@
 
 package de.codecentric.boot.admin.server.config;
 
+import java.util.stream.Collectors;
+
 import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -28,6 +32,8 @@ import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 
+import de.codecentric.boot.admin.server.domain.entities.InstanceEvictionListener;
+import de.codecentric.boot.admin.server.domain.entities.InstanceMailbox;
 import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
 import de.codecentric.boot.admin.server.domain.entities.SnapshottingInstanceRepository;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
@@ -41,10 +47,14 @@ import de.codecentric.boot.admin.server.services.HashingInstanceUrlIdGenerator;
 import de.codecentric.boot.admin.server.services.InfoUpdateTrigger;
 import de.codecentric.boot.admin.server.services.InfoUpdater;
 import de.codecentric.boot.admin.server.services.InstanceIdGenerator;
+import de.codecentric.boot.admin.server.services.InstanceOwnership;
 import de.codecentric.boot.admin.server.services.InstanceRegistry;
 import de.codecentric.boot.admin.server.services.StatusUpdateTrigger;
 import de.codecentric.boot.admin.server.services.StatusUpdater;
+import de.codecentric.boot.admin.server.services.TombstoneEvictor;
+import de.codecentric.boot.admin.server.services.endpoints.CachingEndpointDetectionStrategy;
 import de.codecentric.boot.admin.server.services.endpoints.ChainingStrategy;
+import de.codecentric.boot.admin.server.services.endpoints.EndpointDetectionStrategy;
 import de.codecentric.boot.admin.server.services.endpoints.ProbeEndpointsStrategy;
 import de.codecentric.boot.admin.server.services.endpoints.QueryIndexEndpointStrategy;
 import de.codecentric.boot.admin.server.web.client.InstanceWebClient;
@@ -93,10 +103,13 @@ public class AdminServerAutoConfiguration {
 
 	@Bean(initMethod = "start", destroyMethod = "stop")
 	@ConditionalOnMissingBean
-	public StatusUpdateTrigger statusUpdateTrigger(StatusUpdater statusUpdater, Publisher<InstanceEvent> events) {
+	public StatusUpdateTrigger statusUpdateTrigger(StatusUpdater statusUpdater, Publisher<InstanceEvent> events,
+			ObjectProvider<InstanceOwnership> ownership) {
 		StatusUpdateTrigger trigger = new StatusUpdateTrigger(statusUpdater, events);
 		trigger.setInterval(this.adminServerProperties.getMonitor().getStatusInterval());
 		trigger.setLifetime(this.adminServerProperties.getMonitor().getStatusLifetime());
+		trigger.setParallelism(this.adminServerProperties.getEventHandler().getParallelism());
+		ownership.ifAvailable(trigger::setOwnership);
 		return trigger;
 	}
 
@@ -105,16 +118,27 @@ public class AdminServerAutoConfiguration {
 	public EndpointDetector endpointDetector(InstanceRepository instanceRepository,
 			InstanceWebClient.Builder instanceWebClientBuilder) {
 		InstanceWebClient instanceWebClient = instanceWebClientBuilder.build();
+		EndpointDetectionStrategy probeStrategy = new ProbeEndpointsStrategy(instanceWebClient,
+				this.adminServerProperties.getProbedEndpoints());
+		AdminServerProperties.ProbedEndpointsCacheProperties cache = this.adminServerProperties
+				.getProbedEndpointsCache();
+		if (cache.isEnabled()) {
+			probeStrategy = new CachingEndpointDetectionStrategy(probeStrategy, cache.getTimeToLive(),
+					cache.getMaxSize());
+		}
 		ChainingStrategy strategy = new ChainingStrategy(new QueryIndexEndpointStrategy(instanceWebClient),
-				new ProbeEndpointsStrategy(instanceWebClient, this.adminServerProperties.getProbedEndpoints()));
+				probeStrategy);
 		return new EndpointDetector(instanceRepository, strategy);
 	}
 
 	@Bean(initMethod = "start", destroyMethod = "stop")
 	@ConditionalOnMissingBean
 	public EndpointDetectionTrigger endpointDetectionTrigger(EndpointDetector endpointDetector,
-			Publisher<InstanceEvent> events) {
-		return new EndpointDetectionTrigger(endpointDetector, events);
+			Publisher<InstanceEvent> events, ObjectProvider<InstanceOwnership> ownership) {
+		EndpointDetectionTrigger trigger = new EndpointDetectionTrigger(endpointDetector, events);
+		trigger.setParallelism(this.adminServerProperties.getEventHandler().getParallelism());
+		ownership.ifAvailable(trigger::setOwnership);
+		return trigger;
 	}
 
 	@Bean
@@ -126,23 +150,45 @@ public class AdminServerAutoConfiguration {
 
 	@Bean(initMethod = "start", destroyMethod = "stop")
 	@ConditionalOnMissingBean
-	public InfoUpdateTrigger infoUpdateTrigger(InfoUpdater infoUpdater, Publisher<InstanceEvent> events) {
+	public InfoUpdateTrigger infoUpdateTrigger(InfoUpdater infoUpdater, Publisher<InstanceEvent> events,
+			ObjectProvider<InstanceOwnership> ownership) {
 		InfoUpdateTrigger trigger = new InfoUpdateTrigger(infoUpdater, events);
 		trigger.setInterval(this.adminServerProperties.getMonitor().getInfoInterval());
 		trigger.setLifetime(this.adminServerProperties.getMonitor().getInfoLifetime());
+		trigger.setParallelism(this.adminServerProperties.getEventHandler().getParallelism());
+		ownership.ifAvailable(trigger::setOwnership);
 		return trigger;
 	}
 
 	@Bean
 	@ConditionalOnMissingBean(InstanceEventStore.class)
 	public InMemoryEventStore eventStore() {
-		return new InMemoryEventStore();
+		InMemoryEventStore eventStore = new InMemoryEventStore();
+		AdminServerProperties.EventBusProperties eventBus = this.adminServerProperties.getEventBus();
+		eventStore.setBufferSize(eventBus.getBufferSize());
+		eventStore.setOverflowPolicy(eventBus.getOverflowPolicy());
+		eventStore.setBlockTimeout(eventBus.getBlockTimeout());
+		return eventStore;
 	}
 
 	@Bean(initMethod = "start", destroyMethod = "stop")
 	@ConditionalOnMissingBean(InstanceRepository.class)
 	public SnapshottingInstanceRepository instanceRepository(InstanceEventStore eventStore) {
-		return new SnapshottingInstanceRepository(eventStore);
+		InstanceMailbox mailbox = this.adminServerProperties.getMonitor().isSerializeUpdates() ? new InstanceMailbox()
+				: null;
+		return new SnapshottingInstanceRepository(eventStore, mailbox);
+	}
+
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.boot.admin.tombstones", name = "enabled")
+	public TombstoneEvictor tombstoneEvictor(InstanceRepository instanceRepository, InstanceEventStore eventStore,
+			ObjectProvider<InstanceEvictionListener> evictionListeners) {
+		TombstoneEvictor evictor = new TombstoneEvictor(instanceRepository, eventStore,
+				evictionListeners.orderedStream().collect(Collectors.toList()));
+		evictor.setInterval(this.adminServerProperties.getTombstones().getInterval());
+		evictor.setTimeToLive(this.adminServerProperties.getTombstones().getTimeToLive());
+		return evictor;
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.List;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
 import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
@@ -33,13 +34,17 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
 import de.codecentric.boot.admin.server.eventstore.HazelcastEventStore;
 import de.codecentric.boot.admin.server.eventstore.InstanceEventStore;
 import de.codecentric.boot.admin.server.notify.HazelcastNotificationTrigger;
+import de.codecentric.boot.admin.server.notify.NotificationDispatcher;
 import de.codecentric.boot.admin.server.notify.NotificationTrigger;
 import de.codecentric.boot.admin.server.notify.Notifier;
+import de.codecentric.boot.admin.server.services.HazelcastInstanceOwnership;
+import de.codecentric.boot.admin.server.services.InstanceOwnership;
 
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnBean(AdminServerMarkerConfiguration.Marker.class)
@@ -54,14 +59,37 @@ public class AdminServerHazelcastAutoConfiguration {
 
 	public static final String DEFAULT_NAME_SENT_NOTIFICATIONS_MAP = "spring-boot-admin-sent-notifications";
 
+	public static final String DEFAULT_NAME_ADMIN_MEMBERS_MAP = "spring-boot-admin-members";
+
 	@Value("${spring.boot.admin.hazelcast.event-store:" + DEFAULT_NAME_EVENT_STORE_MAP + "}")
 	private final String nameEventStoreMap = DEFAULT_NAME_EVENT_STORE_MAP;
 
+	@Value("${spring.boot.admin.hazelcast.admin-members:" + DEFAULT_NAME_ADMIN_MEMBERS_MAP + "}")
+	private String nameAdminMembersMap = DEFAULT_NAME_ADMIN_MEMBERS_MAP;
+
 	@Bean
 	@ConditionalOnMissingBean(InstanceEventStore.class)
-	public HazelcastEventStore eventStore(HazelcastInstance hazelcastInstance) {
+	public HazelcastEventStore eventStore(HazelcastInstance hazelcastInstance,
+			ObjectProvider<AdminServerProperties> adminServerProperties) {
 		IMap<InstanceId, List<InstanceEvent>> map = hazelcastInstance.getMap(this.nameEventStoreMap);
-		return new HazelcastEventStore(map);
+		HazelcastEventStore eventStore = new HazelcastEventStore(map);
+		adminServerProperties.ifAvailable((properties) -> {
+			eventStore.setBufferSize(properties.getEventBus().getBufferSize());
+			eventStore.setOverflowPolicy(properties.getEventBus().getOverflowPolicy());
+			eventStore.setBlockTimeout(properties.getEventBus().getBlockTimeout());
+		});
+		return eventStore;
+	}
+
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnMissingBean(InstanceOwnership.class)
+	@ConditionalOnBean(HazelcastEventStore.class)
+	@ConditionalOnProperty(prefix = "spring.boot.admin.hazelcast", name = "partition-aware-polling",
+			matchIfMissing = true)
+	public HazelcastInstanceOwnership instanceOwnership(HazelcastInstance hazelcastInstance,
+			InstanceRepository instanceRepository) {
+		return new HazelcastInstanceOwnership(hazelcastInstance, instanceRepository,
+				hazelcastInstance.getReplicatedMap(this.nameAdminMembersMap));
 	}
 
 	@Configuration(proxyBeanMethods = false)
@@ -71,12 +99,25 @@ public class AdminServerHazelcastAutoConfiguration {
 		@Value("${spring.boot.admin.hazelcast.sent-notifications:" + DEFAULT_NAME_SENT_NOTIFICATIONS_MAP + "}")
 		private final String nameSentNotificationsMap = DEFAULT_NAME_SENT_NOTIFICATIONS_MAP;
 
+		@Value("${spring.boot.admin.hazelcast.owner-only-notifications:false}")
+		private boolean ownerOnlyNotifications;
+
 		@Bean(initMethod = "start", destroyMethod = "stop")
 		@ConditionalOnMissingBean(NotificationTrigger.class)
 		public NotificationTrigger notificationTrigger(HazelcastInstance hazelcastInstance, Notifier notifier,
-				Publisher<InstanceEvent> events) {
-			return new HazelcastNotificationTrigger(notifier, events,
+				Publisher<InstanceEvent> events, ObjectProvider<NotificationDispatcher> notificationDispatcher,
+				ObjectProvider<AdminServerProperties> adminServerProperties,
+				ObjectProvider<InstanceOwnership> ownership) {
+			NotificationDispatcher dispatcher = notificationDispatcher.getIfAvailable();
+			HazelcastNotificationTrigger trigger = new HazelcastNotificationTrigger(
+					(dispatcher != null) ? dispatcher.queued(notifier) : notifier, events,
 					hazelcastInstance.getMap(this.nameSentNotificationsMap));
+			adminServerProperties
+					.ifAvailable((properties) -> trigger.setParallelism(properties.getEventHandler().getParallelism()));
+			if (this.ownerOnlyNotifications) {
+				ownership.ifAvailable(trigger::setOwnership);
+			}
+			return trigger;
 		}
 
 	}
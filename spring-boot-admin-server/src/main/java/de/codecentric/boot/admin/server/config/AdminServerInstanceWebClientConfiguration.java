@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,16 +19,26 @@ package de.codecentric.boot.admin.server.config;
 import java.util.List;
 
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import de.codecentric.boot.admin.server.web.client.BasicAuthHttpHeaderProvider;
+import de.codecentric.boot.admin.server.web.client.CircuitBreakerInstanceExchangeFilterFunction;
 import de.codecentric.boot.admin.server.web.client.CompositeHttpHeadersProvider;
 import de.codecentric.boot.admin.server.web.client.HttpHeadersProvider;
 import de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunction;
@@ -37,6 +47,7 @@ import de.codecentric.boot.admin.server.web.client.InstanceWebClient;
 import de.codecentric.boot.admin.server.web.client.InstanceWebClientCustomizer;
 import de.codecentric.boot.admin.server.web.client.LegacyEndpointConverter;
 import de.codecentric.boot.admin.server.web.client.LegacyEndpointConverters;
+import de.codecentric.boot.admin.server.web.client.MetricsInstanceExchangeFilterFunction;
 
 @Configuration(proxyBeanMethods = false)
 @Lazy(false)
@@ -87,6 +98,14 @@ public class AdminServerInstanceWebClientConfiguration {
 				return InstanceExchangeFilterFunctions.rewriteEndpointUrl();
 			}
 
+			@Bean
+			@Order(15)
+			@ConditionalOnMissingBean(name = "metricsInstanceExchangeFilter")
+			public MetricsInstanceExchangeFilterFunction metricsInstanceExchangeFilter(
+					AdminServerProperties adminServerProperties) {
+				return new MetricsInstanceExchangeFilterFunction(adminServerProperties.getMetrics().isApplicationTag());
+			}
+
 			@Bean
 			@Order(20)
 			@ConditionalOnMissingBean(name = "setDefaultAcceptHeaderInstanceExchangeFilter")
@@ -110,6 +129,19 @@ public class AdminServerInstanceWebClientConfiguration {
 				return InstanceExchangeFilterFunctions.logfileAcceptWorkaround();
 			}
 
+			@Bean
+			@Order(50)
+			@ConditionalOnMissingBean(name = "circuitBreakerInstanceExchangeFilter")
+			@ConditionalOnProperty(prefix = "spring.boot.admin.monitor.circuit-breaker", name = "enabled",
+					matchIfMissing = true)
+			public CircuitBreakerInstanceExchangeFilterFunction circuitBreakerInstanceExchangeFilter(
+					AdminServerProperties adminServerProperties) {
+				AdminServerProperties.CircuitBreakerProperties circuitBreaker = adminServerProperties.getMonitor()
+						.getCircuitBreaker();
+				return new CircuitBreakerInstanceExchangeFilterFunction(circuitBreaker.getFailureThreshold(),
+						circuitBreaker.getOpenDuration());
+			}
+
 			@Bean
 			@Order(100)
 			@ConditionalOnMissingBean(name = "retryInstanceExchangeFilter")
@@ -132,6 +164,60 @@ public class AdminServerInstanceWebClientConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(HttpClient.class)
+	protected static class ReactorNettyConfiguration {
+
+		private static final String METRICS_CLASS = "io.micrometer.core.instrument.Metrics";
+
+		@Bean(destroyMethod = "dispose")
+		@ConditionalOnMissingBean(name = "instanceConnectionProvider")
+		@ConditionalOnProperty(prefix = "spring.boot.admin.instance-client.pool", name = "enabled",
+				matchIfMissing = true)
+		public ConnectionProvider instanceConnectionProvider(AdminServerProperties adminServerProperties) {
+			AdminServerProperties.ConnectionPoolProperties pool = adminServerProperties.getInstanceClient().getPool();
+			int pendingAcquireMaxCount = (pool.getPendingAcquireMaxCount() == -2) ? 2 * pool.getMaxConnections()
+					: pool.getPendingAcquireMaxCount();
+			ConnectionProvider.Builder builder = ConnectionProvider.builder("spring-boot-admin-instances")
+					.maxConnections(pool.getMaxConnections()).pendingAcquireMaxCount(pendingAcquireMaxCount)
+					.pendingAcquireTimeout(pool.getPendingAcquireTimeout()).maxIdleTime(pool.getMaxIdleTime())
+					.metrics(pool.isMetricsEnabled() && ClassUtils.isPresent(METRICS_CLASS, null));
+			if (pool.getMaxLifeTime() != null) {
+				builder.maxLifeTime(pool.getMaxLifeTime());
+			}
+			if (!pool.getEvictionInterval().isZero()) {
+				builder.evictInBackground(pool.getEvictionInterval());
+			}
+			return builder.build();
+		}
+
+		@Bean
+		@ConditionalOnMissingBean(name = "reactorNettyInstanceWebClientCustomizer")
+		public InstanceWebClientCustomizer reactorNettyInstanceWebClientCustomizer(
+				AdminServerProperties adminServerProperties,
+				@Qualifier("instanceConnectionProvider") ObjectProvider<ConnectionProvider> connectionProvider,
+				ObjectProvider<ReactorResourceFactory> reactorResourceFactory) {
+			ReactorResourceFactory resourceFactory = reactorResourceFactory.getIfAvailable();
+			ConnectionProvider provider = connectionProvider.getIfAvailable();
+			if (provider == null && resourceFactory != null) {
+				provider = resourceFactory.getConnectionProvider();
+			}
+			HttpClient httpClient = ((provider != null) ? HttpClient.create(provider) : HttpClient.create())
+					.compress(true);
+			if (resourceFactory != null) {
+				httpClient = httpClient.runOn(resourceFactory.getLoopResources());
+			}
+			HttpProtocol[] protocols = adminServerProperties.getInstanceClient().getProtocols().stream()
+					.map((protocol) -> HttpProtocol.valueOf(protocol.name())).distinct().toArray(HttpProtocol[]::new);
+			if (protocols.length > 0) {
+				httpClient = httpClient.protocol(protocols);
+			}
+			ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+			return (builder) -> builder.webClient((webClient) -> webClient.clientConnector(connector));
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	protected static class HttpHeadersProviderConfiguration {
 
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import de.codecentric.boot.admin.server.eventstore.InstanceEventStore;
+import de.codecentric.boot.admin.server.eventstore.JdbcEventStore;
+import de.codecentric.boot.admin.server.utils.jackson.AdminServerModule;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnBean(AdminServerMarkerConfiguration.Marker.class)
+@ConditionalOnSingleCandidate(DataSource.class)
+@ConditionalOnProperty(prefix = "spring.boot.admin.jdbc", name = "enabled")
+@AutoConfigureBefore({ AdminServerAutoConfiguration.class, AdminServerHazelcastAutoConfiguration.class })
+@AutoConfigureAfter(name = "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration")
+@Lazy(false)
+public class AdminServerJdbcAutoConfiguration {
+
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnMissingBean(InstanceEventStore.class)
+	public JdbcEventStore eventStore(DataSource dataSource,
+			ObjectProvider<AdminServerProperties> adminServerProperties) {
+		// the events must be stored completely, so no metadata is sanitized
+		JdbcEventStore eventStore = new JdbcEventStore(dataSource,
+				Jackson2ObjectMapperBuilder.json().modulesToInstall(new AdminServerModule(new String[0])).build());
+		adminServerProperties.ifAvailable((properties) -> {
+			eventStore.setTableName(properties.getJdbc().getTableName());
+			eventStore.setMaxBatchSize(properties.getJdbc().getMaxBatchSize());
+			eventStore.setMaxLogSizePerAggregate(properties.getJdbc().getMaxEventsPerInstance());
+			eventStore.setPollInterval(properties.getJdbc().getPollInterval());
+			eventStore.setBufferSize(properties.getEventBus().getBufferSize());
+			eventStore.setOverflowPolicy(properties.getEventBus().getOverflowPolicy());
+			eventStore.setBlockTimeout(properties.getEventBus().getBlockTimeout());
+		});
+		return eventStore;
+	}
+
+}
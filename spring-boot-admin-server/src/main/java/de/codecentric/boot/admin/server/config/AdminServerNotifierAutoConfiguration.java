@@ -18,7 +18,9 @@ package de.codecentric.boot.admin.server.config;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import io.netty.channel.ChannelOption;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
@@ -26,30 +28,44 @@ import org.apache.http.client.CredentialsProvider;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
 import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
 import org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.mail.MailSender;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import org.thymeleaf.spring5.templateresolver.SpringResourceTemplateResolver;
 import org.thymeleaf.templatemode.TemplateMode;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.ProxyProvider;
 
 import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
@@ -60,9 +76,13 @@ import de.codecentric.boot.admin.server.notify.HipchatNotifier;
 import de.codecentric.boot.admin.server.notify.LetsChatNotifier;
 import de.codecentric.boot.admin.server.notify.MailNotifier;
 import de.codecentric.boot.admin.server.notify.MicrosoftTeamsNotifier;
+import de.codecentric.boot.admin.server.notify.NotificationDispatchProperties;
+import de.codecentric.boot.admin.server.notify.NotificationDispatcher;
 import de.codecentric.boot.admin.server.notify.NotificationTrigger;
 import de.codecentric.boot.admin.server.notify.Notifier;
 import de.codecentric.boot.admin.server.notify.NotifierProxyProperties;
+import de.codecentric.boot.admin.server.notify.NotifierTransportProperties;
+import de.codecentric.boot.admin.server.notify.NotifierWebClient;
 import de.codecentric.boot.admin.server.notify.OpsGenieNotifier;
 import de.codecentric.boot.admin.server.notify.PagerdutyNotifier;
 import de.codecentric.boot.admin.server.notify.SlackNotifier;
@@ -71,7 +91,8 @@ import de.codecentric.boot.admin.server.notify.filter.FilteringNotifier;
 import de.codecentric.boot.admin.server.notify.filter.web.NotificationFilterController;
 
 @Configuration(proxyBeanMethods = false)
-@EnableConfigurationProperties(NotifierProxyProperties.class)
+@EnableConfigurationProperties({ NotifierProxyProperties.class, NotifierTransportProperties.class,
+		NotificationDispatchProperties.class })
 @AutoConfigureAfter({ MailSenderAutoConfiguration.class })
 public class AdminServerNotifierAutoConfiguration {
 
@@ -93,6 +114,63 @@ public class AdminServerNotifierAutoConfiguration {
 		return restTemplate;
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(HttpClient.class)
+	@Conditional(OnWebClientTransportCondition.class)
+	@Lazy(false)
+	public static class NotifierWebClientConfiguration {
+
+		@Bean(destroyMethod = "dispose")
+		@ConditionalOnMissingBean(name = "notifierConnectionProvider")
+		public ConnectionProvider notifierConnectionProvider(NotifierTransportProperties transportProperties) {
+			return ConnectionProvider.builder("notifier").maxConnections(transportProperties.getMaxConnections())
+					.maxIdleTime(transportProperties.getMaxIdleTime()).build();
+		}
+
+		@Bean
+		@ConditionalOnMissingBean
+		public NotifierWebClient notifierWebClient(NotifierTransportProperties transportProperties,
+				NotifierProxyProperties proxyProperties,
+				@Qualifier("notifierConnectionProvider") ConnectionProvider connectionProvider,
+				ObjectProvider<WebClient.Builder> webClientBuilder) {
+			HttpClient httpClient = HttpClient.create(connectionProvider)
+					.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+							(int) transportProperties.getConnectTimeout().toMillis())
+					.responseTimeout(transportProperties.getReadTimeout()).compress(true);
+			if (proxyProperties.getHost() != null) {
+				httpClient = httpClient.proxy((proxy) -> {
+					ProxyProvider.Builder builder = proxy.type(ProxyProvider.Proxy.HTTP).host(proxyProperties.getHost())
+							.port(proxyProperties.getPort());
+					if (proxyProperties.getUsername() != null && proxyProperties.getPassword() != null) {
+						builder.username(proxyProperties.getUsername())
+								.password((username) -> proxyProperties.getPassword());
+					}
+				});
+			}
+			WebClient webClient = webClientBuilder.getIfAvailable(WebClient::builder).clone()
+					.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+			return new NotifierWebClient(webClient, transportProperties.getMaxRetries(),
+					transportProperties.getMinBackoff(), transportProperties.getMaxBackoff());
+		}
+
+	}
+
+	static class OnWebClientTransportCondition extends SpringBootCondition {
+
+		@Override
+		public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			ConditionMessage.Builder message = ConditionMessage.forCondition("Notifier web-client transport");
+			NotifierTransportProperties.Mode mode = Binder.get(context.getEnvironment())
+					.bind("spring.boot.admin.notify.transport.mode", NotifierTransportProperties.Mode.class)
+					.orElse(NotifierTransportProperties.Mode.REST_TEMPLATE);
+			if (mode == NotifierTransportProperties.Mode.WEB_CLIENT) {
+				return ConditionOutcome.match(message.because("transport mode is " + mode));
+			}
+			return ConditionOutcome.noMatch(message.because("transport mode is " + mode));
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnBean(Notifier.class)
 	@Lazy(false)
@@ -100,8 +178,29 @@ public class AdminServerNotifierAutoConfiguration {
 
 		@Bean(initMethod = "start", destroyMethod = "stop")
 		@ConditionalOnMissingBean(NotificationTrigger.class)
-		public NotificationTrigger notificationTrigger(Notifier notifier, Publisher<InstanceEvent> events) {
-			return new NotificationTrigger(notifier, events);
+		public NotificationTrigger notificationTrigger(Notifier notifier, Publisher<InstanceEvent> events,
+				ObjectProvider<NotificationDispatcher> notificationDispatcher,
+				ObjectProvider<AdminServerProperties> adminServerProperties) {
+			NotificationDispatcher dispatcher = notificationDispatcher.getIfAvailable();
+			NotificationTrigger trigger = new NotificationTrigger(
+					(dispatcher != null) ? dispatcher.queued(notifier) : notifier, events);
+			adminServerProperties
+					.ifAvailable((properties) -> trigger.setParallelism(properties.getEventHandler().getParallelism()));
+			return trigger;
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(prefix = "spring.boot.admin.notify.dispatch", name = "enabled")
+	@AutoConfigureBefore({ NotifierTriggerConfiguration.class, CompositeNotifierConfiguration.class })
+	@Lazy(false)
+	public static class NotificationDispatchConfiguration {
+
+		@Bean(destroyMethod = "stop")
+		@ConditionalOnMissingBean
+		public NotificationDispatcher notificationDispatcher(NotificationDispatchProperties properties) {
+			return new NotificationDispatcher(properties);
 		}
 
 	}
@@ -115,8 +214,13 @@ public class AdminServerNotifierAutoConfiguration {
 		@Bean
 		@Primary
 		@Conditional(NoSingleNotifierCandidateCondition.class)
-		public CompositeNotifier compositeNotifier(List<Notifier> notifiers) {
-			return new CompositeNotifier(notifiers);
+		public CompositeNotifier compositeNotifier(List<Notifier> notifiers,
+				ObjectProvider<NotificationDispatcher> notificationDispatcher) {
+			NotificationDispatcher dispatcher = notificationDispatcher.getIfAvailable();
+			if (dispatcher == null) {
+				return new CompositeNotifier(notifiers);
+			}
+			return new CompositeNotifier(notifiers.stream().map(dispatcher::queued).collect(Collectors.toList()));
 		}
 
 		static class NoSingleNotifierCandidateCondition extends NoneNestedConditions {
@@ -194,8 +298,11 @@ public class AdminServerNotifierAutoConfiguration {
 		@Bean
 		@ConditionalOnMissingBean
 		@ConfigurationProperties("spring.boot.admin.notify.hipchat")
-		public HipchatNotifier hipchatNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties) {
-			return new HipchatNotifier(repository, createNotifierRestTemplate(proxyProperties));
+		public HipchatNotifier hipchatNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties,
+				ObjectProvider<NotifierWebClient> notifierWebClient) {
+			HipchatNotifier notifier = new HipchatNotifier(repository, createNotifierRestTemplate(proxyProperties));
+			notifierWebClient.ifAvailable(notifier::setWebClient);
+			return notifier;
 		}
 
 	}
@@ -209,8 +316,11 @@ public class AdminServerNotifierAutoConfiguration {
 		@Bean
 		@ConditionalOnMissingBean
 		@ConfigurationProperties("spring.boot.admin.notify.slack")
-		public SlackNotifier slackNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties) {
-			return new SlackNotifier(repository, createNotifierRestTemplate(proxyProperties));
+		public SlackNotifier slackNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties,
+				ObjectProvider<NotifierWebClient> notifierWebClient) {
+			SlackNotifier notifier = new SlackNotifier(repository, createNotifierRestTemplate(proxyProperties));
+			notifierWebClient.ifAvailable(notifier::setWebClient);
+			return notifier;
 		}
 
 	}
@@ -224,9 +334,11 @@ public class AdminServerNotifierAutoConfiguration {
 		@Bean
 		@ConditionalOnMissingBean
 		@ConfigurationProperties("spring.boot.admin.notify.letschat")
-		public LetsChatNotifier letsChatNotifier(InstanceRepository repository,
-				NotifierProxyProperties proxyProperties) {
-			return new LetsChatNotifier(repository, createNotifierRestTemplate(proxyProperties));
+		public LetsChatNotifier letsChatNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties,
+				ObjectProvider<NotifierWebClient> notifierWebClient) {
+			LetsChatNotifier notifier = new LetsChatNotifier(repository, createNotifierRestTemplate(proxyProperties));
+			notifierWebClient.ifAvailable(notifier::setWebClient);
+			return notifier;
 		}
 
 	}
@@ -241,8 +353,10 @@ public class AdminServerNotifierAutoConfiguration {
 		@ConditionalOnMissingBean
 		@ConfigurationProperties("spring.boot.admin.notify.pagerduty")
 		public PagerdutyNotifier pagerdutyNotifier(InstanceRepository repository,
-				NotifierProxyProperties proxyProperties) {
-			return new PagerdutyNotifier(repository, createNotifierRestTemplate(proxyProperties));
+				NotifierProxyProperties proxyProperties, ObjectProvider<NotifierWebClient> notifierWebClient) {
+			PagerdutyNotifier notifier = new PagerdutyNotifier(repository, createNotifierRestTemplate(proxyProperties));
+			notifierWebClient.ifAvailable(notifier::setWebClient);
+			return notifier;
 		}
 
 	}
@@ -256,9 +370,11 @@ public class AdminServerNotifierAutoConfiguration {
 		@Bean
 		@ConditionalOnMissingBean
 		@ConfigurationProperties("spring.boot.admin.notify.opsgenie")
-		public OpsGenieNotifier opsgenieNotifier(InstanceRepository repository,
-				NotifierProxyProperties proxyProperties) {
-			return new OpsGenieNotifier(repository, createNotifierRestTemplate(proxyProperties));
+		public OpsGenieNotifier opsgenieNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties,
+				ObjectProvider<NotifierWebClient> notifierWebClient) {
+			OpsGenieNotifier notifier = new OpsGenieNotifier(repository, createNotifierRestTemplate(proxyProperties));
+			notifierWebClient.ifAvailable(notifier::setWebClient);
+			return notifier;
 		}
 
 	}
@@ -273,8 +389,11 @@ public class AdminServerNotifierAutoConfiguration {
 		@ConditionalOnMissingBean
 		@ConfigurationProperties("spring.boot.admin.notify.ms-teams")
 		public MicrosoftTeamsNotifier microsoftTeamsNotifier(InstanceRepository repository,
-				NotifierProxyProperties proxyProperties) {
-			return new MicrosoftTeamsNotifier(repository, createNotifierRestTemplate(proxyProperties));
+				NotifierProxyProperties proxyProperties, ObjectProvider<NotifierWebClient> notifierWebClient) {
+			MicrosoftTeamsNotifier notifier = new MicrosoftTeamsNotifier(repository,
+					createNotifierRestTemplate(proxyProperties));
+			notifierWebClient.ifAvailable(notifier::setWebClient);
+			return notifier;
 		}
 
 	}
@@ -288,9 +407,11 @@ public class AdminServerNotifierAutoConfiguration {
 		@Bean
 		@ConditionalOnMissingBean
 		@ConfigurationProperties("spring.boot.admin.notify.telegram")
-		public TelegramNotifier telegramNotifier(InstanceRepository repository,
-				NotifierProxyProperties proxyProperties) {
-			return new TelegramNotifier(repository, createNotifierRestTemplate(proxyProperties));
+		public TelegramNotifier telegramNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties,
+				ObjectProvider<NotifierWebClient> notifierWebClient) {
+			TelegramNotifier notifier = new TelegramNotifier(repository, createNotifierRestTemplate(proxyProperties));
+			notifierWebClient.ifAvailable(notifier::setWebClient);
+			return notifier;
 		}
 
 	}
@@ -304,8 +425,11 @@ public class AdminServerNotifierAutoConfiguration {
 		@Bean
 		@ConditionalOnMissingBean
 		@ConfigurationProperties("spring.boot.admin.notify.discord")
-		public DiscordNotifier discordNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties) {
-			return new DiscordNotifier(repository, createNotifierRestTemplate(proxyProperties));
+		public DiscordNotifier discordNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties,
+				ObjectProvider<NotifierWebClient> notifierWebClient) {
+			DiscordNotifier notifier = new DiscordNotifier(repository, createNotifierRestTemplate(proxyProperties));
+			notifierWebClient.ifAvailable(notifier::setWebClient);
+			return notifier;
 		}
 
 	}
@@ -319,9 +443,11 @@ public class AdminServerNotifierAutoConfiguration {
 		@Bean
 		@ConditionalOnMissingBean
 		@ConfigurationProperties("spring.boot.admin.notify.dingtalk")
-		public DingTalkNotifier dingTalkNotifier(InstanceRepository repository,
-				NotifierProxyProperties proxyProperties) {
-			return new DingTalkNotifier(repository, createNotifierRestTemplate(proxyProperties));
+		public DingTalkNotifier dingTalkNotifier(InstanceRepository repository, NotifierProxyProperties proxyProperties,
+				ObjectProvider<NotifierWebClient> notifierWebClient) {
+			DingTalkNotifier notifier = new DingTalkNotifier(repository, createNotifierRestTemplate(proxyProperties));
+			notifierWebClient.ifAvailable(notifier::setWebClient);
+			return notifier;
 		}
 
 	}
@@ -18,18 +18,24 @@ package de.codecentric.boot.admin.server.config;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.convert.DurationUnit;
 
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher.OverflowPolicy;
+import de.codecentric.boot.admin.server.eventstore.JdbcEventStore;
 import de.codecentric.boot.admin.server.web.PathUtils;
 import de.codecentric.boot.admin.server.web.client.BasicAuthHttpHeaderProvider.InstanceCredentials;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 
 @lombok.Data
 @ConfigurationProperties("spring.boot.admin")
@@ -49,6 +55,20 @@ public class AdminServerProperties {
 
 	private InstanceProxyProperties instanceProxy = new InstanceProxyProperties();
 
+	private InstanceClientProperties instanceClient = new InstanceClientProperties();
+
+	private ServerSentEventsProperties serverSentEvents = new ServerSentEventsProperties();
+
+	private EventHandlerProperties eventHandler = new EventHandlerProperties();
+
+	private EventBusProperties eventBus = new EventBusProperties();
+
+	private TombstonesProperties tombstones = new TombstonesProperties();
+
+	private JdbcProperties jdbc = new JdbcProperties();
+
+	private MetricsProperties metrics = new MetricsProperties();
+
 	/**
 	 * The metadata keys which should be sanitized when serializing to json
 	 */
@@ -65,6 +85,8 @@ public class AdminServerProperties {
 			"threaddump", "jolokia", "info", "logfile", "refresh", "flyway", "liquibase", "heapdump", "loggers",
 			"auditevents", "mappings", "scheduledtasks", "configprops", "caches", "beans" };
 
+	private ProbedEndpointsCacheProperties probedEndpointsCache = new ProbedEndpointsCacheProperties();
+
 	public void setContextPath(String contextPath) {
 		this.contextPath = PathUtils.normalizePath(contextPath);
 	}
@@ -140,6 +162,182 @@ public class AdminServerProperties {
 		@DurationUnit(ChronoUnit.MILLIS)
 		private Map<String, Duration> timeout = new HashMap<>();
 
+		/**
+		 * Whether the updates of an instance (status, info, endpoints and registration)
+		 * should be queued per instance and applied one after the other, instead of being
+		 * retried when they conflict.
+		 */
+		private boolean serializeUpdates = false;
+
+		private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+
+	}
+
+	@lombok.Data
+	public static class CircuitBreakerProperties {
+
+		/**
+		 * Whether requests to instances failing repeatedly should fail fast.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Number of consecutive failed requests after which the circuit for an instance
+		 * is opened.
+		 */
+		private int failureThreshold = 5;
+
+		/**
+		 * Time the circuit stays open before the next status check is let through as
+		 * probe.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration openDuration = Duration.ofMillis(30_000L);
+
+	}
+
+	@lombok.Data
+	public static class ServerSentEventsProperties {
+
+		/**
+		 * Number of frames buffered per subscriber. Streams of subscribers exceeding the
+		 * buffer are completed, so the client reconnects and reloads its state.
+		 */
+		private int bufferSize = 256;
+
+		/**
+		 * Window to coalesce the updates of an application in. Only the latest state of
+		 * each application is emitted per window. Disabled if zero.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration applicationWindow = Duration.ZERO;
+
+	}
+
+	@lombok.Data
+	public static class TombstonesProperties {
+
+		/**
+		 * Whether deregistered instances should be evicted from the server after the time
+		 * to live.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Time a deregistered instance is kept before all its state (events, snapshot,
+		 * scheduled checks and sent notifications) is evicted.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration timeToLive = Duration.ofMillis(3_600_000L);
+
+		/**
+		 * Interval to check for deregistered instances to evict.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration interval = Duration.ofMillis(60_000L);
+
+	}
+
+	@lombok.Data
+	public static class JdbcProperties {
+
+		/**
+		 * Whether the events should be stored in the database of the application's
+		 * DataSource.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Name of the table to store the events.
+		 */
+		private String tableName = JdbcEventStore.DEFAULT_TABLE_NAME;
+
+		/**
+		 * Maximum number of events inserted in one group commit.
+		 */
+		private int maxBatchSize = JdbcEventStore.DEFAULT_MAX_BATCH_SIZE;
+
+		/**
+		 * Number of events of an instance after which they are compacted to the latest
+		 * event of each type.
+		 */
+		private int maxEventsPerInstance = JdbcEventStore.DEFAULT_MAX_LOG_SIZE_PER_AGGREGATE;
+
+		/**
+		 * Interval to poll the table for events appended by other servers.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration pollInterval = Duration.ofMillis(1_000L);
+
+	}
+
+	@lombok.Data
+	public static class MetricsProperties {
+
+		/**
+		 * Whether the metrics of the requests to the instances should be tagged with the
+		 * application name. Beware that this increases the number of time series with the
+		 * number of registered applications.
+		 */
+		private boolean applicationTag = false;
+
+	}
+
+	@lombok.Data
+	public static class EventBusProperties {
+
+		/**
+		 * Number of published events buffered per subscriber.
+		 */
+		private int bufferSize = InstanceEventPublisher.DEFAULT_BUFFER_SIZE;
+
+		/**
+		 * Policy applied when the buffer of a subscriber is full.
+		 */
+		private OverflowPolicy overflowPolicy = OverflowPolicy.DISCONNECT;
+
+		/**
+		 * Maximum time the appender is blocked by a full buffer when using the `block`
+		 * policy, before the subscriber is disconnected.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration blockTimeout = Duration.ofMillis(1_000L);
+
+	}
+
+	@lombok.Data
+	public static class EventHandlerProperties {
+
+		/**
+		 * Number of rails the events are dispatched on by each event handler. The events
+		 * are partitioned by instance id, so the events of an instance are handled in
+		 * order.
+		 */
+		private int parallelism = 1;
+
+	}
+
+	@lombok.Data
+	public static class ProbedEndpointsCacheProperties {
+
+		/**
+		 * Whether instances of the same deployment (same management path, build version
+		 * and registration metadata) should reuse the probed endpoints instead of probing
+		 * them again.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Time to live of the cached endpoints.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration timeToLive = Duration.ofMinutes(10L);
+
+		/**
+		 * Maximum number of cached deployments.
+		 */
+		private int maxSize = 1000;
+
 	}
 
 	@lombok.Data
@@ -185,4 +383,89 @@ public class AdminServerProperties {
 
 	}
 
+	@lombok.Data
+	public static class InstanceClientProperties {
+
+		/**
+		 * HTTP protocols used for requests to the instances. Add `h2` to negotiate HTTP/2
+		 * via ALPN for https-urls and `h2c` to upgrade plain http-urls to HTTP/2.
+		 */
+		private List<HttpProtocol> protocols = new ArrayList<>(singletonList(HttpProtocol.HTTP11));
+
+		private ConnectionPoolProperties pool = new ConnectionPoolProperties();
+
+	}
+
+	@lombok.Data
+	public static class ConnectionPoolProperties {
+
+		/**
+		 * Whether to use a dedicated connection pool for requests to the instances. The
+		 * limits apply per instance host, so a single unresponsive host can't exhaust the
+		 * connections needed by the others.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Maximum number of connections per instance host.
+		 */
+		private int maxConnections = 16;
+
+		/**
+		 * Maximum number of requests per instance host waiting for a connection. Use -2
+		 * for twice the number of max-connections and -1 for no limit.
+		 */
+		private int pendingAcquireMaxCount = -2;
+
+		/**
+		 * Maximum time to wait for a connection from the pool.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration pendingAcquireTimeout = Duration.ofMillis(10_000L);
+
+		/**
+		 * Time after which an idle connection is closed.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration maxIdleTime = Duration.ofSeconds(30L);
+
+		/**
+		 * Maximum lifetime of a connection. Unlimited if not set.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration maxLifeTime = null;
+
+		/**
+		 * Interval to evict idle and expired connections in the background. Disabled if
+		 * zero.
+		 */
+		@DurationUnit(ChronoUnit.MILLIS)
+		private Duration evictionInterval = Duration.ofSeconds(30L);
+
+		/**
+		 * Whether to publish connection pool metrics per instance host.
+		 */
+		private boolean metricsEnabled = true;
+
+	}
+
+	public enum HttpProtocol {
+
+		/**
+		 * HTTP/1.1
+		 */
+		HTTP11,
+
+		/**
+		 * HTTP/2 over TLS
+		 */
+		H2,
+
+		/**
+		 * HTTP/2 cleartext
+		 */
+		H2C
+
+	}
+
 }
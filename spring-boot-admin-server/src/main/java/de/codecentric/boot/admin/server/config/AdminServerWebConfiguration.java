@@ -16,22 +16,28 @@
 
 package de.codecentric.boot.admin.server.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
 
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher;
 import de.codecentric.boot.admin.server.eventstore.InstanceEventStore;
 import de.codecentric.boot.admin.server.services.ApplicationRegistry;
 import de.codecentric.boot.admin.server.services.InstanceRegistry;
 import de.codecentric.boot.admin.server.utils.jackson.AdminServerModule;
+import de.codecentric.boot.admin.server.utils.jackson.InstanceJsonCache;
 import de.codecentric.boot.admin.server.web.ApplicationsController;
 import de.codecentric.boot.admin.server.web.InstancesController;
+import de.codecentric.boot.admin.server.web.ServerSentEventHub;
 import de.codecentric.boot.admin.server.web.client.InstanceWebClient;
 
 @Configuration(proxyBeanMethods = false)
@@ -44,20 +50,41 @@ public class AdminServerWebConfiguration {
 	}
 
 	@Bean
-	public SimpleModule adminJacksonModule() {
-		return new AdminServerModule(this.adminServerProperties.getMetadataKeysToSanitize());
+	@ConditionalOnMissingBean
+	public InstanceJsonCache instanceJsonCache() {
+		return new InstanceJsonCache();
+	}
+
+	@Bean
+	public SimpleModule adminJacksonModule(InstanceJsonCache instanceJsonCache) {
+		return new AdminServerModule(this.adminServerProperties.getMetadataKeysToSanitize(), instanceJsonCache);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public ServerSentEventHub serverSentEventHub(InstanceEventPublisher eventPublisher,
+			InstanceRegistry instanceRegistry, ApplicationRegistry applicationRegistry,
+			ObjectProvider<ObjectMapper> objectMapper) {
+		return new ServerSentEventHub(eventPublisher, instanceRegistry, applicationRegistry,
+				objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json()
+						.modulesToInstall(new AdminServerModule(this.adminServerProperties.getMetadataKeysToSanitize()))
+						.build()),
+				this.adminServerProperties.getServerSentEvents().getBufferSize(),
+				this.adminServerProperties.getServerSentEvents().getApplicationWindow());
 	}
 
 	@Bean
 	@ConditionalOnMissingBean
-	public InstancesController instancesController(InstanceRegistry instanceRegistry, InstanceEventStore eventStore) {
-		return new InstancesController(instanceRegistry, eventStore);
+	public InstancesController instancesController(InstanceRegistry instanceRegistry, InstanceEventStore eventStore,
+			ServerSentEventHub serverSentEventHub) {
+		return new InstancesController(instanceRegistry, eventStore, serverSentEventHub);
 	}
 
 	@Bean
 	@ConditionalOnMissingBean
-	public ApplicationsController applicationsController(ApplicationRegistry applicationRegistry) {
-		return new ApplicationsController(applicationRegistry);
+	public ApplicationsController applicationsController(ApplicationRegistry applicationRegistry,
+			ServerSentEventHub serverSentEventHub) {
+		return new ApplicationsController(applicationRegistry, serverSentEventHub);
 	}
 
 	@Configuration(proxyBeanMethods = false)
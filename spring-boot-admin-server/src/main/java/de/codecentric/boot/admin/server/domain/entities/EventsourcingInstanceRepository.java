@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,18 @@
 
 package de.codecentric.boot.admin.server.domain.entities;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
+import javax.annotation.Nullable;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
@@ -34,18 +42,41 @@ import de.codecentric.boot.admin.server.eventstore.OptimisticLockingException;
  *
  * @author Johannes Edmeier
  */
-public class EventsourcingInstanceRepository implements InstanceRepository {
+public class EventsourcingInstanceRepository implements InstanceRepository, MeterBinder {
 
 	private static final Logger log = LoggerFactory.getLogger(EventsourcingInstanceRepository.class);
 
 	private final InstanceEventStore eventStore;
 
-	private final Retry retryOptimisticLockException = Retry.max(10)
-			.doBeforeRetry((s) -> log.debug("Retrying after OptimisticLockingException", s.failure()))
-			.filter(OptimisticLockingException.class::isInstance);
+	private final AtomicLong retries = new AtomicLong();
+
+	private final AtomicLong retriesExhausted = new AtomicLong();
+
+	private final Retry retryOptimisticLockException = Retry.max(10).doBeforeRetry((s) -> {
+		log.debug("Retrying after OptimisticLockingException", s.failure());
+		this.retries.incrementAndGet();
+	}).onRetryExhaustedThrow((spec, s) -> {
+		this.retriesExhausted.incrementAndGet();
+		return Exceptions.retryExhausted("Retries exhausted: " + s.totalRetries() + "/10", s.failure());
+	}).filter(OptimisticLockingException.class::isInstance);
+
+	@Nullable
+	private final InstanceMailbox mailbox;
 
 	public EventsourcingInstanceRepository(InstanceEventStore eventStore) {
+		this(eventStore, null);
+	}
+
+	/**
+	 * Creates the repository. If a mailbox is given, compute and computeIfPresent for the
+	 * same instance are applied one after the other instead of being retried on
+	 * conflicting updates.
+	 * @param eventStore the store for the events
+	 * @param mailbox the mailbox serializing the updates per instance
+	 */
+	public EventsourcingInstanceRepository(InstanceEventStore eventStore, @Nullable InstanceMailbox mailbox) {
 		this.eventStore = eventStore;
+		this.mailbox = mailbox;
 	}
 
 	@Override
@@ -56,7 +87,7 @@ public class EventsourcingInstanceRepository implements InstanceRepository {
 	@Override
 	public Flux<Instance> findAll() {
 		return this.eventStore.findAll().groupBy(InstanceEvent::getInstance)
-				.flatMap((f) -> f.reduce(Instance.create(f.key()), Instance::apply));
+				.flatMap((f) -> f.collectList().map((events) -> Instance.create(f.key()).apply(events)));
 	}
 
 	@Override
@@ -72,16 +103,30 @@ public class EventsourcingInstanceRepository implements InstanceRepository {
 
 	@Override
 	public Mono<Instance> compute(InstanceId id, BiFunction<InstanceId, Instance, Mono<Instance>> remappingFunction) {
-		return this.find(id).flatMap((application) -> remappingFunction.apply(id, application))
-				.switchIfEmpty(Mono.defer(() -> remappingFunction.apply(id, null))).flatMap(this::save)
-				.retryWhen(this.retryOptimisticLockException);
+		return this.inMailbox(id,
+				() -> this.find(id).flatMap((application) -> remappingFunction.apply(id, application))
+						.switchIfEmpty(Mono.defer(() -> remappingFunction.apply(id, null))).flatMap(this::save)
+						.retryWhen(this.retryOptimisticLockException));
 	}
 
 	@Override
 	public Mono<Instance> computeIfPresent(InstanceId id,
 			BiFunction<InstanceId, Instance, Mono<Instance>> remappingFunction) {
-		return this.find(id).flatMap((application) -> remappingFunction.apply(id, application)).flatMap(this::save)
-				.retryWhen(this.retryOptimisticLockException);
+		return this.inMailbox(id, () -> this.find(id).flatMap((application) -> remappingFunction.apply(id, application))
+				.flatMap(this::save).retryWhen(this.retryOptimisticLockException));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("spring.boot.admin.instances.retries", this.retries, AtomicLong::get)
+				.description("Number of updates retried after an OptimisticLockingException").register(registry);
+		FunctionCounter.builder("spring.boot.admin.instances.retries.exhausted", this.retriesExhausted, AtomicLong::get)
+				.description("Number of updates failed after retrying on OptimisticLockingExceptions")
+				.register(registry);
+	}
+
+	private Mono<Instance> inMailbox(InstanceId id, Supplier<Mono<Instance>> command) {
+		return (this.mailbox != null) ? this.mailbox.submit(id, command) : Mono.defer(command);
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -180,13 +180,19 @@ public final class Instance implements Serializable {
 				this.statusTimestamp, this.info, this.endpoints, this.buildVersion, this.tags, emptyList());
 	}
 
+	/**
+	 * Applies the events in order. Instead of creating an instance per event, the events
+	 * are folded into a {@link Replay} and a single instance is created at the end.
+	 * @param events the events to apply
+	 * @return the instance with all events applied
+	 */
 	Instance apply(Collection<InstanceEvent> events) {
 		Assert.notNull(events, "'events' must not be null");
-		Instance instance = this;
+		Replay replay = new Replay(this);
 		for (InstanceEvent event : events) {
-			instance = instance.apply(event);
+			replay.apply(event);
 		}
-		return instance;
+		return replay.toInstance();
 	}
 
 	Instance apply(InstanceEvent event) {
@@ -261,13 +267,121 @@ public final class Instance implements Serializable {
 
 	@Nullable
 	@SafeVarargs
-	private final BuildVersion updateBuildVersion(Map<String, ?>... sources) {
+	private static BuildVersion updateBuildVersion(Map<String, ?>... sources) {
 		return Arrays.stream(sources).map(BuildVersion::from).filter(Objects::nonNull).findFirst().orElse(null);
 	}
 
 	@SafeVarargs
-	private final Tags updateTags(Map<String, ?>... sources) {
+	private static Tags updateTags(Map<String, ?>... sources) {
 		return Arrays.stream(sources).map((source) -> Tags.from(source, "tags")).reduce(Tags.empty(), Tags::append);
 	}
 
+	/**
+	 * Mutable state to replay events on. Derived values (build version, tags and the
+	 * health endpoint) are only computed once, when the instance is created.
+	 */
+	private static final class Replay {
+
+		private final Instance origin;
+
+		private long version;
+
+		@Nullable
+		private Registration registration;
+
+		private boolean registered;
+
+		private StatusInfo statusInfo;
+
+		private Instant statusTimestamp;
+
+		private Info info;
+
+		private Endpoints endpoints;
+
+		@Nullable
+		private BuildVersion buildVersion;
+
+		private Tags tags;
+
+		private boolean changed = false;
+
+		private boolean derivedOutdated = false;
+
+		private Replay(Instance origin) {
+			this.origin = origin;
+			this.version = origin.version;
+			this.registration = origin.registration;
+			this.registered = origin.registered;
+			this.statusInfo = origin.statusInfo;
+			this.statusTimestamp = origin.statusTimestamp;
+			this.info = origin.info;
+			this.endpoints = origin.endpoints;
+			this.buildVersion = origin.buildVersion;
+			this.tags = origin.tags;
+		}
+
+		private void apply(InstanceEvent event) {
+			Assert.notNull(event, "'event' must not be null");
+			Assert.isTrue(this.origin.id.equals(event.getInstance()), "'event' must refer the same instance");
+			Assert.isTrue(event.getVersion() >= this.version + 1L,
+					() -> "Event " + event.getVersion() + " must be greater or equal to " + (this.version + 1L));
+
+			if (event instanceof InstanceRegisteredEvent) {
+				this.registration = ((InstanceRegisteredEvent) event).getRegistration();
+				this.registered = true;
+				this.statusInfo = StatusInfo.ofUnknown();
+				this.statusTimestamp = event.getTimestamp();
+				this.info = Info.empty();
+				this.endpoints = Endpoints.empty();
+				this.derivedOutdated = true;
+			}
+			else if (event instanceof InstanceRegistrationUpdatedEvent) {
+				this.registration = ((InstanceRegistrationUpdatedEvent) event).getRegistration();
+				this.derivedOutdated = true;
+			}
+			else if (event instanceof InstanceStatusChangedEvent) {
+				this.statusInfo = ((InstanceStatusChangedEvent) event).getStatusInfo();
+				this.statusTimestamp = event.getTimestamp();
+			}
+			else if (event instanceof InstanceEndpointsDetectedEvent) {
+				this.endpoints = ((InstanceEndpointsDetectedEvent) event).getEndpoints();
+			}
+			else if (event instanceof InstanceInfoChangedEvent) {
+				this.info = ((InstanceInfoChangedEvent) event).getInfo();
+				this.derivedOutdated = true;
+			}
+			else if (event instanceof InstanceDeregisteredEvent) {
+				this.registered = false;
+				this.statusInfo = StatusInfo.ofUnknown();
+				this.statusTimestamp = event.getTimestamp();
+				this.info = Info.empty();
+				this.endpoints = Endpoints.empty();
+				this.buildVersion = null;
+				this.tags = Tags.empty();
+				this.derivedOutdated = false;
+			}
+			else {
+				return;
+			}
+			this.version = event.getVersion();
+			this.changed = true;
+		}
+
+		private Instance toInstance() {
+			if (!this.changed) {
+				return this.origin;
+			}
+			if (this.derivedOutdated) {
+				Map<String, ?> metadata = (this.registration != null) ? this.registration.getMetadata() : emptyMap();
+				this.buildVersion = updateBuildVersion(metadata, this.info.getValues());
+				this.tags = updateTags(metadata, this.info.getValues());
+			}
+			return new Instance(this.origin.id, this.version, this.registration, this.registered, this.statusInfo,
+					this.statusTimestamp, this.info, this.endpoints, this.buildVersion, this.tags,
+					this.origin.unsavedEvents);
+		}
+
+	}
+
 }
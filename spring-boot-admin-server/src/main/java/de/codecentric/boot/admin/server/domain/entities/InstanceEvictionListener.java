@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.domain.entities;
+
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+/**
+ * Callback for components keeping state per instance. It is invoked after a deregistered
+ * instance has been evicted from the event store, so the state of the instance can be
+ * discarded as well.
+ */
+@FunctionalInterface
+public interface InstanceEvictionListener {
+
+	/**
+	 * Discards the state kept for the evicted instance.
+	 * @param id the id of the evicted instance
+	 */
+	void evicted(InstanceId id);
+
+}
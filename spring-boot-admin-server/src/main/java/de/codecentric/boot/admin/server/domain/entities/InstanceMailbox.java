@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.domain.entities;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+/**
+ * Serializes the commands for each instance: a command is subscribed to only after all
+ * previously submitted commands for the same instance have terminated. Commands for
+ * different instances run concurrently.
+ * <p>
+ * Only the tail of each queue is kept, so an idle instance doesn't occupy any memory.
+ * Commands must not submit further commands for the same instance and wait for them, as
+ * that would never complete.
+ */
+public class InstanceMailbox {
+
+	private final ConcurrentMap<InstanceId, Mono<Void>> tails = new ConcurrentHashMap<>();
+
+	/**
+	 * Submits the command for the instance. The command is created and subscribed to when
+	 * it is its turn.
+	 * @param id the instance the command is for
+	 * @param command the command to run
+	 * @param <T> result type of the command
+	 * @return the result of the command
+	 */
+	public <T> Mono<T> submit(InstanceId id, Supplier<Mono<T>> command) {
+		return Mono.defer(() -> {
+			Sinks.Empty<Void> done = Sinks.empty();
+			Mono<Void> tail = done.asMono();
+			Mono<Void> previous = this.tails.put(id, tail);
+			Mono<Void> turn = (previous != null) ? previous : Mono.empty();
+			AtomicBoolean started = new AtomicBoolean(false);
+			Runnable release = () -> {
+				this.tails.remove(id, tail);
+				done.tryEmitEmpty();
+			};
+			return turn.then(Mono.defer(() -> {
+				started.set(true);
+				return command.get();
+			})).doFinally((s) -> {
+				if (s == SignalType.CANCEL && !started.get()) {
+					// cancelled while waiting: the previous command may still be running
+					turn.doFinally((t) -> release.run()).subscribe();
+				}
+				else {
+					release.run();
+				}
+			});
+		});
+	}
+
+	/**
+	 * Returns the number of instances with pending commands.
+	 * @return number of instances with pending commands
+	 */
+	public int size() {
+		return this.tails.size();
+	}
+
+}
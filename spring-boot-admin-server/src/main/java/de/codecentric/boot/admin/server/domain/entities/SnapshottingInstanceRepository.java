@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,14 @@
 
 package de.codecentric.boot.admin.server.domain.entities;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
@@ -28,9 +32,12 @@ import org.slf4j.LoggerFactory;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher.OverflowPolicy;
 import de.codecentric.boot.admin.server.eventstore.InstanceEventStore;
 import de.codecentric.boot.admin.server.eventstore.OptimisticLockingException;
 
@@ -39,7 +46,8 @@ import de.codecentric.boot.admin.server.eventstore.OptimisticLockingException;
  *
  * @author Johannes Edmeier
  */
-public class SnapshottingInstanceRepository extends EventsourcingInstanceRepository {
+public class SnapshottingInstanceRepository extends EventsourcingInstanceRepository
+		implements InstanceEvictionListener {
 
 	private static final Logger log = LoggerFactory.getLogger(SnapshottingInstanceRepository.class);
 
@@ -53,7 +61,11 @@ public class SnapshottingInstanceRepository extends EventsourcingInstanceReposit
 	private Disposable subscription;
 
 	public SnapshottingInstanceRepository(InstanceEventStore eventStore) {
-		super(eventStore);
+		this(eventStore, null);
+	}
+
+	public SnapshottingInstanceRepository(InstanceEventStore eventStore, @Nullable InstanceMailbox mailbox) {
+		super(eventStore, mailbox);
 		this.eventStore = eventStore;
 	}
 
@@ -81,7 +93,17 @@ public class SnapshottingInstanceRepository extends EventsourcingInstanceReposit
 	}
 
 	public void start() {
-		this.subscription = this.eventStore.findAll().concatWith(this.eventStore).subscribe(this::updateSnapshot);
+		// The snapshots must see every event: the appenders are blocked if the snapshots
+		// don't keep up and in case of an error the snapshots are resynced from the
+		// store.
+		this.subscription = Flux
+				.defer(() -> this.eventStore.findAll().collectMultimap(InstanceEvent::getInstance)
+						.doOnNext((eventsById) -> eventsById.forEach(this::replaySnapshot))
+						.thenMany(InstanceEventPublisher.withOverflowPolicy(this.eventStore, OverflowPolicy.BLOCK)))
+				.retryWhen(Retry.indefinitely()
+						.doBeforeRetry((s) -> log.warn("Resyncing the snapshots after error", s.failure())))
+				.contextWrite(InstanceEventPublisher.subscriberName(SnapshottingInstanceRepository.class.getName()))
+				.subscribe(this::updateSnapshot);
 	}
 
 	public void stop() {
@@ -91,6 +113,12 @@ public class SnapshottingInstanceRepository extends EventsourcingInstanceReposit
 		}
 	}
 
+	@Override
+	public void evicted(InstanceId id) {
+		this.snapshots.computeIfPresent(id, (key, snapshot) -> snapshot.isRegistered() ? snapshot : null);
+		this.oudatedSnapshots.remove(id);
+	}
+
 	protected Mono<Instance> rehydrateSnapshot(InstanceId id) {
 		return super.find(id).map((instance) -> this.snapshots.compute(id, (key, snapshot) -> {
 			// check if the loaded version hasn't been already outdated by a snapshot
@@ -103,6 +131,22 @@ public class SnapshottingInstanceRepository extends EventsourcingInstanceReposit
 		}));
 	}
 
+	protected void replaySnapshot(InstanceId id, Collection<InstanceEvent> events) {
+		try {
+			this.snapshots.compute(id, (key, old) -> {
+				Instance instance = (old != null) ? old : Instance.create(key);
+				List<InstanceEvent> newEvents = events.stream()
+						.filter((event) -> event.getVersion() > instance.getVersion())
+						.sorted(Comparator.comparingLong(InstanceEvent::getVersion)).collect(Collectors.toList());
+				return instance.apply(newEvents);
+			});
+		}
+		catch (Exception ex) {
+			log.warn("Error while replaying the snapshot for {}, applying the events one by one", id, ex);
+			events.forEach(this::updateSnapshot);
+		}
+	}
+
 	protected void updateSnapshot(InstanceEvent event) {
 		try {
 			this.snapshots.compute(event.getInstance(), (key, old) -> {
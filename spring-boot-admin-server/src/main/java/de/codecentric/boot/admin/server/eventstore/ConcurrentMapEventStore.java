@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package de.codecentric.boot.admin.server.eventstore;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -26,25 +28,28 @@ import java.util.Optional;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import de.codecentric.boot.admin.server.domain.events.InstanceDeregisteredEvent;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
 
-import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.reducing;
+import static java.util.stream.Collectors.toList;
 
 public abstract class ConcurrentMapEventStore extends InstanceEventPublisher implements InstanceEventStore {
 
 	private static final Logger log = LoggerFactory.getLogger(ConcurrentMapEventStore.class);
 
-	private static final Comparator<InstanceEvent> byTimestampAndIdAndVersion = comparing(InstanceEvent::getTimestamp)
-			.thenComparing(InstanceEvent::getInstance).thenComparing(InstanceEvent::getVersion);
+	private static final Comparator<InstanceEvent> byTimestampAndIdAndVersion = InstanceEventQuery.ORDER;
 
 	private final int maxLogSizePerAggregate;
 
@@ -67,15 +72,30 @@ public abstract class ConcurrentMapEventStore extends InstanceEventPublisher imp
 		return Flux.defer(() -> Flux.fromIterable(eventLog.getOrDefault(id, Collections.emptyList())));
 	}
 
+	@Override
+	public Flux<InstanceEvent> query(InstanceEventQuery query) {
+		return Flux.defer(() -> {
+			Collection<List<InstanceEvent>> logs = query.getInstances().isEmpty() ? eventLog.values()
+					: query.getInstances().stream().map((id) -> eventLog.getOrDefault(id, Collections.emptyList()))
+							.collect(toList());
+			Stream<InstanceEvent> events = logs.stream().flatMap(List::stream).filter(query::matches)
+					.sorted(byTimestampAndIdAndVersion);
+			if (query.getLimit() > 0) {
+				events = events.limit(query.getLimit());
+			}
+			return Flux.fromIterable(events.collect(toList()));
+		});
+	}
+
 	@Override
 	public Mono<Void> append(List<InstanceEvent> events) {
-		return Mono.fromRunnable(() -> {
+		return this.recordAppend(Mono.fromRunnable(() -> {
 			while (true) {
 				if (doAppend(events)) {
 					return;
 				}
 			}
-		});
+		}));
 	}
 
 	protected boolean doAppend(List<InstanceEvent> events) {
@@ -113,6 +133,39 @@ public abstract class ConcurrentMapEventStore extends InstanceEventPublisher imp
 		return false;
 	}
 
+	@Override
+	public Mono<Boolean> evict(InstanceId id, Instant deregisteredBefore) {
+		return Mono.fromSupplier(() -> {
+			while (true) {
+				List<InstanceEvent> events = eventLog.get(id);
+				if (events == null) {
+					return true;
+				}
+				if (!events.isEmpty() && !isDeregisteredBefore(events.get(events.size() - 1), deregisteredBefore)) {
+					return false;
+				}
+				if (eventLog.remove(id, events)) {
+					log.debug("Evicted events of deregistered instance {}", id);
+					return true;
+				}
+			}
+		});
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		super.bindTo(registry);
+		Gauge.builder("spring.boot.admin.events.store.instances", this.eventLog, Map::size)
+				.description("Number of instances with events in the store").register(registry);
+		Gauge.builder("spring.boot.admin.events.store.events", this.eventLog,
+				(log) -> log.values().stream().mapToInt(List::size).sum()).description("Number of events in the store")
+				.register(registry);
+	}
+
+	private static boolean isDeregisteredBefore(InstanceEvent event, Instant deregisteredBefore) {
+		return event instanceof InstanceDeregisteredEvent && event.getTimestamp().isBefore(deregisteredBefore);
+	}
+
 	private void compact(List<InstanceEvent> events) {
 		BinaryOperator<InstanceEvent> latestEvent = (e1, e2) -> (e1.getVersion() > e2.getVersion()) ? e1 : e2;
 		Map<Class<?>, Optional<InstanceEvent>> latestPerType = events.stream()
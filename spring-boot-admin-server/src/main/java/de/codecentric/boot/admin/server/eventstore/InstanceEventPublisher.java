@@ -16,43 +16,533 @@
 
 package de.codecentric.boot.admin.server.eventstore;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+import javax.annotation.Nullable;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Data;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
 
-public class InstanceEventPublisher implements Publisher<InstanceEvent> {
+/**
+ * Publishes the appended events to all subscribers. Each published event gets a
+ * monotonically increasing sequence and the latest events are kept in a bounded replay
+ * buffer, so that subscribers can resume after reconnecting.
+ * <p>
+ * Every subscriber gets its own bounded buffer. When a subscriber doesn't keep up and its
+ * buffer is full the {@link OverflowPolicy} of the subscription is applied, so a slow
+ * subscriber neither grows the heap nor holds back the other subscribers.
+ * <p>
+ * The lag of the subscribers is published per subscriber name, which is taken from the
+ * subscriber context (see {@link #subscriberName(String)}).
+ */
+public class InstanceEventPublisher implements Publisher<InstanceEvent>, MeterBinder {
+
+	public static final int DEFAULT_REPLAY_BUFFER_SIZE = 1024;
+
+	public static final int DEFAULT_BUFFER_SIZE = 16384;
 
 	private static final Logger log = LoggerFactory.getLogger(InstanceEventPublisher.class);
 
-	private final Flux<InstanceEvent> publishedFlux;
+	private static final long BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+	private static final String SUBSCRIBER_NAME_KEY = InstanceEventPublisher.class.getName() + ".subscriber";
+
+	private static final String DEFAULT_SUBSCRIBER_NAME = "unnamed";
+
+	private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+	private final Map<SubscriberKey, List<Meter>> subscriberMeters = new HashMap<>();
+
+	private final AtomicLong subscriptionIds = new AtomicLong();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final AtomicLong disconnected = new AtomicLong();
+
+	private final String epoch = UUID.randomUUID().toString().substring(0, 8);
 
-	private final Sinks.Many<InstanceEvent> unicast;
+	private final Deque<SequencedInstanceEvent> replayBuffer = new ArrayDeque<>();
 
-	private final Sinks.EmitFailureHandler emitFailureHandler = (signalType, emitResult) -> emitResult
-			.equals(Sinks.EmitResult.FAIL_NON_SERIALIZED);
+	private final int replayBufferSize;
+
+	private long sequence = 0L;
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DISCONNECT;
+
+	private Duration blockTimeout = Duration.ofSeconds(1L);
+
+	@Nullable
+	private volatile MeterRegistry registry;
 
 	protected InstanceEventPublisher() {
-		this.unicast = Sinks.many().unicast().onBackpressureBuffer();
-		this.publishedFlux = this.unicast.asFlux().publish().autoConnect(0);
+		this(DEFAULT_REPLAY_BUFFER_SIZE);
+	}
+
+	protected InstanceEventPublisher(int replayBufferSize) {
+		this.replayBufferSize = replayBufferSize;
 	}
 
 	protected void publish(List<InstanceEvent> events) {
-		events.forEach((event) -> {
-			log.debug("Event published {}", event);
-			this.unicast.emitNext(event, emitFailureHandler);
-		});
+		long last;
+		synchronized (this.replayBuffer) {
+			events.forEach((event) -> {
+				log.debug("Event published {}", event);
+				long next = ++this.sequence;
+				SequencedInstanceEvent sequenced = new SequencedInstanceEvent(this.epoch + ":" + next, next, event);
+				this.replayBuffer.addLast(sequenced);
+				if (this.replayBuffer.size() > this.replayBufferSize) {
+					this.replayBuffer.removeFirst();
+				}
+				this.subscriptions.forEach((subscription) -> subscription.emit(sequenced));
+			});
+			last = this.sequence;
+		}
+		// Blocking subscribers are waited for after releasing the lock, so subscribers
+		// appending events themselves are not stalled by a slow one.
+		this.subscriptions.forEach((subscription) -> subscription.awaitDelivered(last));
 	}
 
 	@Override
 	public void subscribe(Subscriber<? super InstanceEvent> s) {
-		this.publishedFlux.subscribe(s);
+		this.getSequencedEvents().map(SequencedInstanceEvent::getEvent).subscribe(s);
+	}
+
+	/**
+	 * Returns the published events together with their sequence, using the default
+	 * overflow policy.
+	 * @return the stream of sequenced events
+	 */
+	public Flux<SequencedInstanceEvent> getSequencedEvents() {
+		return this.getSequencedEvents(this.overflowPolicy);
+	}
+
+	/**
+	 * Returns the published events together with their sequence.
+	 * @param overflowPolicy the policy to apply if the subscriber doesn't keep up
+	 * @return the stream of sequenced events
+	 */
+	public Flux<SequencedInstanceEvent> getSequencedEvents(OverflowPolicy overflowPolicy) {
+		return Flux.deferContextual((context) -> {
+			SubscriberKey key = new SubscriberKey(context.getOrDefault(SUBSCRIBER_NAME_KEY, DEFAULT_SUBSCRIBER_NAME),
+					overflowPolicy);
+			EventSubscription subscription = new EventSubscription(this.subscriptionIds.incrementAndGet(), key,
+					this.bufferSize);
+			this.subscriptions.add(subscription);
+			this.bindMeters(key);
+			return subscription.sink.asFlux().doFinally((s) -> this.unsubscribe(subscription));
+		});
+	}
+
+	/**
+	 * Returns the context naming the subscriber in the published metrics. The name should
+	 * be stable, e.g. the class of the event handler, as every name is a separate time
+	 * series.
+	 * @param name the name of the subscriber
+	 * @return the context to write to the subscription
+	 */
+	public static Context subscriberName(String name) {
+		return Context.of(SUBSCRIBER_NAME_KEY, name);
+	}
+
+	/**
+	 * Returns the events of the given publisher using the given overflow policy, if it is
+	 * an {@link InstanceEventPublisher}. Any other publisher is returned as is.
+	 * @param publisher the publisher of the events
+	 * @param overflowPolicy the policy to apply if the subscriber doesn't keep up
+	 * @return the stream of events
+	 */
+	public static Publisher<InstanceEvent> withOverflowPolicy(Publisher<InstanceEvent> publisher,
+			OverflowPolicy overflowPolicy) {
+		if (publisher instanceof InstanceEventPublisher) {
+			return ((InstanceEventPublisher) publisher).getSequencedEvents(overflowPolicy)
+					.map(SequencedInstanceEvent::getEvent);
+		}
+		return publisher;
+	}
+
+	private void unsubscribe(EventSubscription subscription) {
+		if (this.subscriptions.remove(subscription)) {
+			this.unbindMeters(subscription.key);
+		}
+	}
+
+	private void bindMeters(SubscriberKey key) {
+		synchronized (this.subscriberMeters) {
+			List<Meter> meters = this.subscriberMeters.computeIfAbsent(key, (k) -> new ArrayList<>());
+			MeterRegistry meterRegistry = this.registry;
+			if (meters.isEmpty() && meterRegistry != null) {
+				meters.addAll(this.registerMeters(meterRegistry, key));
+			}
+		}
+	}
+
+	private void unbindMeters(SubscriberKey key) {
+		synchronized (this.subscriberMeters) {
+			if (this.subscriptions.stream().anyMatch((subscription) -> subscription.key.equals(key))) {
+				return;
+			}
+			List<Meter> meters = this.subscriberMeters.remove(key);
+			MeterRegistry meterRegistry = this.registry;
+			if (meters != null && meterRegistry != null) {
+				meters.forEach(meterRegistry::remove);
+			}
+		}
+	}
+
+	private List<Meter> registerMeters(MeterRegistry registry, SubscriberKey key) {
+		List<Meter> meters = new ArrayList<>();
+		meters.add(Gauge.builder("spring.boot.admin.events.subscriber.lag", this, (p) -> p.getLag(key))
+				.description("Number of events waiting to be consumed by the subscribers")
+				.tag("subscriber", key.getName()).tag("policy", key.getPolicy().name()).register(registry));
+		meters.add(Gauge.builder("spring.boot.admin.events.subscriber.buffer.usage", this, (p) -> p.getBufferUsage(key))
+				.description("Highest occupancy of the subscribers' buffers").tag("subscriber", key.getName())
+				.tag("policy", key.getPolicy().name()).register(registry));
+		return meters;
+	}
+
+	private double getLag(SubscriberKey key) {
+		return this.subscriptions.stream().filter((subscription) -> subscription.key.equals(key))
+				.mapToInt((subscription) -> subscription.queue.size()).sum();
+	}
+
+	private double getBufferUsage(SubscriberKey key) {
+		return this.subscriptions.stream().filter((subscription) -> subscription.key.equals(key))
+				.mapToDouble((subscription) -> (double) subscription.queue.size() / subscription.capacity).max()
+				.orElse(0.0);
+	}
+
+	/**
+	 * Returns the sequence of the latest published event.
+	 * @return the latest sequence
+	 */
+	public long getSequence() {
+		synchronized (this.replayBuffer) {
+			return this.sequence;
+		}
+	}
+
+	/**
+	 * Returns the buffered events published after the event with the given id.
+	 * @param eventId the id of the last event received
+	 * @return the events after the given one or {@code null} if the events can't be
+	 * replayed, because the id is unknown or some events have already been evicted from
+	 * the replay buffer
+	 */
+	@Nullable
+	public List<SequencedInstanceEvent> getEventsAfter(String eventId) {
+		int separator = eventId.lastIndexOf(':');
+		if (separator < 0 || !this.epoch.equals(eventId.substring(0, separator))) {
+			return null;
+		}
+		long after;
+		try {
+			after = Long.parseLong(eventId.substring(separator + 1));
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+
+		synchronized (this.replayBuffer) {
+			if (after > this.sequence) {
+				return null;
+			}
+			long oldest = this.replayBuffer.isEmpty() ? this.sequence + 1 : this.replayBuffer.getFirst().getSequence();
+			if (after < oldest - 1) {
+				return null;
+			}
+			List<SequencedInstanceEvent> events = new ArrayList<>((int) (this.sequence - after));
+			for (SequencedInstanceEvent event : this.replayBuffer) {
+				if (event.getSequence() > after) {
+					events.add(event);
+				}
+			}
+			return events;
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+		FunctionCounter.builder("spring.boot.admin.events.dropped", this.dropped, AtomicLong::get)
+				.description("Number of events dropped for subscribers not keeping up").register(registry);
+		FunctionCounter.builder("spring.boot.admin.events.disconnected", this.disconnected, AtomicLong::get)
+				.description("Number of subscribers disconnected for not keeping up").register(registry);
+		synchronized (this.subscriberMeters) {
+			this.subscriberMeters.forEach((key, meters) -> {
+				if (meters.isEmpty()) {
+					meters.addAll(this.registerMeters(registry, key));
+				}
+			});
+		}
+	}
+
+	/**
+	 * Records the latency and the outcome of appending events to the store, once it is
+	 * bound to a {@link MeterRegistry}.
+	 * @param append the append to record
+	 * @return the recorded append
+	 */
+	protected Mono<Void> recordAppend(Mono<Void> append) {
+		return Mono.defer(() -> {
+			MeterRegistry registry = this.registry;
+			if (registry == null) {
+				return append;
+			}
+			Timer.Sample sample = Timer.start(registry);
+			return append.doOnSuccess((v) -> stopAppend(registry, sample, "success"))
+					.doOnError((ex) -> stopAppend(registry, sample,
+							(ex instanceof OptimisticLockingException) ? "conflict" : "error"));
+		});
+	}
+
+	private void stopAppend(MeterRegistry registry, Timer.Sample sample, String outcome) {
+		sample.stop(Timer.builder("spring.boot.admin.events.store.append")
+				.description("Time taken to append events to the store").tag("outcome", outcome).register(registry));
+	}
+
+	public int getSubscriberCount() {
+		return this.subscriptions.size();
+	}
+
+	public long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	public long getDisconnectedCount() {
+		return this.disconnected.get();
+	}
+
+	/**
+	 * Sets the number of events buffered per subscriber. Applies to new subscriptions.
+	 * @param bufferSize number of events buffered per subscriber
+	 */
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be greater than 0!");
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Sets the default policy applied if a subscriber doesn't keep up.
+	 * @param overflowPolicy the policy to apply
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Sets how long the appender is blocked by a full buffer using
+	 * {@link OverflowPolicy#BLOCK}, before the subscriber is disconnected.
+	 * @param blockTimeout maximum time to block the appender
+	 */
+	public void setBlockTimeout(Duration blockTimeout) {
+		this.blockTimeout = blockTimeout;
+	}
+
+	/**
+	 * Policy applied when an event is published to a subscriber with a full buffer.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the appender until the subscriber has made room. If the block timeout
+		 * elapses the subscriber is disconnected. No events are lost as long as the
+		 * subscriber keeps up within the timeout, so this policy is meant for subscribers
+		 * which must see every event. It must not be used by subscribers appending events
+		 * while consuming them, as they would wait for themselves. Non-blocking threads
+		 * (e.g. Netty event loops) are never blocked: when they append, the waiting is
+		 * offloaded to the bounded elastic scheduler and the appender continues.
+		 */
+		BLOCK,
+
+		/**
+		 * Discard the oldest buffered event of the subscriber. Suitable for subscribers
+		 * which don't need to see every event.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Terminate the subscription with an overflow error, so the subscriber can
+		 * resubscribe and resync its state.
+		 */
+		DISCONNECT
+
+	}
+
+	private final class EventSubscription {
+
+		private final long id;
+
+		private final SubscriberKey key;
+
+		private final OverflowPolicy overflowPolicy;
+
+		private final BlockingQueue<SequencedInstanceEvent> queue;
+
+		private final int capacity;
+
+		private final Sinks.Many<SequencedInstanceEvent> sink;
+
+		private final AtomicBoolean draining = new AtomicBoolean(false);
+
+		/**
+		 * Events waiting for room in the buffer of a blocking subscriber, in order.
+		 */
+		private final Deque<SequencedInstanceEvent> pending = new ArrayDeque<>();
+
+		private boolean terminated = false;
+
+		private EventSubscription(long id, SubscriberKey key, int bufferSize) {
+			this.id = id;
+			this.key = key;
+			this.overflowPolicy = key.getPolicy();
+			this.queue = new ArrayBlockingQueue<>(bufferSize);
+			this.capacity = bufferSize;
+			this.sink = Sinks.many().unicast().onBackpressureBuffer(this.queue);
+		}
+
+		private synchronized void emit(SequencedInstanceEvent event) {
+			if (this.terminated) {
+				return;
+			}
+			if (!this.pending.isEmpty()) {
+				this.pending.addLast(event);
+				return;
+			}
+			Sinks.EmitResult result = this.sink.tryEmitNext(event);
+			if (result == Sinks.EmitResult.FAIL_OVERFLOW && this.overflowPolicy == OverflowPolicy.BLOCK) {
+				this.pending.addLast(event);
+				return;
+			}
+			if (result == Sinks.EmitResult.FAIL_OVERFLOW && this.overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+				while (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+					if (this.queue.poll() != null) {
+						InstanceEventPublisher.this.dropped.incrementAndGet();
+					}
+					result = this.sink.tryEmitNext(event);
+				}
+			}
+			this.handleResult(result);
+		}
+
+		/**
+		 * Waits until the pending events up to the given sequence have been handed to a
+		 * blocking subscriber, disconnecting it if the block timeout elapses.
+		 * @param sequence the sequence of the last event to wait for
+		 */
+		private void awaitDelivered(long sequence) {
+			if (this.overflowPolicy != OverflowPolicy.BLOCK) {
+				return;
+			}
+			if (Schedulers.isInNonBlockingThread()) {
+				// parking an event loop would stall everything else running on it
+				this.drainOffloaded();
+				return;
+			}
+			long deadline = System.nanoTime() + InstanceEventPublisher.this.blockTimeout.toNanos();
+			while (true) {
+				synchronized (this) {
+					while (!this.terminated && !this.pending.isEmpty()) {
+						Sinks.EmitResult result = this.sink.tryEmitNext(this.pending.getFirst());
+						if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+							break;
+						}
+						this.pending.removeFirst();
+						this.handleResult(result);
+					}
+					if (this.terminated || this.pending.isEmpty() || this.pending.getFirst().getSequence() > sequence) {
+						return;
+					}
+					if (System.nanoTime() >= deadline) {
+						this.handleResult(Sinks.EmitResult.FAIL_OVERFLOW);
+						return;
+					}
+				}
+				LockSupport.parkNanos(BLOCK_PARK_NANOS);
+			}
+		}
+
+		private void drainOffloaded() {
+			if (!this.hasPending() || !this.draining.compareAndSet(false, true)) {
+				return;
+			}
+			Schedulers.boundedElastic().schedule(() -> {
+				try {
+					this.awaitDelivered(Long.MAX_VALUE);
+				}
+				finally {
+					this.draining.set(false);
+				}
+				// events may have been added after the drain finished
+				this.drainOffloaded();
+			});
+		}
+
+		private synchronized boolean hasPending() {
+			return !this.terminated && !this.pending.isEmpty();
+		}
+
+		private void handleResult(Sinks.EmitResult result) {
+			if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+				log.warn("Disconnecting subscriber {}, which has {} events pending", this.id,
+						this.queue.size() + this.pending.size());
+				InstanceEventPublisher.this.disconnected.incrementAndGet();
+				this.terminate();
+				this.sink.tryEmitError(Exceptions.failWithOverflow("Subscriber doesn't keep up with the events"));
+			}
+			else if (result.isFailure()) {
+				this.terminate();
+			}
+		}
+
+		private void terminate() {
+			this.terminated = true;
+			this.pending.clear();
+			unsubscribe(this);
+		}
+
+	}
+
+	@Data
+	private static final class SubscriberKey {
+
+		private final String name;
+
+		private final OverflowPolicy policy;
+
 	}
 
 }
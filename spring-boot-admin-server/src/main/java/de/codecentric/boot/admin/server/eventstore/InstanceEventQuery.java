@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.eventstore;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+import static java.util.Comparator.comparing;
+
+/**
+ * Criteria to query the {@link InstanceEventStore}. Events are returned ordered by
+ * timestamp, instance and version; pages continue after the {@link Cursor} of the last
+ * returned event.
+ */
+@lombok.Data
+public final class InstanceEventQuery {
+
+	public static final Comparator<InstanceEvent> ORDER = comparing(InstanceEvent::getTimestamp)
+			.thenComparing(InstanceEvent::getInstance).thenComparing(InstanceEvent::getVersion);
+
+	/**
+	 * Instances to return the events for; all if empty.
+	 */
+	private final Set<InstanceId> instances;
+
+	/**
+	 * Event types to return; all if empty.
+	 */
+	private final Set<String> types;
+
+	/**
+	 * Only return events at or after this timestamp.
+	 */
+	@Nullable
+	private final Instant from;
+
+	/**
+	 * Only return events before this timestamp.
+	 */
+	@Nullable
+	private final Instant to;
+
+	/**
+	 * Only return events after this position.
+	 */
+	@Nullable
+	private final Cursor after;
+
+	/**
+	 * Maximum number of events to return; unlimited if zero.
+	 */
+	private final int limit;
+
+	@lombok.Builder(builderClassName = "Builder")
+	private InstanceEventQuery(@lombok.Singular Set<InstanceId> instances, @lombok.Singular Set<String> types,
+			@Nullable Instant from, @Nullable Instant to, @Nullable Cursor after, int limit) {
+		this.instances = instances;
+		this.types = types;
+		this.from = from;
+		this.to = to;
+		this.after = after;
+		this.limit = Math.max(limit, 0);
+	}
+
+	public boolean matches(InstanceEvent event) {
+		return (this.instances.isEmpty() || this.instances.contains(event.getInstance()))
+				&& (this.types.isEmpty() || this.types.contains(event.getType()))
+				&& (this.from == null || !event.getTimestamp().isBefore(this.from))
+				&& (this.to == null || event.getTimestamp().isBefore(this.to))
+				&& (this.after == null || this.after.isBefore(event));
+	}
+
+	/**
+	 * Position of an event in the order of the {@link InstanceEventQuery}.
+	 */
+	@lombok.Data
+	public static final class Cursor {
+
+		private final Instant timestamp;
+
+		private final InstanceId instance;
+
+		private final long version;
+
+		public static Cursor of(InstanceEvent event) {
+			return new Cursor(event.getTimestamp(), event.getInstance(), event.getVersion());
+		}
+
+		/**
+		 * Parses a cursor previously created by {@link #encode()}.
+		 * @param encoded the encoded cursor
+		 * @return the cursor
+		 * @throws IllegalArgumentException if the cursor is malformed
+		 */
+		public static Cursor parse(String encoded) {
+			String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+			String[] parts = decoded.split(",", 3);
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("Malformed cursor '" + encoded + "'");
+			}
+			try {
+				return new Cursor(Instant.parse(parts[0]), InstanceId.of(parts[2]), Long.parseLong(parts[1]));
+			}
+			catch (RuntimeException ex) {
+				throw new IllegalArgumentException("Malformed cursor '" + encoded + "'", ex);
+			}
+		}
+
+		public String encode() {
+			String plain = this.timestamp + "," + this.version + "," + this.instance;
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+		}
+
+		public boolean isBefore(InstanceEvent event) {
+			int result = this.timestamp.compareTo(event.getTimestamp());
+			if (result == 0) {
+				result = this.instance.compareTo(event.getInstance());
+			}
+			if (result == 0) {
+				result = Long.compare(this.version, event.getVersion());
+			}
+			return result < 0;
+		}
+
+	}
+
+}
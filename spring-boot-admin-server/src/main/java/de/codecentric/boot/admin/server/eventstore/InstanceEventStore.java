@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package de.codecentric.boot.admin.server.eventstore;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.reactivestreams.Publisher;
@@ -36,6 +37,29 @@ public interface InstanceEventStore extends Publisher<InstanceEvent> {
 
 	Flux<InstanceEvent> find(InstanceId id);
 
+	/**
+	 * Returns the events matching the query, ordered by timestamp, instance and version.
+	 * Stores should override this to filter the events before they are loaded.
+	 * @param query the criteria for the events
+	 * @return the matching events
+	 */
+	default Flux<InstanceEvent> query(InstanceEventQuery query) {
+		Flux<InstanceEvent> events = findAll().filter(query::matches);
+		return (query.getLimit() > 0) ? events.take(query.getLimit()) : events;
+	}
+
 	Mono<Void> append(List<InstanceEvent> events);
 
+	/**
+	 * Removes all events of a deregistered instance, if it has been deregistered before
+	 * the given instant and hasn't been registered again since. Stores should override
+	 * this to support the eviction of deregistered instances.
+	 * @param id the instance to evict
+	 * @param deregisteredBefore the latest deregistration to evict
+	 * @return {@code true} if no events are left for the instance
+	 */
+	default Mono<Boolean> evict(InstanceId id, Instant deregisteredBefore) {
+		return Mono.just(false);
+	}
+
 }
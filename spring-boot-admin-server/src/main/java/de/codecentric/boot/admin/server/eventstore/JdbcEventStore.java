@@ -0,0 +1,573 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.eventstore;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import de.codecentric.boot.admin.server.domain.events.InstanceDeregisteredEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Event-Store backed by a relational database. The events are stored in an append-only
+ * table; its unique constraint on instance and version rejects concurrent appends of the
+ * same version with an {@link OptimisticLockingException}. Concurrent appends are
+ * group-committed: appends arriving while a batch is written are inserted together in the
+ * next batch. Events appended by other servers sharing the table are picked up by polling
+ * the table and published to the subscribers.
+ * <p>
+ * Like the {@link ConcurrentMapEventStore} the events of an instance are compacted to the
+ * latest event of each type when there are more than {@code maxLogSizePerAggregate}. The
+ * timestamps are stored as nanoseconds since the epoch, so queries are sorted and paged
+ * by the database in the same order as the other event stores.
+ * <p>
+ * The schema scripts for several databases ship next to this class (e.g.
+ * {@code de/codecentric/boot/admin/server/eventstore/schema-h2.sql}).
+ */
+public class JdbcEventStore extends InstanceEventPublisher implements InstanceEventStore {
+
+	public static final String DEFAULT_TABLE_NAME = "SPRING_BOOT_ADMIN_EVENT";
+
+	public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+	public static final int DEFAULT_MAX_LOG_SIZE_PER_AGGREGATE = 100;
+
+	private static final Logger log = LoggerFactory.getLogger(JdbcEventStore.class);
+
+	private static final Duration GAP_TIMEOUT = Duration.ofSeconds(30L);
+
+	private static final int MAX_TRACKED_GAPS = 1000;
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private static final String ORDER_BY = " ORDER BY EVENT_TIMESTAMP, INSTANCE_ID, VERSION";
+
+	private final DataSource dataSource;
+
+	private final ObjectMapper objectMapper;
+
+	private final Queue<PendingAppend> pendingAppends = new ConcurrentLinkedQueue<>();
+
+	private final AtomicBoolean committing = new AtomicBoolean(false);
+
+	private final Map<InstanceId, Long> publishedVersions = new HashMap<>();
+
+	private final NavigableMap<Long, Instant> gaps = new TreeMap<>();
+
+	private long lastSequence = -1L;
+
+	private String tableName = DEFAULT_TABLE_NAME;
+
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+	private int maxLogSizePerAggregate = DEFAULT_MAX_LOG_SIZE_PER_AGGREGATE;
+
+	private Duration pollInterval = Duration.ofSeconds(1L);
+
+	@Nullable
+	private Disposable subscription;
+
+	@Nullable
+	private Scheduler scheduler;
+
+	@Nullable
+	private DistributionSummary batchSizes;
+
+	public JdbcEventStore(DataSource dataSource, ObjectMapper objectMapper) {
+		this.dataSource = dataSource;
+		this.objectMapper = objectMapper;
+	}
+
+	public void start() {
+		this.lastSequence = querySingleLong("SELECT MAX(EVENT_SEQUENCE) FROM " + this.tableName, (ps) -> {
+		});
+		this.scheduler = Schedulers.newSingle("jdbc-event-store-poll");
+		this.subscription = Flux.interval(this.pollInterval, this.scheduler)
+				.doOnSubscribe((s) -> log.debug("Polling {} every {}", this.tableName, this.pollInterval))
+				.log(log.getName(), Level.FINEST).doOnNext((i) -> this.poll())
+				.retryWhen(Retry.indefinitely()
+						.doBeforeRetry((s) -> log.warn("Unexpected error while polling events", s.failure())))
+				.subscribe();
+	}
+
+	public void stop() {
+		if (this.subscription != null) {
+			this.subscription.dispose();
+			this.subscription = null;
+		}
+		if (this.scheduler != null) {
+			this.scheduler.dispose();
+			this.scheduler = null;
+		}
+	}
+
+	@Override
+	public Flux<InstanceEvent> findAll() {
+		return queryEvents("SELECT EVENT_DATA FROM " + this.tableName + ORDER_BY, (ps) -> {
+		});
+	}
+
+	@Override
+	public Flux<InstanceEvent> find(InstanceId id) {
+		return queryEvents("SELECT EVENT_DATA FROM " + this.tableName + " WHERE INSTANCE_ID = ? ORDER BY VERSION",
+				(ps) -> ps.setString(1, id.getValue()));
+	}
+
+	@Override
+	public Flux<InstanceEvent> query(InstanceEventQuery query) {
+		List<String> conditions = new ArrayList<>();
+		List<Object> parameters = new ArrayList<>();
+		if (!query.getInstances().isEmpty()) {
+			conditions.add("INSTANCE_ID IN (" + placeholders(query.getInstances().size()) + ")");
+			query.getInstances().forEach((id) -> parameters.add(id.getValue()));
+		}
+		if (!query.getTypes().isEmpty()) {
+			conditions.add("EVENT_TYPE IN (" + placeholders(query.getTypes().size()) + ")");
+			parameters.addAll(query.getTypes());
+		}
+		if (query.getFrom() != null) {
+			conditions.add("EVENT_TIMESTAMP >= ?");
+			parameters.add(toEpochNanos(query.getFrom()));
+		}
+		if (query.getTo() != null) {
+			conditions.add("EVENT_TIMESTAMP < ?");
+			parameters.add(toEpochNanos(query.getTo()));
+		}
+		InstanceEventQuery.Cursor after = query.getAfter();
+		if (after != null) {
+			conditions.add("(EVENT_TIMESTAMP > ? OR (EVENT_TIMESTAMP = ? AND "
+					+ "(INSTANCE_ID > ? OR (INSTANCE_ID = ? AND VERSION > ?))))");
+			long timestamp = toEpochNanos(after.getTimestamp());
+			parameters.add(timestamp);
+			parameters.add(timestamp);
+			parameters.add(after.getInstance().getValue());
+			parameters.add(after.getInstance().getValue());
+			parameters.add(after.getVersion());
+		}
+		String sql = "SELECT EVENT_DATA FROM " + this.tableName
+				+ (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) + ORDER_BY;
+		return queryEvents(sql, (ps) -> {
+			for (int i = 0; i < parameters.size(); i++) {
+				ps.setObject(i + 1, parameters.get(i));
+			}
+			ps.setMaxRows(query.getLimit());
+		});
+	}
+
+	@Override
+	public Mono<Void> append(List<InstanceEvent> events) {
+		if (events.isEmpty()) {
+			return Mono.empty();
+		}
+		InstanceId id = events.get(0).getInstance();
+		if (!events.stream().allMatch((event) -> event.getInstance().equals(id))) {
+			throw new IllegalArgumentException("'events' must only refer to the same instance.");
+		}
+		return this.recordAppend(Mono.defer(() -> {
+			PendingAppend pending = new PendingAppend(events);
+			this.pendingAppends.add(pending);
+			this.scheduleCommit();
+			return pending.result.asMono();
+		}));
+	}
+
+	@Override
+	public Mono<Boolean> evict(InstanceId id, Instant deregisteredBefore) {
+		return Mono.fromCallable(() -> {
+			try (Connection connection = this.dataSource.getConnection()) {
+				return inTransaction(connection, () -> doEvict(connection, id, deregisteredBefore));
+			}
+		}).doOnNext((evicted) -> {
+			if (evicted) {
+				synchronized (this.publishedVersions) {
+					this.publishedVersions.remove(id);
+				}
+			}
+		}).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		super.bindTo(registry);
+		this.batchSizes = DistributionSummary.builder("spring.boot.admin.events.store.batch.size")
+				.description("Number of appends group-committed in one batch").register(registry);
+	}
+
+	private boolean doEvict(Connection connection, InstanceId id, Instant deregisteredBefore) throws SQLException {
+		long lastVersion;
+		try (PreparedStatement ps = connection.prepareStatement("SELECT VERSION, EVENT_TYPE, EVENT_TIMESTAMP FROM "
+				+ this.tableName + " WHERE INSTANCE_ID = ? ORDER BY VERSION DESC")) {
+			ps.setMaxRows(1);
+			ps.setString(1, id.getValue());
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next()) {
+					return true;
+				}
+				if (!InstanceDeregisteredEvent.TYPE.equals(rs.getString(2))
+						|| rs.getLong(3) >= toEpochNanos(deregisteredBefore)) {
+					return false;
+				}
+				lastVersion = rs.getLong(1);
+			}
+		}
+		try (PreparedStatement ps = connection
+				.prepareStatement("DELETE FROM " + this.tableName + " WHERE INSTANCE_ID = ? AND VERSION <= ?")) {
+			ps.setString(1, id.getValue());
+			ps.setLong(2, lastVersion);
+			ps.executeUpdate();
+		}
+		log.debug("Evicted events of deregistered instance {}", id);
+		try (PreparedStatement ps = connection
+				.prepareStatement("SELECT COUNT(*) FROM " + this.tableName + " WHERE INSTANCE_ID = ?")) {
+			ps.setString(1, id.getValue());
+			try (ResultSet rs = ps.executeQuery()) {
+				return !rs.next() || rs.getLong(1) == 0L;
+			}
+		}
+	}
+
+	private void scheduleCommit() {
+		if (this.committing.compareAndSet(false, true)) {
+			Schedulers.boundedElastic().schedule(this::commitPendingAppends);
+		}
+	}
+
+	private void commitPendingAppends() {
+		try {
+			for (List<PendingAppend> batch = nextBatch(); !batch.isEmpty(); batch = nextBatch()) {
+				commit(batch);
+			}
+		}
+		finally {
+			this.committing.set(false);
+		}
+		if (!this.pendingAppends.isEmpty()) {
+			scheduleCommit();
+		}
+	}
+
+	private List<PendingAppend> nextBatch() {
+		List<PendingAppend> batch = new ArrayList<>();
+		int size = 0;
+		while (size < this.maxBatchSize) {
+			PendingAppend pending = this.pendingAppends.poll();
+			if (pending == null) {
+				break;
+			}
+			batch.add(pending);
+			size += pending.events.size();
+		}
+		return batch;
+	}
+
+	private void commit(List<PendingAppend> batch) {
+		try {
+			try (Connection connection = this.dataSource.getConnection()) {
+				inTransaction(connection, () -> insert(connection, batch));
+			}
+			log.debug("Group-committed {} appends", batch.size());
+			if (this.batchSizes != null) {
+				this.batchSizes.record(batch.size());
+			}
+		}
+		catch (SQLException ex) {
+			if (isConstraintViolation(ex) && batch.size() > 1) {
+				log.debug("Conflicting appends in batch, committing them one by one");
+				batch.forEach((pending) -> commit(singletonList(pending)));
+			}
+			else {
+				RuntimeException error = isConstraintViolation(ex)
+						? createOptimisticLockException(batch.get(0).events.get(0))
+						: new IllegalStateException("Could not append events to " + this.tableName, ex);
+				batch.forEach((pending) -> pending.result.tryEmitError(error));
+			}
+			return;
+		}
+		catch (RuntimeException ex) {
+			batch.forEach((pending) -> pending.result.tryEmitError(ex));
+			return;
+		}
+		publishNew(batch.stream().flatMap((pending) -> pending.events.stream()).collect(Collectors.toList()));
+		batch.forEach((pending) -> pending.result.tryEmitEmpty());
+	}
+
+	private Void insert(Connection connection, List<PendingAppend> batch) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement("INSERT INTO " + this.tableName
+				+ " (INSTANCE_ID, VERSION, EVENT_TYPE, EVENT_TIMESTAMP, EVENT_DATA) VALUES (?, ?, ?, ?, ?)")) {
+			for (PendingAppend pending : batch) {
+				for (InstanceEvent event : pending.events) {
+					ps.setString(1, event.getInstance().getValue());
+					ps.setLong(2, event.getVersion());
+					ps.setString(3, event.getType());
+					ps.setLong(4, toEpochNanos(event.getTimestamp()));
+					ps.setString(5, serialize(event));
+					ps.addBatch();
+				}
+			}
+			ps.executeBatch();
+		}
+		Set<InstanceId> instances = new LinkedHashSet<>();
+		batch.forEach((pending) -> instances.add(pending.events.get(0).getInstance()));
+		for (InstanceId id : instances) {
+			compact(connection, id);
+		}
+		return null;
+	}
+
+	private void compact(Connection connection, InstanceId id) throws SQLException {
+		try (PreparedStatement ps = connection
+				.prepareStatement("SELECT COUNT(*) FROM " + this.tableName + " WHERE INSTANCE_ID = ?")) {
+			ps.setString(1, id.getValue());
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next() || rs.getLong(1) <= this.maxLogSizePerAggregate) {
+					return;
+				}
+			}
+		}
+		log.debug("Threshold for {} reached. Compacting events", id);
+		// the derived table is needed as MySQL can't select from the table it deletes
+		// from
+		try (PreparedStatement ps = connection.prepareStatement("DELETE FROM " + this.tableName
+				+ " WHERE INSTANCE_ID = ? AND VERSION NOT IN (SELECT LATEST.VERSION FROM (SELECT MAX(VERSION) AS VERSION FROM "
+				+ this.tableName + " WHERE INSTANCE_ID = ? GROUP BY EVENT_TYPE) LATEST)")) {
+			ps.setString(1, id.getValue());
+			ps.setString(2, id.getValue());
+			ps.executeUpdate();
+		}
+	}
+
+	protected void poll() {
+		long from = this.gaps.isEmpty() ? this.lastSequence : this.gaps.firstKey() - 1L;
+		List<InstanceEvent> events = new ArrayList<>();
+		Instant now = Instant.now();
+		execute("SELECT EVENT_SEQUENCE, EVENT_DATA FROM " + this.tableName
+				+ " WHERE EVENT_SEQUENCE > ? ORDER BY EVENT_SEQUENCE", (ps) -> ps.setLong(1, from), (rs) -> {
+					long sequence = rs.getLong(1);
+					this.gaps.remove(sequence);
+					if (sequence > this.lastSequence + 1L && sequence - this.lastSequence <= MAX_TRACKED_GAPS) {
+						for (long missing = this.lastSequence + 1L; missing < sequence; missing++) {
+							this.gaps.put(missing, now);
+						}
+					}
+					this.lastSequence = Math.max(this.lastSequence, sequence);
+					events.add(deserialize(rs.getString(2)));
+				});
+		Instant expiry = now.minus(GAP_TIMEOUT);
+		this.gaps.values().removeIf((seen) -> seen.isBefore(expiry));
+		publishNew(events);
+	}
+
+	private void publishNew(List<InstanceEvent> events) {
+		synchronized (this.publishedVersions) {
+			List<InstanceEvent> newEvents = events.stream().filter((event) -> {
+				Long published = this.publishedVersions.get(event.getInstance());
+				if (published != null && published >= event.getVersion()) {
+					return false;
+				}
+				this.publishedVersions.put(event.getInstance(), event.getVersion());
+				return true;
+			}).collect(Collectors.toList());
+			if (!newEvents.isEmpty()) {
+				publish(newEvents);
+			}
+		}
+	}
+
+	private Flux<InstanceEvent> queryEvents(String sql, StatementCallback parameters) {
+		return Flux.defer(() -> {
+			List<InstanceEvent> events = new ArrayList<>();
+			execute(sql, parameters, (rs) -> events.add(deserialize(rs.getString(1))));
+			return Flux.fromIterable(events);
+		}).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private long querySingleLong(String sql, StatementCallback parameters) {
+		long[] result = { -1L };
+		execute(sql, parameters, (rs) -> {
+			long value = rs.getLong(1);
+			result[0] = rs.wasNull() ? -1L : value;
+		});
+		return result[0];
+	}
+
+	private void execute(String sql, StatementCallback parameters, RowCallback rowCallback) {
+		try (Connection connection = this.dataSource.getConnection();
+				PreparedStatement ps = connection.prepareStatement(sql)) {
+			parameters.accept(ps);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					rowCallback.accept(rs);
+				}
+			}
+		}
+		catch (SQLException ex) {
+			throw new IllegalStateException("Could not query events from " + this.tableName, ex);
+		}
+	}
+
+	private static <T> T inTransaction(Connection connection, TransactionCallback<T> callback) throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		try {
+			T result = callback.call();
+			connection.commit();
+			return result;
+		}
+		catch (SQLException | RuntimeException ex) {
+			connection.rollback();
+			throw ex;
+		}
+		finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	private String serialize(InstanceEvent event) {
+		try {
+			return this.objectMapper.writeValueAsString(event);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Could not serialize event " + event, ex);
+		}
+	}
+
+	private InstanceEvent deserialize(String data) {
+		try {
+			return this.objectMapper.readValue(data, InstanceEvent.class);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Could not deserialize event " + data, ex);
+		}
+	}
+
+	private static boolean isConstraintViolation(SQLException ex) {
+		for (SQLException current = ex; current != null; current = current.getNextException()) {
+			if (current instanceof SQLIntegrityConstraintViolationException
+					|| (current.getSQLState() != null && current.getSQLState().startsWith("23"))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static long toEpochNanos(Instant instant) {
+		try {
+			return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+		}
+		catch (ArithmeticException ex) {
+			return instant.isBefore(Instant.EPOCH) ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+	}
+
+	private static String placeholders(int count) {
+		return String.join(", ", Collections.nCopies(count, "?"));
+	}
+
+	private OptimisticLockingException createOptimisticLockException(InstanceEvent event) {
+		return new OptimisticLockingException(
+				"Version " + event.getVersion() + " was overtaken for " + event.getInstance());
+	}
+
+	public void setTableName(String tableName) {
+		this.tableName = tableName;
+	}
+
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	public void setPollInterval(Duration pollInterval) {
+		this.pollInterval = pollInterval;
+	}
+
+	public void setMaxLogSizePerAggregate(int maxLogSizePerAggregate) {
+		this.maxLogSizePerAggregate = maxLogSizePerAggregate;
+	}
+
+	private static final class PendingAppend {
+
+		private final List<InstanceEvent> events;
+
+		private final Sinks.One<Void> result = Sinks.one();
+
+		private PendingAppend(List<InstanceEvent> events) {
+			this.events = events;
+		}
+
+	}
+
+	@FunctionalInterface
+	private interface StatementCallback {
+
+		void accept(PreparedStatement ps) throws SQLException;
+
+	}
+
+	@FunctionalInterface
+	private interface RowCallback {
+
+		void accept(ResultSet rs) throws SQLException;
+
+	}
+
+	@FunctionalInterface
+	private interface TransactionCallback<T> {
+
+		T call() throws SQLException;
+
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.eventstore;
+
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+
+/**
+ * An {@link InstanceEvent} together with the sequence assigned by the
+ * {@link InstanceEventPublisher} that published it.
+ */
+@lombok.Data
+public final class SequencedInstanceEvent {
+
+	/**
+	 * Id of the event, unique for the publisher; used as id of server-sent events.
+	 */
+	private final String id;
+
+	private final long sequence;
+
+	private final InstanceEvent event;
+
+}
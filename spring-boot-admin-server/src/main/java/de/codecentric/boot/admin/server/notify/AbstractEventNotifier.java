@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,11 @@
 
 package de.codecentric.boot.admin.server.notify;
 
+import javax.annotation.Nullable;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
@@ -25,11 +30,12 @@ import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
 
 /**
- * Abstract Notifier which allows disabling and filtering of events.
+ * Abstract Notifier which allows disabling and filtering of events. When bound to a
+ * {@link MeterRegistry} the latency and outcome of the sent notifications are recorded.
  *
  * @author Johannes Edmeier
  */
-public abstract class AbstractEventNotifier implements Notifier {
+public abstract class AbstractEventNotifier implements Notifier, MeterBinder {
 
 	private final InstanceRepository repository;
 
@@ -38,6 +44,9 @@ public abstract class AbstractEventNotifier implements Notifier {
 	 */
 	private boolean enabled = true;
 
+	@Nullable
+	private volatile MeterRegistry registry;
+
 	protected AbstractEventNotifier(InstanceRepository repository) {
 		this.repository = repository;
 	}
@@ -49,10 +58,33 @@ public abstract class AbstractEventNotifier implements Notifier {
 		}
 
 		return repository.find(event.getInstance()).filter((instance) -> shouldNotify(event, instance))
-				.flatMap((instance) -> doNotify(event, instance))
+				.flatMap((instance) -> record(doNotify(event, instance)))
 				.doOnError((ex) -> getLogger().error("Couldn't notify for event {} ", event, ex)).then();
 	}
 
+	private Mono<Void> record(Mono<Void> notification) {
+		MeterRegistry registry = this.registry;
+		if (registry == null) {
+			return notification;
+		}
+		return Mono.defer(() -> {
+			Timer.Sample sample = Timer.start(registry);
+			return notification.doOnSuccess((v) -> stop(registry, sample, "success"))
+					.doOnError((ex) -> stop(registry, sample, "failure"));
+		});
+	}
+
+	private void stop(MeterRegistry registry, Timer.Sample sample, String outcome) {
+		sample.stop(
+				Timer.builder("spring.boot.admin.notifications.send").description("Time taken to send notifications")
+						.tag("notifier", this.getClass().getSimpleName()).tag("outcome", outcome).register(registry));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
 	protected boolean shouldNotify(InstanceEvent event, Instance instance) {
 		return true;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,10 @@
 package de.codecentric.boot.admin.server.notify;
 
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import reactor.core.publisher.Mono;
 
@@ -36,7 +38,7 @@ import de.codecentric.boot.admin.server.domain.values.InstanceId;
  */
 public abstract class AbstractStatusChangeNotifier extends AbstractEventNotifier {
 
-	private final Map<InstanceId, String> lastStatuses = new HashMap<>();
+	private final Map<InstanceId, String> lastStatuses = new ConcurrentHashMap<>();
 
 	/**
 	 * List of changes to ignore. Must be in Format OLD:NEW, for any status use * as
@@ -50,22 +52,39 @@ public abstract class AbstractStatusChangeNotifier extends AbstractEventNotifier
 
 	@Override
 	public Mono<Void> notify(InstanceEvent event) {
-		return super.notify(event).then(Mono.fromRunnable(() -> updateLastStatus(event)));
+		InstanceEvent notification = (event instanceof StatusChangeDigestEvent)
+				? withoutIgnored((StatusChangeDigestEvent) event) : event;
+		return super.notify(notification).then(Mono.fromRunnable(() -> updateLastStatus(event)));
+	}
+
+	private InstanceEvent withoutIgnored(StatusChangeDigestEvent digest) {
+		List<InstanceStatusChangedEvent> events = digest.getEvents().stream().filter(this::isNotIgnored)
+				.collect(Collectors.toList());
+		if (events.isEmpty() || events.size() == digest.getCount()) {
+			return digest;
+		}
+		return (events.size() == 1) ? events.get(0) : new StatusChangeDigestEvent(digest.getApplication(), events);
 	}
 
 	@Override
 	protected boolean shouldNotify(InstanceEvent event, Instance instance) {
+		if (event instanceof StatusChangeDigestEvent) {
+			return ((StatusChangeDigestEvent) event).getEvents().stream().anyMatch(this::isNotIgnored);
+		}
 		if (event instanceof InstanceStatusChangedEvent) {
-			InstanceStatusChangedEvent statusChange = (InstanceStatusChangedEvent) event;
-			String from = getLastStatus(event.getInstance());
-			String to = statusChange.getStatusInfo().getStatus();
-			return Arrays.binarySearch(ignoreChanges, from + ":" + to) < 0
-					&& Arrays.binarySearch(ignoreChanges, "*:" + to) < 0
-					&& Arrays.binarySearch(ignoreChanges, from + ":*") < 0;
+			return isNotIgnored((InstanceStatusChangedEvent) event);
 		}
 		return false;
 	}
 
+	private boolean isNotIgnored(InstanceStatusChangedEvent statusChange) {
+		String from = getLastStatus(statusChange.getInstance());
+		String to = statusChange.getStatusInfo().getStatus();
+		return Arrays.binarySearch(ignoreChanges, from + ":" + to) < 0
+				&& Arrays.binarySearch(ignoreChanges, "*:" + to) < 0
+				&& Arrays.binarySearch(ignoreChanges, from + ":*") < 0;
+	}
+
 	protected final String getLastStatus(InstanceId instanceId) {
 		return lastStatuses.getOrDefault(instanceId, "UNKNOWN");
 	}
@@ -74,7 +93,10 @@ public abstract class AbstractStatusChangeNotifier extends AbstractEventNotifier
 		if (event instanceof InstanceDeregisteredEvent) {
 			lastStatuses.remove(event.getInstance());
 		}
-		if (event instanceof InstanceStatusChangedEvent) {
+		if (event instanceof StatusChangeDigestEvent) {
+			((StatusChangeDigestEvent) event).getEvents().forEach(this::updateLastStatus);
+		}
+		else if (event instanceof InstanceStatusChangedEvent) {
 			lastStatuses.put(event.getInstance(), ((InstanceStatusChangedEvent) event).getStatusInfo().getStatus());
 		}
 	}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.domain.events.InstanceDeregisteredEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceStatusChangedEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+/**
+ * Notifier that buffers status changes for a configurable window, groups them by
+ * application and status and sends a single {@link StatusChangeDigestEvent} per group
+ * using the delegates. The notifications are rate limited for each delegate separately,
+ * so a slow provider doesn't hold back the others. Status changes of instances that were
+ * deregistered in the meantime are dropped, so the delegates don't keep state for them.
+ */
+public class CoalescingNotifier extends AbstractEventNotifier {
+
+	private static final Logger log = LoggerFactory.getLogger(CoalescingNotifier.class);
+
+	private final ConcurrentMap<GroupKey, Group> groups = new ConcurrentHashMap<>();
+
+	private final Map<Notifier, RateLimiter> delegates = new LinkedHashMap<>();
+
+	private final InstanceRepository repository;
+
+	private Duration window = Duration.ofSeconds(10);
+
+	/**
+	 * Maximum number of notifications sent to each delegate per rate limit period. Use
+	 * {@code 0} to disable rate limiting.
+	 */
+	private int maxNotifications = 20;
+
+	private Duration rateLimitPeriod = Duration.ofMinutes(1);
+
+	@Nullable
+	private Scheduler scheduler;
+
+	public CoalescingNotifier(Notifier delegate, InstanceRepository repository) {
+		this(Collections.singletonList(delegate), repository);
+	}
+
+	public CoalescingNotifier(Iterable<Notifier> delegates, InstanceRepository repository) {
+		super(repository);
+		this.repository = repository;
+		Assert.notNull(delegates, "'delegates' must not be null!");
+		for (Notifier delegate : delegates) {
+			Assert.notNull(delegate, "'delegate' must not be null!");
+			this.delegates.put(delegate, new RateLimiter());
+		}
+	}
+
+	@Override
+	protected Mono<Void> doNotify(InstanceEvent event, Instance instance) {
+		Scheduler scheduler = this.scheduler;
+		if (event instanceof InstanceDeregisteredEvent) {
+			// pending changes are stale and would be sent after the deregistration
+			this.groups.values().forEach((group) -> group.remove(event.getInstance()));
+		}
+		if (scheduler == null || !(event instanceof InstanceStatusChangedEvent)
+				|| event instanceof StatusChangeDigestEvent) {
+			return this.send(event);
+		}
+
+		InstanceStatusChangedEvent statusChange = (InstanceStatusChangedEvent) event;
+		GroupKey key = new GroupKey(instance.getRegistration().getName(), statusChange.getStatusInfo().getStatus());
+		this.groups.compute(key, (k, group) -> {
+			if (group == null) {
+				group = new Group();
+				Mono.delay(this.window, scheduler).flatMap((i) -> this.flush(k)).subscribe();
+			}
+			group.add(statusChange);
+			return group;
+		});
+		return Mono.empty();
+	}
+
+	public void start() {
+		this.scheduler = Schedulers.newSingle("coalescing-notifications");
+		log.debug("Started coalescing notifications");
+	}
+
+	public void stop() {
+		Scheduler scheduler = this.scheduler;
+		if (scheduler != null) {
+			this.scheduler = null;
+			Flux.fromIterable(this.groups.keySet()).flatMap(this::flush).subscribe();
+			scheduler.dispose();
+			log.debug("Stopped coalescing notifications");
+		}
+	}
+
+	protected Mono<Void> flush(GroupKey key) {
+		Group group = this.groups.remove(key);
+		if (group == null) {
+			return Mono.empty();
+		}
+		return this.withoutDeregistered(key.getApplication(), group.getEvents()).flatMap(this::send)
+				.onErrorResume((e) -> Mono.empty());
+	}
+
+	private Mono<InstanceEvent> withoutDeregistered(InstanceEvent event) {
+		if (event instanceof StatusChangeDigestEvent) {
+			StatusChangeDigestEvent digest = (StatusChangeDigestEvent) event;
+			return this.withoutDeregistered(digest.getApplication(), digest.getEvents());
+		}
+		if (event instanceof InstanceStatusChangedEvent) {
+			return this.isRegistered(event.getInstance()).filter((registered) -> registered).map((registered) -> event);
+		}
+		return Mono.just(event);
+	}
+
+	private Mono<InstanceEvent> withoutDeregistered(String application, List<InstanceStatusChangedEvent> events) {
+		return Flux.fromIterable(events).filterWhen((event) -> this.isRegistered(event.getInstance())).collectList()
+				.filter((registered) -> !registered.isEmpty()).map((registered) -> (registered.size() == 1)
+						? registered.get(0) : new StatusChangeDigestEvent(application, registered));
+	}
+
+	private Mono<Boolean> isRegistered(InstanceId id) {
+		return this.repository.find(id).map(Instance::isRegistered).defaultIfEmpty(false);
+	}
+
+	protected Mono<Void> send(InstanceEvent event) {
+		return Flux.fromIterable(this.delegates.keySet()).flatMap((delegate) -> this.send(delegate, event)).then();
+	}
+
+	private Mono<Void> send(Notifier delegate, InstanceEvent event) {
+		return Mono.defer(() -> {
+			Duration delay = this.acquirePermit(delegate);
+			Scheduler scheduler = this.scheduler;
+			if (delay.isZero() || scheduler == null) {
+				return delegate.notify(event);
+			}
+			log.debug("Delaying notification for {} by {} due to rate limit", event.getInstance(), delay);
+			// the instance may be deregistered while the notification is delayed
+			return Mono.delay(delay, scheduler).then(this.withoutDeregistered(event)).flatMap(delegate::notify);
+		}).onErrorResume((ex) -> {
+			log.warn("Couldn't send notification for {} using {}", event.getInstance(), delegate, ex);
+			return Mono.empty();
+		});
+	}
+
+	/**
+	 * Generic cell rate algorithm: allows bursts of {@code maxNotifications} per delegate
+	 * and spaces further notifications evenly across the {@code rateLimitPeriod}.
+	 * @param delegate the delegate to send the notification with
+	 * @return the delay to apply before sending the notification
+	 */
+	protected Duration acquirePermit(Notifier delegate) {
+		if (this.maxNotifications <= 0) {
+			return Duration.ZERO;
+		}
+		RateLimiter limiter = this.delegates.get(delegate);
+		Assert.notNull(limiter, "'delegate' is not a delegate of this notifier");
+		long interval = this.rateLimitPeriod.toNanos() / this.maxNotifications;
+		return limiter.acquire(System.nanoTime(), interval, this.rateLimitPeriod.toNanos() - interval);
+	}
+
+	public void setWindow(Duration window) {
+		this.window = window;
+	}
+
+	public Duration getWindow() {
+		return this.window;
+	}
+
+	public void setMaxNotifications(int maxNotifications) {
+		this.maxNotifications = maxNotifications;
+	}
+
+	public int getMaxNotifications() {
+		return this.maxNotifications;
+	}
+
+	public void setRateLimitPeriod(Duration rateLimitPeriod) {
+		Assert.isTrue(!rateLimitPeriod.isNegative() && !rateLimitPeriod.isZero(), "'rateLimitPeriod' must be positive");
+		this.rateLimitPeriod = rateLimitPeriod;
+	}
+
+	public Duration getRateLimitPeriod() {
+		return this.rateLimitPeriod;
+	}
+
+	@lombok.Data
+	protected static final class GroupKey {
+
+		private final String application;
+
+		private final String status;
+
+	}
+
+	private static final class RateLimiter {
+
+		private long theoreticalArrivalTime = 0L;
+
+		private synchronized Duration acquire(long now, long interval, long tolerance) {
+			long tat = Math.max(this.theoreticalArrivalTime, now);
+			this.theoreticalArrivalTime = tat + interval;
+			return Duration.ofNanos(Math.max(0L, tat - tolerance - now));
+		}
+
+	}
+
+	private static final class Group {
+
+		private final Map<InstanceId, InstanceStatusChangedEvent> events = new LinkedHashMap<>();
+
+		private synchronized void add(InstanceStatusChangedEvent event) {
+			this.events.remove(event.getInstance());
+			this.events.put(event.getInstance(), event);
+		}
+
+		private synchronized void remove(InstanceId instanceId) {
+			this.events.remove(instanceId);
+		}
+
+		private synchronized List<InstanceStatusChangedEvent> getEvents() {
+			return new ArrayList<>(this.events.values());
+		}
+
+	}
+
+}
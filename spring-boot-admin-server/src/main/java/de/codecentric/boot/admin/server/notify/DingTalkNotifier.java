@@ -25,11 +25,6 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 
 import org.apache.commons.codec.binary.Base64;
-import org.springframework.context.expression.MapAccessor;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -49,10 +44,11 @@ public class DingTalkNotifier extends AbstractStatusChangeNotifier {
 
 	private static final String DEFAULT_MESSAGE = "#{instance.registration.name} #{instance.id} is #{event.statusInfo.status}";
 
-	private final SpelExpressionParser parser = new SpelExpressionParser();
-
 	private RestTemplate restTemplate;
 
+	@Nullable
+	private NotifierWebClient webClient;
+
 	/**
 	 * Webhook URI for the DingTalk API.
 	 */
@@ -64,16 +60,19 @@ public class DingTalkNotifier extends AbstractStatusChangeNotifier {
 	@Nullable
 	private String secret;
 
-	private Expression message;
+	private MessageTemplate message;
 
 	public DingTalkNotifier(InstanceRepository repository, RestTemplate restTemplate) {
 		super(repository);
 		this.restTemplate = restTemplate;
-		this.message = parser.parseExpression(DEFAULT_MESSAGE, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(DEFAULT_MESSAGE);
 	}
 
 	@Override
 	protected Mono<Void> doNotify(InstanceEvent event, Instance instance) {
+		if (webClient != null) {
+			return Mono.defer(() -> webClient.post(buildUrl(), createMessage(event, instance)));
+		}
 		return Mono
 				.fromRunnable(() -> restTemplate.postForEntity(buildUrl(), createMessage(event, instance), Void.class));
 	}
@@ -97,13 +96,7 @@ public class DingTalkNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	private Object getText(InstanceEvent event, Instance instance) {
-		Map<String, Object> root = new HashMap<>();
-		root.put("event", event);
-		root.put("instance", instance);
-		root.put("lastStatus", getLastStatus(event.getInstance()));
-		StandardEvaluationContext context = new StandardEvaluationContext(root);
-		context.addPropertyAccessor(new MapAccessor());
-		return message.getValue(context, String.class);
+		return message.render(event, instance, getLastStatus(event.getInstance()));
 	}
 
 	private String getSign(Long timestamp) {
@@ -124,6 +117,10 @@ public class DingTalkNotifier extends AbstractStatusChangeNotifier {
 		this.restTemplate = restTemplate;
 	}
 
+	public void setWebClient(@Nullable NotifierWebClient webClient) {
+		this.webClient = webClient;
+	}
+
 	public String getWebhookUrl() {
 		return webhookUrl;
 	}
@@ -142,11 +139,11 @@ public class DingTalkNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	public String getMessage() {
-		return message.getExpressionString();
+		return message.getTemplate();
 	}
 
 	public void setMessage(String message) {
-		this.message = parser.parseExpression(message, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(message);
 	}
 
 }
@@ -22,11 +22,6 @@ import java.util.Map;
 
 import javax.annotation.Nullable;
 
-import org.springframework.context.expression.MapAccessor;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -48,11 +43,12 @@ public class DiscordNotifier extends AbstractStatusChangeNotifier {
 
 	private static final String DEFAULT_MESSAGE = "*#{instance.registration.name}* (#{instance.id}) is *#{event.statusInfo.status}*";
 
-	private final SpelExpressionParser parser = new SpelExpressionParser();
-
 	private RestTemplate restTemplate;
 
-	private Expression message;
+	@Nullable
+	private NotifierWebClient webClient;
+
+	private MessageTemplate message;
 
 	/**
 	 * Webhook URI for the Discord API (i.e.
@@ -81,7 +77,7 @@ public class DiscordNotifier extends AbstractStatusChangeNotifier {
 	public DiscordNotifier(InstanceRepository repository, RestTemplate restTemplate) {
 		super(repository);
 		this.restTemplate = restTemplate;
-		this.message = parser.parseExpression(DEFAULT_MESSAGE, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(DEFAULT_MESSAGE);
 	}
 
 	@Override
@@ -89,6 +85,9 @@ public class DiscordNotifier extends AbstractStatusChangeNotifier {
 		if (webhookUrl == null) {
 			return Mono.error(new IllegalStateException("'webhookUrl' must not be null."));
 		}
+		if (webClient != null) {
+			return Mono.defer(() -> webClient.post(webhookUrl, createDiscordNotification(event, instance)));
+		}
 		return Mono.fromRunnable(
 				() -> restTemplate.postForEntity(webhookUrl, createDiscordNotification(event, instance), Void.class));
 	}
@@ -113,13 +112,7 @@ public class DiscordNotifier extends AbstractStatusChangeNotifier {
 
 	@Nullable
 	protected String createContent(InstanceEvent event, Instance instance) {
-		Map<String, Object> root = new HashMap<>();
-		root.put("event", event);
-		root.put("instance", instance);
-		root.put("lastStatus", getLastStatus(event.getInstance()));
-		StandardEvaluationContext context = new StandardEvaluationContext(root);
-		context.addPropertyAccessor(new MapAccessor());
-		return message.getValue(context, String.class);
+		return message.render(event, instance, getLastStatus(event.getInstance()));
 	}
 
 	@Nullable
@@ -158,15 +151,19 @@ public class DiscordNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	public String getMessage() {
-		return message.getExpressionString();
+		return message.getTemplate();
 	}
 
 	public void setMessage(String message) {
-		this.message = parser.parseExpression(message, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(message);
 	}
 
 	public void setRestTemplate(RestTemplate restTemplate) {
 		this.restTemplate = restTemplate;
 	}
 
+	public void setWebClient(@Nullable NotifierWebClient webClient) {
+		this.webClient = webClient;
+	}
+
 }
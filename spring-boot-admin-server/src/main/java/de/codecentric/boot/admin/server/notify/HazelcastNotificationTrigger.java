@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,30 +16,56 @@
 
 package de.codecentric.boot.admin.server.notify;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.Nullable;
+
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
 
+import de.codecentric.boot.admin.server.domain.entities.InstanceEvictionListener;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.services.InstanceOwnership;
 
-public class HazelcastNotificationTrigger extends NotificationTrigger {
+/**
+ * Sends the notifications only once per cluster. By default the members agree on the last
+ * notified event via compare-and-set on the distributed {@code sentNotifications} map. If
+ * an {@link InstanceOwnership} is set, only the owner of an instance sends its
+ * notifications and tracks them locally; the distributed map is only used to hand the
+ * last notified event over when the ownership of an instance changes.
+ */
+public class HazelcastNotificationTrigger extends NotificationTrigger implements InstanceEvictionListener {
 
 	private static final Logger log = LoggerFactory.getLogger(HazelcastNotificationTrigger.class);
 
 	private final ConcurrentMap<InstanceId, Long> sentNotifications;
 
+	private final ConcurrentMap<InstanceId, Long> ownedSentNotifications = new ConcurrentHashMap<>();
+
+	@Nullable
+	private InstanceOwnership ownership;
+
 	public HazelcastNotificationTrigger(Notifier notifier, Publisher<InstanceEvent> events,
 			ConcurrentMap<InstanceId, Long> sentNotifications) {
 		super(notifier, events);
 		this.sentNotifications = sentNotifications;
 	}
 
+	@Override
+	public void evicted(InstanceId id) {
+		this.ownedSentNotifications.remove(id);
+		this.sentNotifications.remove(id);
+	}
+
 	@Override
 	protected Mono<Void> sendNotifications(InstanceEvent event) {
+		if (this.ownership != null) {
+			return sendOwnedNotifications(this.ownership, event);
+		}
 		while (true) {
 			Long lastSentEvent = this.sentNotifications.getOrDefault(event.getInstance(), -1L);
 			if (lastSentEvent >= event.getVersion()) {
@@ -62,4 +88,35 @@ public class HazelcastNotificationTrigger extends NotificationTrigger {
 		}
 	}
 
+	private Mono<Void> sendOwnedNotifications(InstanceOwnership ownership, InstanceEvent event) {
+		InstanceId id = event.getInstance();
+		if (!ownership.isOwner(id)) {
+			Long lastSentEvent = this.ownedSentNotifications.remove(id);
+			if (lastSentEvent != null) {
+				log.debug("Handing over notifications for {} at version {}", id, lastSentEvent);
+				this.sentNotifications.merge(id, lastSentEvent, Math::max);
+			}
+			return Mono.empty();
+		}
+
+		Long lastSentEvent = this.ownedSentNotifications.computeIfAbsent(id,
+				(key) -> this.sentNotifications.getOrDefault(key, -1L));
+		if (lastSentEvent >= event.getVersion()) {
+			log.debug("Notifications already sent. Not triggering notifiers for {}", event);
+			return Mono.empty();
+		}
+		this.ownedSentNotifications.merge(id, event.getVersion(), Math::max);
+		log.debug("Triggering notifiers for {}", event);
+		return super.sendNotifications(event);
+	}
+
+	/**
+	 * Lets only the owner of an instance send its notifications.
+	 * @param ownership the ownership of the instances or {@code null} to coordinate the
+	 * notifications via the distributed map
+	 */
+	public void setOwnership(@Nullable InstanceOwnership ownership) {
+		this.ownership = ownership;
+	}
+
 }
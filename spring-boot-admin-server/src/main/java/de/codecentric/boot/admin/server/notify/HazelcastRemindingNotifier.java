@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.partition.MigrationListener;
+import com.hazelcast.partition.MigrationState;
+import com.hazelcast.partition.PartitionService;
+import com.hazelcast.partition.ReplicaMigrationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+/**
+ * {@link RemindingNotifier} keeping the reminders in a Hazelcast {@link IMap}. Each
+ * reminder is only sent by the member owning its partition, so reminders are neither
+ * duplicated in a cluster nor lost when a member leaves or restarts.
+ */
+public class HazelcastRemindingNotifier extends RemindingNotifier {
+
+	private static final Logger log = LoggerFactory.getLogger(HazelcastRemindingNotifier.class);
+
+	private final IMap<InstanceId, Reminder> reminders;
+
+	private final PartitionService partitionService;
+
+	@Nullable
+	private UUID entryListenerId;
+
+	@Nullable
+	private UUID migrationListenerId;
+
+	public HazelcastRemindingNotifier(Notifier delegate, InstanceRepository repository,
+			IMap<InstanceId, Reminder> reminders, PartitionService partitionService) {
+		super(delegate, repository, reminders);
+		this.reminders = reminders;
+		this.partitionService = partitionService;
+	}
+
+	@Override
+	public void start() {
+		this.entryListenerId = this.reminders.addLocalEntryListener(new ReminderListener());
+		this.migrationListenerId = this.partitionService.addMigrationListener(new ReminderMigrationListener());
+		this.scheduleLocalReminders();
+		super.start();
+	}
+
+	@Override
+	public void stop() {
+		super.stop();
+		if (this.entryListenerId != null) {
+			this.reminders.removeEntryListener(this.entryListenerId);
+			this.entryListenerId = null;
+		}
+		if (this.migrationListenerId != null) {
+			this.partitionService.removeMigrationListener(this.migrationListenerId);
+			this.migrationListenerId = null;
+		}
+	}
+
+	@Override
+	protected boolean isOwner(InstanceId id) {
+		Member owner = this.partitionService.getPartition(id).getOwner();
+		return owner != null && owner.localMember();
+	}
+
+	protected void scheduleLocalReminders() {
+		Map<InstanceId, Reminder> localReminders = this.reminders.getAll(this.reminders.localKeySet());
+		log.debug("Scheduling {} local reminders", localReminders.size());
+		localReminders.forEach(this::scheduleReminder);
+	}
+
+	private class ReminderListener
+			implements EntryAddedListener<InstanceId, Reminder>, EntryUpdatedListener<InstanceId, Reminder> {
+
+		@Override
+		public void entryAdded(EntryEvent<InstanceId, Reminder> event) {
+			scheduleReminder(event.getKey(), event.getValue());
+		}
+
+		@Override
+		public void entryUpdated(EntryEvent<InstanceId, Reminder> event) {
+			scheduleReminder(event.getKey(), event.getValue());
+		}
+
+	}
+
+	private class ReminderMigrationListener implements MigrationListener {
+
+		@Override
+		public void migrationStarted(MigrationState state) {
+		}
+
+		@Override
+		public void migrationFinished(MigrationState state) {
+			scheduleLocalReminders();
+		}
+
+		@Override
+		public void replicaMigrationCompleted(ReplicaMigrationEvent event) {
+		}
+
+		@Override
+		public void replicaMigrationFailed(ReplicaMigrationEvent event) {
+		}
+
+	}
+
+}
@@ -22,11 +22,6 @@ import java.util.Map;
 
 import javax.annotation.Nullable;
 
-import org.springframework.context.expression.MapAccessor;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -48,10 +43,11 @@ public class HipchatNotifier extends AbstractStatusChangeNotifier {
 
 	private static final String DEFAULT_DESCRIPTION = "<strong>#{instance.registration.name}</strong>/#{instance.id} is <strong>#{event.statusInfo.status}</strong>";
 
-	private final SpelExpressionParser parser = new SpelExpressionParser();
-
 	private RestTemplate restTemplate;
 
+	@Nullable
+	private NotifierWebClient webClient;
+
 	/**
 	 * Base URL for HipChat API (i.e. https://ACCOUNT_NAME.hipchat.com/v2
 	 */
@@ -78,16 +74,19 @@ public class HipchatNotifier extends AbstractStatusChangeNotifier {
 	/**
 	 * Trigger description. SpEL template using event as root;
 	 */
-	private Expression description;
+	private MessageTemplate description;
 
 	public HipchatNotifier(InstanceRepository repository, RestTemplate restTemplate) {
 		super(repository);
 		this.restTemplate = restTemplate;
-		this.description = parser.parseExpression(DEFAULT_DESCRIPTION, ParserContext.TEMPLATE_EXPRESSION);
+		this.description = MessageTemplate.of(DEFAULT_DESCRIPTION);
 	}
 
 	@Override
 	protected Mono<Void> doNotify(InstanceEvent event, Instance instance) {
+		if (webClient != null) {
+			return Mono.defer(() -> webClient.post(buildUrl(), createHipChatNotification(event, instance)));
+		}
 		return Mono.fromRunnable(
 				() -> restTemplate.postForEntity(buildUrl(), createHipChatNotification(event, instance), Void.class));
 	}
@@ -117,13 +116,7 @@ public class HipchatNotifier extends AbstractStatusChangeNotifier {
 
 	@Nullable
 	protected String getMessage(InstanceEvent event, Instance instance) {
-		Map<String, Object> root = new HashMap<>();
-		root.put("event", event);
-		root.put("instance", instance);
-		root.put("lastStatus", getLastStatus(event.getInstance()));
-		StandardEvaluationContext context = new StandardEvaluationContext(root);
-		context.addPropertyAccessor(new MapAccessor());
-		return description.getValue(context, String.class);
+		return description.render(event, instance, getLastStatus(event.getInstance()));
 	}
 
 	protected String getColor(InstanceEvent event) {
@@ -172,15 +165,19 @@ public class HipchatNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	public void setDescription(String description) {
-		this.description = parser.parseExpression(description, ParserContext.TEMPLATE_EXPRESSION);
+		this.description = MessageTemplate.of(description);
 	}
 
 	public String getDescription() {
-		return description.getExpressionString();
+		return description.getTemplate();
 	}
 
 	public void setRestTemplate(RestTemplate restTemplate) {
 		this.restTemplate = restTemplate;
 	}
 
+	public void setWebClient(@Nullable NotifierWebClient webClient) {
+		this.webClient = webClient;
+	}
+
 }
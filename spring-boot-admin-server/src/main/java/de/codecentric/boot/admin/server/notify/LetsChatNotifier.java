@@ -23,11 +23,6 @@ import java.util.Map;
 
 import javax.annotation.Nullable;
 
-import org.springframework.context.expression.MapAccessor;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -49,10 +44,11 @@ public class LetsChatNotifier extends AbstractStatusChangeNotifier {
 
 	private static final String DEFAULT_MESSAGE = "*#{instance.registration.name}* (#{instance.id}) is *#{event.statusInfo.status}*";
 
-	private final SpelExpressionParser parser = new SpelExpressionParser();
-
 	private RestTemplate restTemplate;
 
+	@Nullable
+	private NotifierWebClient webClient;
+
 	/**
 	 * Host URL for Let´s Chat
 	 */
@@ -79,12 +75,12 @@ public class LetsChatNotifier extends AbstractStatusChangeNotifier {
 	/**
 	 * Message template. SpEL template using event as root
 	 */
-	private Expression message;
+	private MessageTemplate message;
 
 	public LetsChatNotifier(InstanceRepository repository, RestTemplate restTemplate) {
 		super(repository);
 		this.restTemplate = restTemplate;
-		this.message = parser.parseExpression(DEFAULT_MESSAGE, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(DEFAULT_MESSAGE);
 	}
 
 	@Override
@@ -96,6 +92,10 @@ public class LetsChatNotifier extends AbstractStatusChangeNotifier {
 		String auth = Base64Utils
 				.encodeToString(String.format("%s:%s", token, username).getBytes(StandardCharsets.UTF_8));
 		headers.add(HttpHeaders.AUTHORIZATION, String.format("Basic %s", auth));
+		if (webClient != null) {
+			return Mono.defer(() -> webClient.exchange(HttpMethod.POST, createUrl(),
+					new HttpEntity<>(createMessage(event, instance), headers)));
+		}
 		return Mono.fromRunnable(() -> restTemplate.exchange(createUrl(), HttpMethod.POST,
 				new HttpEntity<>(createMessage(event, instance), headers), Void.class));
 	}
@@ -115,19 +115,17 @@ public class LetsChatNotifier extends AbstractStatusChangeNotifier {
 
 	@Nullable
 	protected String getText(InstanceEvent event, Instance instance) {
-		Map<String, Object> root = new HashMap<>();
-		root.put("event", event);
-		root.put("instance", instance);
-		root.put("lastStatus", getLastStatus(event.getInstance()));
-		StandardEvaluationContext context = new StandardEvaluationContext(root);
-		context.addPropertyAccessor(new MapAccessor());
-		return message.getValue(context, String.class);
+		return message.render(event, instance, getLastStatus(event.getInstance()));
 	}
 
 	public void setRestTemplate(RestTemplate restTemplate) {
 		this.restTemplate = restTemplate;
 	}
 
+	public void setWebClient(@Nullable NotifierWebClient webClient) {
+		this.webClient = webClient;
+	}
+
 	public void setUrl(@Nullable URI url) {
 		this.url = url;
 	}
@@ -164,11 +162,11 @@ public class LetsChatNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	public void setMessage(String message) {
-		this.message = parser.parseExpression(message, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(message);
 	}
 
 	public String getMessage() {
-		return message.getExpressionString();
+		return message.getTemplate();
 	}
 
 }
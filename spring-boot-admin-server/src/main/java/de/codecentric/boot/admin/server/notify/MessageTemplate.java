@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+
+import org.springframework.context.expression.MapAccessor;
+import org.springframework.core.SpringProperties;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.Assert;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+
+/**
+ * SpEL message template used by the notifiers. The template is evaluated against a map
+ * containing {@code event}, {@code instance} and {@code lastStatus}.
+ * <p>
+ * Parsed expressions are compiled to bytecode and shared by all notifiers using the same
+ * template. As the compiled code depends on the runtime types, a separate expression is
+ * kept per event type. The compiler mode defaults to {@code MIXED} and can be changed
+ * using the {@code spring.expression.compiler.mode} property.
+ */
+public final class MessageTemplate {
+
+	private static final SpelExpressionParser PARSER = new SpelExpressionParser(
+			new SpelParserConfiguration(getCompilerMode(), MessageTemplate.class.getClassLoader()));
+
+	private static final MapAccessor MAP_ACCESSOR = new MapAccessor();
+
+	private static final ConcurrentMap<Key, Expression> EXPRESSIONS = new ConcurrentHashMap<>();
+
+	private final String template;
+
+	private MessageTemplate(String template) {
+		Assert.notNull(template, "'template' must not be null");
+		this.template = template;
+		parseExpression(template);
+	}
+
+	public static MessageTemplate of(String template) {
+		return new MessageTemplate(template);
+	}
+
+	/**
+	 * Parses the given template expression using the compiling parser.
+	 * @param template the template to parse
+	 * @return the parsed expression
+	 */
+	public static Expression parseExpression(String template) {
+		return EXPRESSIONS.computeIfAbsent(new Key(template, Object.class),
+				(key) -> PARSER.parseExpression(key.getTemplate(), ParserContext.TEMPLATE_EXPRESSION));
+	}
+
+	@Nullable
+	public String render(InstanceEvent event, Instance instance, String lastStatus) {
+		Map<String, Object> root = new HashMap<>(4);
+		root.put("event", event);
+		root.put("instance", instance);
+		root.put("lastStatus", lastStatus);
+		return this.getExpression(event.getClass()).getValue(createEvaluationContext(root), String.class);
+	}
+
+	public String getTemplate() {
+		return this.template;
+	}
+
+	private Expression getExpression(Class<?> eventType) {
+		return EXPRESSIONS.computeIfAbsent(new Key(this.template, eventType),
+				(key) -> PARSER.parseExpression(key.getTemplate(), ParserContext.TEMPLATE_EXPRESSION));
+	}
+
+	private static SpelCompilerMode getCompilerMode() {
+		String mode = SpringProperties
+				.getProperty(SpelParserConfiguration.SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME);
+		return (mode != null) ? SpelCompilerMode.valueOf(mode.toUpperCase(Locale.ROOT)) : SpelCompilerMode.MIXED;
+	}
+
+	private static StandardEvaluationContext createEvaluationContext(Map<String, Object> root) {
+		// a context per evaluation, as it is mutable and expressions may change it
+		StandardEvaluationContext context = new StandardEvaluationContext(root);
+		context.addPropertyAccessor(MAP_ACCESSOR);
+		return context;
+	}
+
+	@Override
+	public String toString() {
+		return this.template;
+	}
+
+	@lombok.Data
+	private static final class Key {
+
+		private final String template;
+
+		private final Class<?> eventType;
+
+	}
+
+}
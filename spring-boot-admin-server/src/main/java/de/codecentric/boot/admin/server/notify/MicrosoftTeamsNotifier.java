@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,8 +31,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.expression.MapAccessor;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -71,10 +69,11 @@ public class MicrosoftTeamsNotifier extends AbstractStatusChangeNotifier {
 
 	private static final String DEFAULT_STATUS_ACTIVITY_SUBTITLE_EXPRESSION = "#{instance.registration.name} with id #{instance.id} changed status from #{lastStatus} to #{event.statusInfo.status}";
 
-	private final SpelExpressionParser parser = new SpelExpressionParser();
-
 	private RestTemplate restTemplate;
 
+	@Nullable
+	private NotifierWebClient webClient;
+
 	/**
 	 * Webhook url for Microsoft Teams Channel Webhook connector (i.e.
 	 * https://outlook.office.com/webhook/{webhook-id})
@@ -86,25 +85,25 @@ public class MicrosoftTeamsNotifier extends AbstractStatusChangeNotifier {
 	 * Theme Color is the color of the accent on the message that appears in Microsoft
 	 * Teams. Default is Spring Green
 	 */
-	private Expression themeColor;
+	private MessageTemplate themeColor;
 
 	/**
 	 * Message will be used as title of the Activity section of the Teams message when an
 	 * app de-registers.
 	 */
-	private Expression deregisterActivitySubtitle;
+	private MessageTemplate deregisterActivitySubtitle;
 
 	/**
 	 * Message will be used as title of the Activity section of the Teams message when an
 	 * app registers
 	 */
-	private Expression registerActivitySubtitle;
+	private MessageTemplate registerActivitySubtitle;
 
 	/**
 	 * Message will be used as title of the Activity section of the Teams message when an
 	 * app changes status
 	 */
-	private Expression statusActivitySubtitle;
+	private MessageTemplate statusActivitySubtitle;
 
 	/**
 	 * Title of the Teams message when an app de-registers
@@ -129,27 +128,23 @@ public class MicrosoftTeamsNotifier extends AbstractStatusChangeNotifier {
 	public MicrosoftTeamsNotifier(InstanceRepository repository, RestTemplate restTemplate) {
 		super(repository);
 		this.restTemplate = restTemplate;
-		this.themeColor = parser.parseExpression(DEFAULT_THEME_COLOR_EXPRESSION, ParserContext.TEMPLATE_EXPRESSION);
-		this.deregisterActivitySubtitle = parser.parseExpression(DEFAULT_DEREGISTER_ACTIVITY_SUBTITLE_EXPRESSION,
-				ParserContext.TEMPLATE_EXPRESSION);
-		this.registerActivitySubtitle = parser.parseExpression(DEFAULT_REGISTER_ACTIVITY_SUBTITLE_EXPRESSION,
-				ParserContext.TEMPLATE_EXPRESSION);
-		this.statusActivitySubtitle = parser.parseExpression(DEFAULT_STATUS_ACTIVITY_SUBTITLE_EXPRESSION,
-				ParserContext.TEMPLATE_EXPRESSION);
+		this.themeColor = MessageTemplate.of(DEFAULT_THEME_COLOR_EXPRESSION);
+		this.deregisterActivitySubtitle = MessageTemplate.of(DEFAULT_DEREGISTER_ACTIVITY_SUBTITLE_EXPRESSION);
+		this.registerActivitySubtitle = MessageTemplate.of(DEFAULT_REGISTER_ACTIVITY_SUBTITLE_EXPRESSION);
+		this.statusActivitySubtitle = MessageTemplate.of(DEFAULT_STATUS_ACTIVITY_SUBTITLE_EXPRESSION);
 	}
 
 	@Override
 	protected Mono<Void> doNotify(InstanceEvent event, Instance instance) {
 		Message message;
-		StandardEvaluationContext context = createEvaluationContext(event, instance);
 		if (event instanceof InstanceRegisteredEvent) {
-			message = getRegisteredMessage(instance, context);
+			message = getRegisteredMessage(event, instance);
 		}
 		else if (event instanceof InstanceDeregisteredEvent) {
-			message = getDeregisteredMessage(instance, context);
+			message = getDeregisteredMessage(event, instance);
 		}
 		else if (event instanceof InstanceStatusChangedEvent) {
-			message = getStatusChangedMessage(instance, context);
+			message = getStatusChangedMessage(event, instance);
 		}
 		else {
 			return Mono.empty();
@@ -162,6 +157,9 @@ public class MicrosoftTeamsNotifier extends AbstractStatusChangeNotifier {
 			return Mono.error(new IllegalStateException("'webhookUrl' must not be null."));
 		}
 
+		if (this.webClient != null) {
+			return this.webClient.post(webhookUrl, new HttpEntity<Object>(message, headers));
+		}
 		return Mono.fromRunnable(() -> this.restTemplate.postForEntity(webhookUrl,
 				new HttpEntity<Object>(message, headers), Void.class));
 	}
@@ -172,23 +170,23 @@ public class MicrosoftTeamsNotifier extends AbstractStatusChangeNotifier {
 				|| super.shouldNotify(event, instance);
 	}
 
-	protected Message getDeregisteredMessage(Instance instance, StandardEvaluationContext context) {
-		String activitySubtitle = evaluateExpression(context, deregisterActivitySubtitle);
-		return createMessage(instance, deRegisteredTitle, activitySubtitle, context);
+	protected Message getDeregisteredMessage(InstanceEvent event, Instance instance) {
+		String activitySubtitle = render(deregisterActivitySubtitle, event, instance);
+		return createMessage(event, instance, deRegisteredTitle, activitySubtitle);
 	}
 
-	protected Message getRegisteredMessage(Instance instance, StandardEvaluationContext context) {
-		String activitySubtitle = evaluateExpression(context, registerActivitySubtitle);
-		return createMessage(instance, registeredTitle, activitySubtitle, context);
+	protected Message getRegisteredMessage(InstanceEvent event, Instance instance) {
+		String activitySubtitle = render(registerActivitySubtitle, event, instance);
+		return createMessage(event, instance, registeredTitle, activitySubtitle);
 	}
 
-	protected Message getStatusChangedMessage(Instance instance, StandardEvaluationContext context) {
-		String activitySubtitle = evaluateExpression(context, statusActivitySubtitle);
-		return createMessage(instance, statusChangedTitle, activitySubtitle, context);
+	protected Message getStatusChangedMessage(InstanceEvent event, Instance instance) {
+		String activitySubtitle = render(statusActivitySubtitle, event, instance);
+		return createMessage(event, instance, statusChangedTitle, activitySubtitle);
 	}
 
-	protected Message createMessage(Instance instance, String registeredTitle, String activitySubtitle,
-			StandardEvaluationContext context) {
+	protected Message createMessage(InstanceEvent event, Instance instance, String registeredTitle,
+			String activitySubtitle) {
 		List<Fact> facts = new ArrayList<>();
 		facts.add(new Fact(STATUS_KEY, instance.getStatusInfo().getStatus()));
 		facts.add(new Fact(SERVICE_URL_KEY, instance.getRegistration().getServiceUrl()));
@@ -200,13 +198,85 @@ public class MicrosoftTeamsNotifier extends AbstractStatusChangeNotifier {
 				.activitySubtitle(activitySubtitle).facts(facts).build();
 
 		return Message.builder().title(registeredTitle).summary(messageSummary)
-				.themeColor(evaluateExpression(context, themeColor)).sections(singletonList(section)).build();
+				.themeColor(render(themeColor, event, instance)).sections(singletonList(section)).build();
+	}
+
+	protected String render(MessageTemplate template, InstanceEvent event, Instance instance) {
+		return Objects.requireNonNull(template.render(event, instance, getLastStatus(event.getInstance())));
+	}
+
+	/**
+	 * Creates the message for a de-registered instance.
+	 * @param instance the instance
+	 * @param context the context created by {@link #createEvaluationContext}
+	 * @return the message
+	 * @deprecated in favor of {@link #getDeregisteredMessage(InstanceEvent, Instance)}
+	 */
+	@Deprecated
+	protected Message getDeregisteredMessage(Instance instance, StandardEvaluationContext context) {
+		return getDeregisteredMessage(getEvent(context), instance);
+	}
+
+	/**
+	 * Creates the message for a registered instance.
+	 * @param instance the instance
+	 * @param context the context created by {@link #createEvaluationContext}
+	 * @return the message
+	 * @deprecated in favor of {@link #getRegisteredMessage(InstanceEvent, Instance)}
+	 */
+	@Deprecated
+	protected Message getRegisteredMessage(Instance instance, StandardEvaluationContext context) {
+		return getRegisteredMessage(getEvent(context), instance);
+	}
+
+	/**
+	 * Creates the message for an instance that changed its status.
+	 * @param instance the instance
+	 * @param context the context created by {@link #createEvaluationContext}
+	 * @return the message
+	 * @deprecated in favor of {@link #getStatusChangedMessage(InstanceEvent, Instance)}
+	 */
+	@Deprecated
+	protected Message getStatusChangedMessage(Instance instance, StandardEvaluationContext context) {
+		return getStatusChangedMessage(getEvent(context), instance);
+	}
+
+	/**
+	 * Creates the message.
+	 * @param instance the instance
+	 * @param registeredTitle the title of the message
+	 * @param activitySubtitle the subtitle of the activity section
+	 * @param context the context created by {@link #createEvaluationContext}
+	 * @return the message
+	 * @deprecated in favor of
+	 * {@link #createMessage(InstanceEvent, Instance, String, String)}
+	 */
+	@Deprecated
+	protected Message createMessage(Instance instance, String registeredTitle, String activitySubtitle,
+			StandardEvaluationContext context) {
+		return createMessage(getEvent(context), instance, registeredTitle, activitySubtitle);
 	}
 
+	/**
+	 * Evaluates the expression against the context.
+	 * @param context the context created by {@link #createEvaluationContext}
+	 * @param expression the expression
+	 * @return the evaluated expression
+	 * @deprecated in favor of {@link #render(MessageTemplate, InstanceEvent, Instance)}
+	 */
+	@Deprecated
 	protected String evaluateExpression(StandardEvaluationContext context, Expression expression) {
 		return Objects.requireNonNull(expression.getValue(context, String.class));
 	}
 
+	/**
+	 * Creates the context to evaluate the expressions against.
+	 * @param event the event
+	 * @param instance the instance
+	 * @return the context
+	 * @deprecated in favor of {@link #render(MessageTemplate, InstanceEvent, Instance)}
+	 */
+	@Deprecated
 	protected StandardEvaluationContext createEvaluationContext(InstanceEvent event, Instance instance) {
 		Map<String, Object> root = new HashMap<>();
 		root.put("event", event);
@@ -217,6 +287,11 @@ public class MicrosoftTeamsNotifier extends AbstractStatusChangeNotifier {
 		return context;
 	}
 
+	private static InstanceEvent getEvent(StandardEvaluationContext context) {
+		Map<?, ?> root = (Map<?, ?>) context.getRootObject().getValue();
+		return (InstanceEvent) Objects.requireNonNull(root).get("event");
+	}
+
 	@Nullable
 	public URI getWebhookUrl() {
 		return webhookUrl;
@@ -227,37 +302,35 @@ public class MicrosoftTeamsNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	public String getThemeColor() {
-		return themeColor.getExpressionString();
+		return themeColor.getTemplate();
 	}
 
 	public void setThemeColor(String themeColor) {
-		this.themeColor = parser.parseExpression(themeColor, ParserContext.TEMPLATE_EXPRESSION);
+		this.themeColor = MessageTemplate.of(themeColor);
 	}
 
 	public String getDeregisterActivitySubtitle() {
-		return deregisterActivitySubtitle.getExpressionString();
+		return deregisterActivitySubtitle.getTemplate();
 	}
 
 	public void setDeregisterActivitySubtitle(String deregisterActivitySubtitle) {
-		this.deregisterActivitySubtitle = parser.parseExpression(deregisterActivitySubtitle,
-				ParserContext.TEMPLATE_EXPRESSION);
+		this.deregisterActivitySubtitle = MessageTemplate.of(deregisterActivitySubtitle);
 	}
 
 	public String getRegisterActivitySubtitle() {
-		return registerActivitySubtitle.getExpressionString();
+		return registerActivitySubtitle.getTemplate();
 	}
 
 	public void setRegisterActivitySubtitle(String registerActivitySubtitle) {
-		this.registerActivitySubtitle = parser.parseExpression(registerActivitySubtitle,
-				ParserContext.TEMPLATE_EXPRESSION);
+		this.registerActivitySubtitle = MessageTemplate.of(registerActivitySubtitle);
 	}
 
 	public String getStatusActivitySubtitle() {
-		return statusActivitySubtitle.getExpressionString();
+		return statusActivitySubtitle.getTemplate();
 	}
 
 	public void setStatusActivitySubtitle(String statusActivitySubtitle) {
-		this.statusActivitySubtitle = parser.parseExpression(statusActivitySubtitle, ParserContext.TEMPLATE_EXPRESSION);
+		this.statusActivitySubtitle = MessageTemplate.of(statusActivitySubtitle);
 	}
 
 	public String getDeRegisteredTitle() {
@@ -296,6 +369,10 @@ public class MicrosoftTeamsNotifier extends AbstractStatusChangeNotifier {
 		this.restTemplate = restTemplate;
 	}
 
+	public void setWebClient(@Nullable NotifierWebClient webClient) {
+		this.webClient = webClient;
+	}
+
 	@Data
 	@Builder
 	public static class Message {
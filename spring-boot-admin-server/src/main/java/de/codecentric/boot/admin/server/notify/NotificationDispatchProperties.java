@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@lombok.Data
+@ConfigurationProperties("spring.boot.admin.notify.dispatch")
+public class NotificationDispatchProperties {
+
+	/**
+	 * Whether notifications are queued and sent asynchronously by dedicated threads per
+	 * notifier.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Maximum number of notifications queued per notifier.
+	 */
+	private int queueCapacity = 1000;
+
+	/**
+	 * What to do when a notifiers queue is full.
+	 */
+	private QueuedNotifier.OverflowPolicy overflowPolicy = QueuedNotifier.OverflowPolicy.DROP_OLDEST;
+
+	/**
+	 * Number of threads sending notifications per notifier.
+	 */
+	private int concurrency = 1;
+
+	/**
+	 * Maximum time to wait for room in the queue when using the BLOCK overflow-policy.
+	 */
+	private Duration blockTimeout = Duration.ofSeconds(10L);
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.annotation.Nullable;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.util.StringUtils;
+
+/**
+ * Creates and manages the lifecycle of the {@link QueuedNotifier}s used to send the
+ * notifications of each notifier asynchronously.
+ */
+public class NotificationDispatcher implements MeterBinder {
+
+	private final NotificationDispatchProperties properties;
+
+	private final List<QueuedNotifier> queuedNotifiers = new CopyOnWriteArrayList<>();
+
+	@Nullable
+	private volatile MeterRegistry registry;
+
+	public NotificationDispatcher(NotificationDispatchProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * Decorates the notifier with a {@link QueuedNotifier}. The delegates of a
+	 * {@link CompositeNotifier} are expected to be queued individually, so a composite is
+	 * returned as is.
+	 * @param notifier the notifier to send the notifications asynchronously
+	 * @return the queued notifier
+	 */
+	public Notifier queued(Notifier notifier) {
+		if (notifier instanceof QueuedNotifier || notifier instanceof CompositeNotifier) {
+			return notifier;
+		}
+		QueuedNotifier queuedNotifier = new QueuedNotifier(notifier, this.getName(notifier),
+				this.properties.getQueueCapacity(), this.properties.getOverflowPolicy());
+		queuedNotifier.setConcurrency(this.properties.getConcurrency());
+		queuedNotifier.setBlockTimeout(this.properties.getBlockTimeout());
+		queuedNotifier.start();
+		this.queuedNotifiers.add(queuedNotifier);
+		MeterRegistry registry = this.registry;
+		if (registry != null) {
+			queuedNotifier.bindTo(registry);
+		}
+		return queuedNotifier;
+	}
+
+	public void stop() {
+		this.queuedNotifiers.forEach(QueuedNotifier::stop);
+		this.queuedNotifiers.clear();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+		this.queuedNotifiers.forEach((queuedNotifier) -> queuedNotifier.bindTo(registry));
+	}
+
+	public List<QueuedNotifier> getQueuedNotifiers() {
+		return this.queuedNotifiers;
+	}
+
+	private String getName(Notifier notifier) {
+		String simpleName = notifier.getClass().getSimpleName();
+		String name = StringUtils.hasText(simpleName) ? simpleName : "Notifier";
+		long sameName = this.queuedNotifiers.stream()
+				.filter((q) -> q.getName().equals(name) || q.getName().startsWith(name + "-")).count();
+		return (sameName > 0) ? name + "-" + (sameName + 1) : name;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,8 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher.OverflowPolicy;
 import de.codecentric.boot.admin.server.services.AbstractEventHandler;
 
 public class NotificationTrigger extends AbstractEventHandler<InstanceEvent> {
@@ -32,7 +34,8 @@ public class NotificationTrigger extends AbstractEventHandler<InstanceEvent> {
 	private final Notifier notifier;
 
 	public NotificationTrigger(Notifier notifier, Publisher<InstanceEvent> publisher) {
-		super(publisher, InstanceEvent.class);
+		// no event may be lost, so the appenders are blocked instead of disconnecting
+		super(InstanceEventPublisher.withOverflowPolicy(publisher, OverflowPolicy.BLOCK), InstanceEvent.class);
 		this.notifier = notifier;
 	}
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@lombok.Data
+@ConfigurationProperties("spring.boot.admin.notify.transport")
+public class NotifierTransportProperties {
+
+	/**
+	 * Transport used by the HTTP based notifiers.
+	 */
+	private Mode mode = Mode.REST_TEMPLATE;
+
+	/**
+	 * Connect timeout when sending notifications using the web-client transport.
+	 */
+	private Duration connectTimeout = Duration.ofSeconds(5);
+
+	/**
+	 * Response timeout when sending notifications using the web-client transport.
+	 */
+	private Duration readTimeout = Duration.ofSeconds(10);
+
+	/**
+	 * Maximum number of pooled connections used by the web-client transport.
+	 */
+	private int maxConnections = 50;
+
+	/**
+	 * Time after which idle pooled connections are closed.
+	 */
+	private Duration maxIdleTime = Duration.ofSeconds(30);
+
+	/**
+	 * Number of retries for failed notifications using the web-client transport.
+	 */
+	private long maxRetries = 3;
+
+	/**
+	 * Initial backoff between retries, doubled on each attempt.
+	 */
+	private Duration minBackoff = Duration.ofMillis(500);
+
+	/**
+	 * Maximum backoff between retries.
+	 */
+	private Duration maxBackoff = Duration.ofSeconds(10);
+
+	public enum Mode {
+
+		/**
+		 * Blocking {@code RestTemplate} executed on the notification threads.
+		 */
+		REST_TEMPLATE,
+
+		/**
+		 * Non-blocking {@code WebClient} with connection pooling and retries.
+		 */
+		WEB_CLIENT
+
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.Assert;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Non-blocking transport shared by the HTTP based notifiers. Requests are sent using a
+ * {@link WebClient} and retried with exponential backoff on connection errors, server
+ * errors and {@code 429 Too Many Requests}.
+ */
+public class NotifierWebClient {
+
+	private final WebClient webClient;
+
+	private final Retry retry;
+
+	public NotifierWebClient(WebClient webClient, long maxRetries, Duration minBackoff, Duration maxBackoff) {
+		Assert.notNull(webClient, "'webClient' must not be null!");
+		this.webClient = webClient;
+		this.retry = Retry.backoff(maxRetries, minBackoff).maxBackoff(maxBackoff).filter(NotifierWebClient::isRetryable)
+				.onRetryExhaustedThrow((spec, signal) -> signal.failure());
+	}
+
+	public Mono<Void> post(URI url, @Nullable Object request) {
+		return this.exchange(HttpMethod.POST, url, request);
+	}
+
+	public Mono<Void> post(String url, @Nullable Object request) {
+		return this.exchange(HttpMethod.POST, url, request, Collections.emptyMap());
+	}
+
+	public Mono<Void> get(String url, Map<String, ?> uriVariables) {
+		return this.exchange(HttpMethod.GET, url, null, uriVariables);
+	}
+
+	public Mono<Void> exchange(HttpMethod method, URI url, @Nullable Object request) {
+		return this.exchange(this.webClient.method(method).uri(url), request);
+	}
+
+	public Mono<Void> exchange(HttpMethod method, String url, @Nullable Object request, Map<String, ?> uriVariables) {
+		return this.exchange(this.webClient.method(method).uri(url, uriVariables), request);
+	}
+
+	private Mono<Void> exchange(WebClient.RequestBodySpec spec, @Nullable Object request) {
+		Object body = request;
+		if (request instanceof HttpEntity) {
+			HttpEntity<?> entity = (HttpEntity<?>) request;
+			spec.headers((headers) -> headers.addAll(entity.getHeaders()));
+			body = entity.getBody();
+		}
+		WebClient.RequestHeadersSpec<?> headersSpec = (body != null) ? spec.bodyValue(body) : spec;
+		return headersSpec.retrieve().toBodilessEntity().retryWhen(this.retry).then();
+	}
+
+	private static boolean isRetryable(Throwable ex) {
+		if (ex instanceof WebClientRequestException) {
+			return true;
+		}
+		if (ex instanceof WebClientResponseException) {
+			HttpStatus status = ((WebClientResponseException) ex).getStatusCode();
+			return status.is5xxServerError() || status == HttpStatus.TOO_MANY_REQUESTS;
+		}
+		return false;
+	}
+
+}
@@ -17,16 +17,12 @@
 package de.codecentric.boot.admin.server.notify;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import javax.annotation.Nullable;
 
-import org.springframework.context.expression.MapAccessor;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -51,10 +47,11 @@ public class OpsGenieNotifier extends AbstractStatusChangeNotifier {
 
 	private static final String DEFAULT_MESSAGE = "#{instance.registration.name}/#{instance.id} is #{instance.statusInfo.status}";
 
-	private final SpelExpressionParser parser = new SpelExpressionParser();
-
 	private RestTemplate restTemplate;
 
+	@Nullable
+	private NotifierWebClient webClient;
+
 	/**
 	 * BASE URL for OpsGenie API
 	 */
@@ -101,16 +98,20 @@ public class OpsGenieNotifier extends AbstractStatusChangeNotifier {
 	/**
 	 * Trigger description. SpEL template using event as root;
 	 */
-	private Expression description;
+	private MessageTemplate description;
 
 	public OpsGenieNotifier(InstanceRepository repository, RestTemplate restTemplate) {
 		super(repository);
 		this.restTemplate = restTemplate;
-		this.description = parser.parseExpression(DEFAULT_MESSAGE, ParserContext.TEMPLATE_EXPRESSION);
+		this.description = MessageTemplate.of(DEFAULT_MESSAGE);
 	}
 
 	@Override
 	protected Mono<Void> doNotify(InstanceEvent event, Instance instance) {
+		if (webClient != null) {
+			return Mono.defer(() -> webClient.exchange(HttpMethod.POST, buildUrl(event, instance),
+					createRequest(event, instance), Collections.emptyMap()));
+		}
 		return Mono.fromRunnable(() -> restTemplate.exchange(buildUrl(event, instance), HttpMethod.POST,
 				createRequest(event, instance), Void.class));
 	}
@@ -168,13 +169,7 @@ public class OpsGenieNotifier extends AbstractStatusChangeNotifier {
 
 	@Nullable
 	protected String getMessage(InstanceEvent event, Instance instance) {
-		Map<String, Object> root = new HashMap<>();
-		root.put("event", event);
-		root.put("instance", instance);
-		root.put("lastStatus", getLastStatus(event.getInstance()));
-		StandardEvaluationContext context = new StandardEvaluationContext(root);
-		context.addPropertyAccessor(new MapAccessor());
-		return description.getValue(context, String.class);
+		return description.render(event, instance, getLastStatus(event.getInstance()));
 	}
 
 	protected String getDescription(InstanceEvent event, Instance instance) {
@@ -193,17 +188,21 @@ public class OpsGenieNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	public void setDescription(String description) {
-		this.description = parser.parseExpression(description, ParserContext.TEMPLATE_EXPRESSION);
+		this.description = MessageTemplate.of(description);
 	}
 
 	public String getMessage() {
-		return description.getExpressionString();
+		return description.getTemplate();
 	}
 
 	public void setRestTemplate(RestTemplate restTemplate) {
 		this.restTemplate = restTemplate;
 	}
 
+	public void setWebClient(@Nullable NotifierWebClient webClient) {
+		this.webClient = webClient;
+	}
+
 	@Nullable
 	public String getActions() {
 		return actions;
@@ -22,11 +22,6 @@ import java.util.Map;
 
 import javax.annotation.Nullable;
 
-import org.springframework.context.expression.MapAccessor;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.web.client.RestTemplate;
 import reactor.core.publisher.Mono;
 
@@ -49,10 +44,11 @@ public class PagerdutyNotifier extends AbstractStatusChangeNotifier {
 
 	private static final String DEFAULT_DESCRIPTION = "#{instance.registration.name}/#{instance.id} is #{instance.statusInfo.status}";
 
-	private final SpelExpressionParser parser = new SpelExpressionParser();
-
 	private RestTemplate restTemplate;
 
+	@Nullable
+	private NotifierWebClient webClient;
+
 	/**
 	 * URI for pagerduty-REST-API
 	 */
@@ -79,16 +75,19 @@ public class PagerdutyNotifier extends AbstractStatusChangeNotifier {
 	/**
 	 * Trigger description. SpEL template using event as root;
 	 */
-	private Expression description;
+	private MessageTemplate description;
 
 	public PagerdutyNotifier(InstanceRepository repository, RestTemplate restTemplate) {
 		super(repository);
 		this.restTemplate = restTemplate;
-		this.description = parser.parseExpression(DEFAULT_DESCRIPTION, ParserContext.TEMPLATE_EXPRESSION);
+		this.description = MessageTemplate.of(DEFAULT_DESCRIPTION);
 	}
 
 	@Override
 	protected Mono<Void> doNotify(InstanceEvent event, Instance instance) {
+		if (webClient != null) {
+			return Mono.defer(() -> webClient.post(url, createPagerdutyEvent(event, instance)));
+		}
 		return Mono
 				.fromRunnable(() -> restTemplate.postForEntity(url, createPagerdutyEvent(event, instance), Void.class));
 	}
@@ -128,14 +127,7 @@ public class PagerdutyNotifier extends AbstractStatusChangeNotifier {
 
 	@Nullable
 	protected String getDescription(InstanceEvent event, Instance instance) {
-		Map<String, Object> root = new HashMap<>();
-		root.put("event", event);
-		root.put("instance", instance);
-		root.put("lastStatus", getLastStatus(event.getInstance()));
-		StandardEvaluationContext context = new StandardEvaluationContext(root);
-		context.addPropertyAccessor(new MapAccessor());
-
-		return description.getValue(context, String.class);
+		return description.render(event, instance, getLastStatus(event.getInstance()));
 	}
 
 	protected Map<String, Object> getDetails(InstanceEvent event) {
@@ -183,15 +175,19 @@ public class PagerdutyNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	public void setDescription(String description) {
-		this.description = parser.parseExpression(description, ParserContext.TEMPLATE_EXPRESSION);
+		this.description = MessageTemplate.of(description);
 	}
 
 	public String getDescription() {
-		return description.getExpressionString();
+		return description.getTemplate();
 	}
 
 	public void setRestTemplate(RestTemplate restTemplate) {
 		this.restTemplate = restTemplate;
 	}
 
+	public void setWebClient(@Nullable NotifierWebClient webClient) {
+		this.webClient = webClient;
+	}
+
 }
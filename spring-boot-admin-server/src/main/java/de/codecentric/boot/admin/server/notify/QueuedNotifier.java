@@ -0,0 +1,261 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+
+/**
+ * Notifier decoupling the delegate from the caller using a bounded queue. The queued
+ * events are sent by dedicated worker threads, so slow or blocking notifiers (e.g. mail
+ * or RestTemplate based) neither block the event handling nor other notifiers. If the
+ * queue is full the {@link OverflowPolicy} is applied. The workers are started when
+ * notifications are queued and terminate once the queue is drained.
+ */
+public class QueuedNotifier implements Notifier, MeterBinder {
+
+	private static final Logger log = LoggerFactory.getLogger(QueuedNotifier.class);
+
+	private final Notifier delegate;
+
+	private final String name;
+
+	private final BlockingQueue<QueuedEvent> queue;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final AtomicInteger activeWorkers = new AtomicInteger();
+
+	private int concurrency = 1;
+
+	private Duration blockTimeout = Duration.ofSeconds(10L);
+
+	@Nullable
+	private volatile Timer latency;
+
+	@Nullable
+	private volatile Scheduler scheduler;
+
+	private volatile boolean running = false;
+
+	public QueuedNotifier(Notifier delegate, String name, int capacity, OverflowPolicy overflowPolicy) {
+		Assert.notNull(delegate, "'delegate' must not be null!");
+		Assert.hasText(name, "'name' must not be empty!");
+		Assert.isTrue(capacity > 0, "'capacity' must be greater than 0!");
+		Assert.notNull(overflowPolicy, "'overflowPolicy' must not be null!");
+		this.delegate = delegate;
+		this.name = name;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	@Override
+	public Mono<Void> notify(InstanceEvent event) {
+		return Mono.fromRunnable(() -> {
+			this.enqueue(new QueuedEvent(event, System.nanoTime()));
+			this.signal();
+		});
+	}
+
+	private void enqueue(QueuedEvent queuedEvent) {
+		switch (this.overflowPolicy) {
+		case DROP_OLDEST:
+			while (!this.queue.offer(queuedEvent)) {
+				QueuedEvent oldest = this.queue.poll();
+				if (oldest != null) {
+					this.drop(oldest.getEvent());
+				}
+			}
+			break;
+		case BLOCK:
+			try {
+				if (!this.queue.offer(queuedEvent, this.blockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+					this.drop(queuedEvent.getEvent());
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				this.drop(queuedEvent.getEvent());
+			}
+			break;
+		default:
+			if (!this.queue.offer(queuedEvent)) {
+				this.drop(queuedEvent.getEvent());
+			}
+		}
+	}
+
+	private void drop(InstanceEvent event) {
+		this.dropped.incrementAndGet();
+		log.warn("Notification queue for {} is full. Dropped notification for {}", this.name, event);
+	}
+
+	public void start() {
+		this.running = true;
+		this.scheduler = Schedulers.newBoundedElastic(this.concurrency, this.concurrency, "notifier-" + this.name, 60,
+				true);
+		this.signal();
+		log.debug("Started dispatching notifications for {}", this.name);
+	}
+
+	public void stop() {
+		this.running = false;
+		if (this.scheduler != null) {
+			this.scheduler.dispose();
+			this.scheduler = null;
+		}
+		log.debug("Stopped dispatching notifications for {}", this.name);
+	}
+
+	// Starts another worker if notifications are queued and not all workers are busy. The
+	// workers drain the queue and terminate, so no thread is polling an empty queue.
+	private void signal() {
+		Scheduler workers = this.scheduler;
+		while (this.running && workers != null && !this.queue.isEmpty()) {
+			int active = this.activeWorkers.get();
+			if (active >= this.concurrency) {
+				return;
+			}
+			if (this.activeWorkers.compareAndSet(active, active + 1)) {
+				try {
+					workers.schedule(this::drain);
+				}
+				catch (RejectedExecutionException ex) {
+					this.activeWorkers.decrementAndGet();
+				}
+				return;
+			}
+		}
+	}
+
+	private void drain() {
+		try {
+			QueuedEvent queuedEvent;
+			while (this.running && (queuedEvent = this.queue.poll()) != null) {
+				this.send(queuedEvent);
+			}
+		}
+		finally {
+			this.activeWorkers.decrementAndGet();
+		}
+		// notifications may have been queued after the last poll
+		this.signal();
+	}
+
+	private void send(QueuedEvent queuedEvent) {
+		Timer timer = this.latency;
+		if (timer != null) {
+			timer.record(System.nanoTime() - queuedEvent.getEnqueuedAt(), TimeUnit.NANOSECONDS);
+		}
+		try {
+			this.delegate.notify(queuedEvent.getEvent()).block();
+		}
+		catch (Exception ex) {
+			log.warn("Couldn't notify for event {} ", queuedEvent.getEvent(), ex);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("spring.boot.admin.notifications.queue.size", this.queue, BlockingQueue::size)
+				.description("Number of notifications waiting to be sent").tag("notifier", this.name)
+				.register(registry);
+		FunctionCounter.builder("spring.boot.admin.notifications.queue.dropped", this.dropped, AtomicLong::get)
+				.description("Number of notifications dropped because the queue was full").tag("notifier", this.name)
+				.register(registry);
+		this.latency = Timer.builder("spring.boot.admin.notifications.queue.latency")
+				.description("Time notifications spent waiting in the queue").tag("notifier", this.name)
+				.register(registry);
+	}
+
+	public int getQueueSize() {
+		return this.queue.size();
+	}
+
+	public long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public void setConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "'concurrency' must be greater than 0!");
+		this.concurrency = concurrency;
+	}
+
+	public void setBlockTimeout(Duration blockTimeout) {
+		this.blockTimeout = blockTimeout;
+	}
+
+	/**
+	 * Policy applied when a notification is submitted to a full queue.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Discard the submitted notification.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Discard the oldest queued notification to make room for the submitted one.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Block the caller until there is room in the queue (at most for the
+		 * block-timeout), so the event handling is slowed down.
+		 */
+		BLOCK
+
+	}
+
+	@lombok.Data
+	private static final class QueuedEvent {
+
+		private final InstanceEvent event;
+
+		private final long enqueuedAt;
+
+	}
+
+}
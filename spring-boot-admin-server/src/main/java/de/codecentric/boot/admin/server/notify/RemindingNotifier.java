@@ -16,10 +16,18 @@
 
 package de.codecentric.boot.admin.server.notify;
 
+import java.io.Serializable;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
@@ -43,6 +51,11 @@ import de.codecentric.boot.admin.server.domain.values.InstanceId;
 
 /**
  * Notifier that reminds certain statuses to send reminder notification using a delegate.
+ * <p>
+ * Due reminders are kept on a hashed timing wheel with one slot per
+ * {@code checkReminderInverval}, so each check only touches the reminders due in the
+ * elapsed slots instead of scanning all of them. The reminder state itself is kept in the
+ * given map, which may be shared by a cluster (see {@link HazelcastRemindingNotifier}).
  *
  * @author Johannes Edmeier
  */
@@ -50,7 +63,13 @@ public class RemindingNotifier extends AbstractEventNotifier {
 
 	private static final Logger log = LoggerFactory.getLogger(RemindingNotifier.class);
 
-	private final ConcurrentHashMap<InstanceId, Reminder> reminders = new ConcurrentHashMap<>();
+	private static final int WHEEL_SIZE = 512;
+
+	private final ConcurrentMap<InstanceId, Reminder> reminders;
+
+	private final List<Set<InstanceId>> wheel = new ArrayList<>(WHEEL_SIZE);
+
+	private final Map<InstanceId, Long> scheduledTicks = new HashMap<>();
 
 	private final Notifier delegate;
 
@@ -60,6 +79,8 @@ public class RemindingNotifier extends AbstractEventNotifier {
 
 	private String[] reminderStatuses = { "DOWN", "OFFLINE" };
 
+	private long lastTick;
+
 	@Nullable
 	private Disposable subscription;
 
@@ -67,9 +88,20 @@ public class RemindingNotifier extends AbstractEventNotifier {
 	private Scheduler reminderScheduler;
 
 	public RemindingNotifier(Notifier delegate, InstanceRepository repository) {
+		this(delegate, repository, new ConcurrentHashMap<>());
+	}
+
+	public RemindingNotifier(Notifier delegate, InstanceRepository repository,
+			ConcurrentMap<InstanceId, Reminder> reminders) {
 		super(repository);
 		Assert.notNull(delegate, "'delegate' must not be null!");
+		Assert.notNull(reminders, "'reminders' must not be null!");
 		this.delegate = delegate;
+		this.reminders = reminders;
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			this.wheel.add(new HashSet<>());
+		}
+		this.lastTick = this.tickOf(Instant.now());
 	}
 
 	@Override
@@ -77,9 +109,14 @@ public class RemindingNotifier extends AbstractEventNotifier {
 		return this.delegate.notify(event).doFinally((s) -> {
 			if (shouldEndReminder(event)) {
 				this.reminders.remove(event.getInstance());
+				this.unscheduleReminder(event.getInstance());
 			}
 			else if (shouldStartReminder(event)) {
-				this.reminders.putIfAbsent(event.getInstance(), new Reminder(event));
+				Reminder reminder = new Reminder(event);
+				if (this.reminders.putIfAbsent(event.getInstance(), reminder) == null
+						&& this.isOwner(event.getInstance())) {
+					this.scheduleReminder(event.getInstance(), reminder);
+				}
 			}
 		}).onErrorResume((e) -> Mono.empty());
 	}
@@ -108,12 +145,93 @@ public class RemindingNotifier extends AbstractEventNotifier {
 
 	protected Mono<Void> sendReminders() {
 		Instant now = Instant.now();
+		return Flux.fromIterable(this.pollDueReminders(now)).flatMap((id) -> this.sendReminder(id, now)).then();
+	}
+
+	private Mono<Void> sendReminder(InstanceId id, Instant now) {
+		Reminder reminder = this.reminders.get(id);
+		if (reminder == null || !this.isOwner(id)) {
+			return Mono.empty();
+		}
+		if (reminder.getLastNotification().plus(this.reminderPeriod).isAfter(now)) {
+			this.scheduleReminder(id, reminder);
+			return Mono.empty();
+		}
+		return this.delegate.notify(reminder.getEvent()).doOnSuccess((signal) -> {
+			Reminder sent = reminder.withLastNotification(now);
+			if (this.reminders.replace(id, reminder, sent)) {
+				this.scheduleReminder(id, sent);
+			}
+		}).doOnError((e) -> this.scheduleReminder(id, reminder));
+	}
+
+	/**
+	 * Schedules the reminder on the timing wheel. Rescheduling an already scheduled
+	 * reminder moves it to the new slot.
+	 * @param id the instance of the reminder
+	 * @param reminder the reminder to schedule
+	 */
+	protected synchronized void scheduleReminder(InstanceId id, Reminder reminder) {
+		long tick = Math.max(this.tickOf(reminder.getLastNotification().plus(this.reminderPeriod)), this.lastTick);
+		Long previous = this.scheduledTicks.put(id, tick);
+		if (previous != null) {
+			this.slot(previous).remove(id);
+		}
+		this.slot(tick).add(id);
+	}
+
+	protected synchronized void unscheduleReminder(InstanceId id) {
+		Long previous = this.scheduledTicks.remove(id);
+		if (previous != null) {
+			this.slot(previous).remove(id);
+		}
+	}
+
+	/**
+	 * Removes and returns the reminders due in all slots elapsed since the last call.
+	 * @param now the current time
+	 * @return the ids of the due reminders
+	 */
+	protected synchronized List<InstanceId> pollDueReminders(Instant now) {
+		long nowTick = Math.max(this.tickOf(now), this.lastTick);
+		long lastVisitedTick = Math.min(nowTick, this.lastTick + WHEEL_SIZE - 1);
+		List<InstanceId> due = new ArrayList<>();
+		for (long tick = this.lastTick; tick <= lastVisitedTick; tick++) {
+			Set<InstanceId> slot = this.slot(tick);
+			slot.removeIf((id) -> {
+				Long scheduledTick = this.scheduledTicks.get(id);
+				if (scheduledTick != null && scheduledTick <= nowTick) {
+					this.scheduledTicks.remove(id);
+					due.add(id);
+					return true;
+				}
+				return false;
+			});
+		}
+		this.lastTick = nowTick;
+		return due;
+	}
+
+	/**
+	 * Returns whether this notifier is responsible for sending the reminder. Always true,
+	 * unless the reminders are shared by multiple servers.
+	 * @param id the instance of the reminder
+	 * @return whether the reminder is owned by this notifier
+	 */
+	protected boolean isOwner(InstanceId id) {
+		return true;
+	}
+
+	protected ConcurrentMap<InstanceId, Reminder> getReminders() {
+		return this.reminders;
+	}
 
-		return Flux.fromIterable(this.reminders.values())
-				.filter((reminder) -> reminder.getLastNotification().plus(this.reminderPeriod).isBefore(now))
-				.flatMap((reminder) -> this.delegate.notify(reminder.getEvent())
-						.doOnSuccess((signal) -> reminder.setLastNotification(now)))
-				.then();
+	private Set<InstanceId> slot(long tick) {
+		return this.wheel.get((int) Math.floorMod(tick, (long) WHEEL_SIZE));
+	}
+
+	private long tickOf(Instant instant) {
+		return instant.toEpochMilli() / Math.max(1L, this.checkReminderInverval.toMillis());
 	}
 
 	protected boolean shouldStartReminder(InstanceEvent event) {
@@ -145,25 +263,41 @@ public class RemindingNotifier extends AbstractEventNotifier {
 		this.reminderStatuses = copy;
 	}
 
-	public void setCheckReminderInverval(Duration checkReminderInverval) {
+	public synchronized void setCheckReminderInverval(Duration checkReminderInverval) {
 		this.checkReminderInverval = checkReminderInverval;
+		this.lastTick = this.tickOf(Instant.now());
+		Map<InstanceId, Long> scheduled = new HashMap<>(this.scheduledTicks);
+		this.scheduledTicks.clear();
+		this.wheel.forEach(Set::clear);
+		scheduled.keySet().forEach((id) -> {
+			Reminder reminder = this.reminders.get(id);
+			if (reminder != null) {
+				this.scheduleReminder(id, reminder);
+			}
+		});
 	}
 
-	protected static final class Reminder {
+	public static final class Reminder implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private final InstanceEvent event;
 
-		private Instant lastNotification;
+		private final Instant lastNotification;
 
 		private Reminder(InstanceEvent event) {
-			this.event = event;
-			this.lastNotification = event.getTimestamp();
+			this(event, event.getTimestamp());
 		}
 
-		public void setLastNotification(Instant lastNotification) {
+		private Reminder(InstanceEvent event, Instant lastNotification) {
+			this.event = event;
 			this.lastNotification = lastNotification;
 		}
 
+		public Reminder withLastNotification(Instant lastNotification) {
+			return new Reminder(this.event, lastNotification);
+		}
+
 		public Instant getLastNotification() {
 			return this.lastNotification;
 		}
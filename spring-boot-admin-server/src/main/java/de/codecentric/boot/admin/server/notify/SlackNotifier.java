@@ -23,11 +23,6 @@ import java.util.Map;
 
 import javax.annotation.Nullable;
 
-import org.springframework.context.expression.MapAccessor;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -49,10 +44,11 @@ public class SlackNotifier extends AbstractStatusChangeNotifier {
 
 	private static final String DEFAULT_MESSAGE = "*#{instance.registration.name}* (#{instance.id}) is *#{event.statusInfo.status}*";
 
-	private final SpelExpressionParser parser = new SpelExpressionParser();
-
 	private RestTemplate restTemplate;
 
+	@Nullable
+	private NotifierWebClient webClient;
+
 	/**
 	 * Webhook url for Slack API (i.e. https://hooks.slack.com/services/xxx)
 	 */
@@ -80,12 +76,12 @@ public class SlackNotifier extends AbstractStatusChangeNotifier {
 	/**
 	 * Message formatted using Slack markups. SpEL template using event as root
 	 */
-	private Expression message;
+	private MessageTemplate message;
 
 	public SlackNotifier(InstanceRepository repository, RestTemplate restTemplate) {
 		super(repository);
 		this.restTemplate = restTemplate;
-		this.message = parser.parseExpression(DEFAULT_MESSAGE, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(DEFAULT_MESSAGE);
 	}
 
 	@Override
@@ -93,6 +89,9 @@ public class SlackNotifier extends AbstractStatusChangeNotifier {
 		if (webhookUrl == null) {
 			return Mono.error(new IllegalStateException("'webhookUrl' must not be null."));
 		}
+		if (webClient != null) {
+			return Mono.defer(() -> webClient.post(webhookUrl, createMessage(event, instance)));
+		}
 		return Mono
 				.fromRunnable(() -> restTemplate.postForEntity(webhookUrl, createMessage(event, instance), Void.class));
 	}
@@ -101,6 +100,10 @@ public class SlackNotifier extends AbstractStatusChangeNotifier {
 		this.restTemplate = restTemplate;
 	}
 
+	public void setWebClient(@Nullable NotifierWebClient webClient) {
+		this.webClient = webClient;
+	}
+
 	protected Object createMessage(InstanceEvent event, Instance instance) {
 		Map<String, Object> messageJson = new HashMap<>();
 		messageJson.put("username", username);
@@ -124,13 +127,7 @@ public class SlackNotifier extends AbstractStatusChangeNotifier {
 
 	@Nullable
 	protected String getText(InstanceEvent event, Instance instance) {
-		Map<String, Object> root = new HashMap<>();
-		root.put("event", event);
-		root.put("instance", instance);
-		root.put("lastStatus", getLastStatus(event.getInstance()));
-		StandardEvaluationContext context = new StandardEvaluationContext(root);
-		context.addPropertyAccessor(new MapAccessor());
-		return message.getValue(context, String.class);
+		return message.render(event, instance, getLastStatus(event.getInstance()));
 	}
 
 	protected String getColor(InstanceEvent event) {
@@ -180,11 +177,11 @@ public class SlackNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	public String getMessage() {
-		return message.getExpressionString();
+		return message.getTemplate();
 	}
 
 	public void setMessage(String message) {
-		this.message = parser.parseExpression(message, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(message);
 	}
 
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.util.Assert;
+
+import de.codecentric.boot.admin.server.domain.events.InstanceStatusChangedEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+/**
+ * Digest of several status changes of one application to the same status. It is emitted
+ * by the {@link CoalescingNotifier} and carries the first coalesced change as its own
+ * instance and status, so notifiers not aware of digests still render a sensible message.
+ * Templates may refer to {@code event.count} and {@code event.instances} to list all
+ * affected instances.
+ */
+@lombok.Data
+@lombok.EqualsAndHashCode(callSuper = true)
+@lombok.ToString(callSuper = true)
+public class StatusChangeDigestEvent extends InstanceStatusChangedEvent {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String application;
+
+	private final List<InstanceStatusChangedEvent> events;
+
+	public StatusChangeDigestEvent(String application, List<InstanceStatusChangedEvent> events) {
+		super(first(events).getInstance(), first(events).getVersion(), events.get(events.size() - 1).getTimestamp(),
+				first(events).getStatusInfo());
+		this.application = application;
+		this.events = Collections.unmodifiableList(new ArrayList<>(events));
+	}
+
+	private static InstanceStatusChangedEvent first(List<InstanceStatusChangedEvent> events) {
+		Assert.notEmpty(events, "'events' must not be empty");
+		return events.get(0);
+	}
+
+	public List<InstanceId> getInstances() {
+		return this.events.stream().map(InstanceStatusChangedEvent::getInstance).collect(Collectors.toList());
+	}
+
+	public int getCount() {
+		return this.events.size();
+	}
+
+}
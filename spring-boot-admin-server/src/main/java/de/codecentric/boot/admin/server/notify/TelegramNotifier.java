@@ -21,11 +21,6 @@ import java.util.Map;
 
 import javax.annotation.Nullable;
 
-import org.springframework.context.expression.MapAccessor;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.web.client.RestTemplate;
 import reactor.core.publisher.Mono;
 
@@ -40,10 +35,11 @@ public class TelegramNotifier extends AbstractStatusChangeNotifier {
 
 	private static final String DEFAULT_MESSAGE = "<strong>#{instance.registration.name}</strong>/#{instance.id} is <strong>#{event.statusInfo.status}</strong>";
 
-	private final SpelExpressionParser parser = new SpelExpressionParser();
-
 	private RestTemplate restTemplate;
 
+	@Nullable
+	private NotifierWebClient webClient;
+
 	/**
 	 * base url for telegram (i.e. https://api.telegram.org)
 	 */
@@ -73,16 +69,19 @@ public class TelegramNotifier extends AbstractStatusChangeNotifier {
 	 */
 	private boolean disableNotify = false;
 
-	private Expression message;
+	private MessageTemplate message;
 
 	public TelegramNotifier(InstanceRepository repository, RestTemplate restTemplate) {
 		super(repository);
 		this.restTemplate = restTemplate;
-		this.message = parser.parseExpression(DEFAULT_MESSAGE, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(DEFAULT_MESSAGE);
 	}
 
 	@Override
 	protected Mono<Void> doNotify(InstanceEvent event, Instance instance) {
+		if (webClient != null) {
+			return Mono.defer(() -> webClient.get(buildUrl(), createMessage(event, instance)));
+		}
 		return Mono
 				.fromRunnable(() -> restTemplate.getForObject(buildUrl(), Void.class, createMessage(event, instance)));
 	}
@@ -103,19 +102,17 @@ public class TelegramNotifier extends AbstractStatusChangeNotifier {
 
 	@Nullable
 	protected String getText(InstanceEvent event, Instance instance) {
-		Map<String, Object> root = new HashMap<>();
-		root.put("event", event);
-		root.put("instance", instance);
-		root.put("lastStatus", getLastStatus(event.getInstance()));
-		StandardEvaluationContext context = new StandardEvaluationContext(root);
-		context.addPropertyAccessor(new MapAccessor());
-		return message.getValue(context, String.class);
+		return message.render(event, instance, getLastStatus(event.getInstance()));
 	}
 
 	public void setRestTemplate(RestTemplate restTemplate) {
 		this.restTemplate = restTemplate;
 	}
 
+	public void setWebClient(@Nullable NotifierWebClient webClient) {
+		this.webClient = webClient;
+	}
+
 	public String getApiUrl() {
 		return apiUrl;
 	}
@@ -159,7 +156,7 @@ public class TelegramNotifier extends AbstractStatusChangeNotifier {
 	}
 
 	public void setMessage(String message) {
-		this.message = parser.parseExpression(message, ParserContext.TEMPLATE_EXPRESSION);
+		this.message = MessageTemplate.of(message);
 	}
 
 }
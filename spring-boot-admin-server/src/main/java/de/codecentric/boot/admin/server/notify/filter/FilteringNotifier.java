@@ -18,12 +18,16 @@ package de.codecentric.boot.admin.server.notify.filter;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 import javax.annotation.Nullable;
 
@@ -35,11 +39,16 @@ import reactor.core.publisher.Mono;
 import de.codecentric.boot.admin.server.domain.entities.Instance;
 import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
 import de.codecentric.boot.admin.server.notify.AbstractEventNotifier;
 import de.codecentric.boot.admin.server.notify.Notifier;
 
 /**
  * Notifier that allows to filter certain events based on policies.
+ * <p>
+ * Filters for instance ids and application names are indexed by their key, so only the
+ * filters matching the event's instance are evaluated. Expiring filters are kept ordered
+ * by their expiry for the clean up.
  *
  * @author Johannes Edmeier
  */
@@ -49,6 +58,15 @@ public class FilteringNotifier extends AbstractEventNotifier {
 
 	private final ConcurrentMap<String, NotificationFilter> filters = new ConcurrentHashMap<>();
 
+	private final ConcurrentMap<InstanceId, Set<NotificationFilter>> filtersByInstanceId = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Set<NotificationFilter>> filtersByApplicationName = new ConcurrentHashMap<>();
+
+	private final Set<NotificationFilter> otherFilters = ConcurrentHashMap.newKeySet();
+
+	private final ConcurrentSkipListSet<ExpiringNotificationFilter> expiringFilters = new ConcurrentSkipListSet<>(
+			Comparator.comparing(ExpiringNotificationFilter::getExpiry).thenComparing(NotificationFilter::getId));
+
 	private final Notifier delegate;
 
 	private Instant lastCleanup = Instant.EPOCH;
@@ -73,9 +91,19 @@ public class FilteringNotifier extends AbstractEventNotifier {
 
 	private boolean filter(InstanceEvent event, Instance instance) {
 		cleanUp();
-		for (Entry<String, NotificationFilter> entry : getNotificationFilters().entrySet()) {
-			if (entry.getValue().filter(event, instance)) {
-				LOGGER.debug("The event '{}' was suppressed by filter '{}'", event, entry);
+		return filter(filtersByInstanceId.get(event.getInstance()), event, instance)
+				|| filter(filtersByApplicationName.get(instance.getRegistration().getName()), event, instance)
+				|| filter(otherFilters, event, instance);
+	}
+
+	private boolean filter(@Nullable Collection<NotificationFilter> candidates, InstanceEvent event,
+			Instance instance) {
+		if (candidates == null) {
+			return false;
+		}
+		for (NotificationFilter filter : candidates) {
+			if (filter.filter(event, instance)) {
+				LOGGER.debug("The event '{}' was suppressed by filter '{}'", event, filter);
 				return true;
 			}
 		}
@@ -88,24 +116,45 @@ public class FilteringNotifier extends AbstractEventNotifier {
 			return;
 		}
 		lastCleanup = now;
-		for (Entry<String, NotificationFilter> entry : getNotificationFilters().entrySet()) {
-			if (entry.getValue() instanceof ExpiringNotificationFilter
-					&& ((ExpiringNotificationFilter) entry.getValue()).isExpired()) {
-				LOGGER.debug("Expired filter '{}' removed", entry);
-				filters.remove(entry.getKey());
-			}
+		for (ExpiringNotificationFilter first = pollExpired(); first != null; first = pollExpired()) {
+			removeExpiredFilter(first);
+		}
+	}
+
+	@Nullable
+	private ExpiringNotificationFilter pollExpired() {
+		Iterator<ExpiringNotificationFilter> iterator = expiringFilters.iterator();
+		ExpiringNotificationFilter first = iterator.hasNext() ? iterator.next() : null;
+		return (first != null && first.isExpired()) ? first : null;
+	}
+
+	private synchronized void removeExpiredFilter(ExpiringNotificationFilter filter) {
+		LOGGER.debug("Expired filter '{}' removed", filter);
+		if (filters.remove(filter.getId(), filter)) {
+			unindex(filter);
+		}
+		else {
+			expiringFilters.remove(filter);
 		}
 	}
 
-	public void addFilter(NotificationFilter filter) {
+	public synchronized void addFilter(NotificationFilter filter) {
 		LOGGER.debug("Added filter '{}'", filter);
-		filters.put(filter.getId(), filter);
+		NotificationFilter previous = filters.put(filter.getId(), filter);
+		if (previous != null) {
+			unindex(previous);
+		}
+		index(filter);
 	}
 
 	@Nullable
-	public NotificationFilter removeFilter(String id) {
+	public synchronized NotificationFilter removeFilter(String id) {
 		LOGGER.debug("Removed filter with id '{}'", id);
-		return filters.remove(id);
+		NotificationFilter removed = filters.remove(id);
+		if (removed != null) {
+			unindex(removed);
+		}
+		return removed;
 	}
 
 	public Map<String, NotificationFilter> getNotificationFilters() {
@@ -116,4 +165,38 @@ public class FilteringNotifier extends AbstractEventNotifier {
 		this.cleanupInterval = cleanupInterval;
 	}
 
+	private void index(NotificationFilter filter) {
+		if (filter instanceof InstanceIdNotificationFilter) {
+			filtersByInstanceId.computeIfAbsent(((InstanceIdNotificationFilter) filter).getInstanceId(),
+					(key) -> ConcurrentHashMap.newKeySet()).add(filter);
+		}
+		else if (filter instanceof ApplicationNameNotificationFilter) {
+			filtersByApplicationName.computeIfAbsent(((ApplicationNameNotificationFilter) filter).getApplicationName(),
+					(key) -> ConcurrentHashMap.newKeySet()).add(filter);
+		}
+		else {
+			otherFilters.add(filter);
+		}
+		if (filter instanceof ExpiringNotificationFilter && ((ExpiringNotificationFilter) filter).getExpiry() != null) {
+			expiringFilters.add((ExpiringNotificationFilter) filter);
+		}
+	}
+
+	private void unindex(NotificationFilter filter) {
+		if (filter instanceof InstanceIdNotificationFilter) {
+			filtersByInstanceId.computeIfPresent(((InstanceIdNotificationFilter) filter).getInstanceId(),
+					(key, set) -> (set.remove(filter) && set.isEmpty()) ? null : set);
+		}
+		else if (filter instanceof ApplicationNameNotificationFilter) {
+			filtersByApplicationName.computeIfPresent(((ApplicationNameNotificationFilter) filter).getApplicationName(),
+					(key, set) -> (set.remove(filter) && set.isEmpty()) ? null : set);
+		}
+		else {
+			otherFilters.remove(filter);
+		}
+		if (filter instanceof ExpiringNotificationFilter && ((ExpiringNotificationFilter) filter).getExpiry() != null) {
+			expiringFilters.remove(filter);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,22 +16,36 @@
 
 package de.codecentric.boot.admin.server.services;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.GroupedFlux;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
-
-public abstract class AbstractEventHandler<T extends InstanceEvent> {
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher;
+
+/**
+ * Base class for handlers consuming the {@link InstanceEvent}s. By default all events are
+ * dispatched by a single thread. With a parallelism greater than one the events are
+ * partitioned by their {@link InstanceId} onto the given number of rails, each dispatched
+ * by its own thread, so the events of one instance are still handled in order.
+ */
+public abstract class AbstractEventHandler<T extends InstanceEvent> implements MeterBinder {
 
 	private final Logger log = LoggerFactory.getLogger(this.getClass());
 
@@ -45,6 +59,10 @@ public abstract class AbstractEventHandler<T extends InstanceEvent> {
 	@Nullable
 	private Scheduler scheduler;
 
+	private int parallelism = 1;
+
+	private AtomicLong[] lag = createLag(1);
+
 	protected AbstractEventHandler(Publisher<InstanceEvent> publisher, Class<T> eventType) {
 		this.publisher = publisher;
 		this.eventType = eventType;
@@ -54,14 +72,52 @@ public abstract class AbstractEventHandler<T extends InstanceEvent> {
 		this.scheduler = this.createScheduler();
 		this.subscription = Flux.from(this.publisher).subscribeOn(this.scheduler).log(this.log.getName(), Level.FINEST)
 				.doOnSubscribe((s) -> this.log.debug("Subscribed to {} events", this.eventType)).ofType(this.eventType)
-				.cast(this.eventType).transform(this::handle)
-				.retryWhen(Retry.indefinitely().doBeforeRetry((s) -> this.log.warn("Unexpected error", s.failure())))
-				.subscribe();
+				.cast(this.eventType).transform(this::dispatch).retryWhen(Retry.indefinitely().doBeforeRetry((s) -> {
+					this.log.warn("Unexpected error", s.failure());
+					resetLag();
+				})).contextWrite(InstanceEventPublisher.subscriberName(this.getClass().getName())).subscribe();
+	}
+
+	private Publisher<Void> dispatch(Flux<T> events) {
+		if (this.parallelism == 1) {
+			return this.handle(events);
+		}
+		Scheduler railScheduler = this.scheduler;
+		Assert.state(railScheduler != null, "'scheduler' must not be null!");
+		return events.groupBy((event) -> rail(event.getInstance()))
+				.flatMap((rail) -> this.handleRail(rail, railScheduler), this.parallelism);
+	}
+
+	private Publisher<Void> handleRail(GroupedFlux<Integer, T> rail, Scheduler railScheduler) {
+		AtomicLong railLag = this.lag[rail.key()];
+		return rail.doOnNext((event) -> railLag.incrementAndGet()).publishOn(railScheduler)
+				.doOnNext((event) -> railLag.decrementAndGet()).transform(this::handle);
+	}
+
+	private int rail(InstanceId instanceId) {
+		return Math.floorMod(instanceId.hashCode(), this.parallelism);
+	}
+
+	private void resetLag() {
+		for (AtomicLong railLag : this.lag) {
+			railLag.set(0L);
+		}
+	}
+
+	private static AtomicLong[] createLag(int rails) {
+		AtomicLong[] lag = new AtomicLong[rails];
+		for (int i = 0; i < rails; i++) {
+			lag[i] = new AtomicLong();
+		}
+		return lag;
 	}
 
 	protected abstract Publisher<Void> handle(Flux<T> publisher);
 
 	protected Scheduler createScheduler() {
+		if (this.parallelism > 1) {
+			return Schedulers.newParallel(this.getClass().getSimpleName(), this.parallelism);
+		}
 		return Schedulers.newSingle(this.getClass().getSimpleName());
 	}
 
@@ -76,4 +132,37 @@ public abstract class AbstractEventHandler<T extends InstanceEvent> {
 		}
 	}
 
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		if (this.parallelism == 1) {
+			return;
+		}
+		for (int i = 0; i < this.lag.length; i++) {
+			Gauge.builder("spring.boot.admin.events.handler.lag", this.lag[i], AtomicLong::get)
+					.description("Number of events waiting to be dispatched on the rail")
+					.tag("handler", this.getClass().getSimpleName()).tag("rail", String.valueOf(i)).register(registry);
+		}
+	}
+
+	public long getLag(int rail) {
+		return this.lag[rail].get();
+	}
+
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of rails the events are partitioned on. Must be set before the
+	 * handler is started and bound to a {@link MeterRegistry}. The lag of the rails is
+	 * only published in partitioned mode.
+	 * @param parallelism number of rails; 1 dispatches all events on a single thread
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "'parallelism' must be greater than 0!");
+		Assert.state(this.subscription == null, "'parallelism' can't be changed while the handler is running!");
+		this.parallelism = parallelism;
+		this.lag = createLag(parallelism);
+	}
+
 }
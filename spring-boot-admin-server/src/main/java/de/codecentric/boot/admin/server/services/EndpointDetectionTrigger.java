@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package de.codecentric.boot.admin.server.services;
 
+import javax.annotation.Nullable;
+
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +34,9 @@ public class EndpointDetectionTrigger extends AbstractEventHandler<InstanceEvent
 
 	private final EndpointDetector endpointDetector;
 
+	@Nullable
+	private InstanceOwnership ownership;
+
 	public EndpointDetectionTrigger(EndpointDetector endpointDetector, Publisher<InstanceEvent> publisher) {
 		super(publisher, InstanceEvent.class);
 		this.endpointDetector = endpointDetector;
@@ -39,15 +44,29 @@ public class EndpointDetectionTrigger extends AbstractEventHandler<InstanceEvent
 
 	@Override
 	protected Publisher<Void> handle(Flux<InstanceEvent> publisher) {
-		return publisher.filter((event) -> event instanceof InstanceStatusChangedEvent
-				|| event instanceof InstanceRegistrationUpdatedEvent).flatMap(this::detectEndpoints);
+		return publisher
+				.filter((event) -> event instanceof InstanceStatusChangedEvent
+						|| event instanceof InstanceRegistrationUpdatedEvent)
+				.filter((event) -> this.ownership == null || this.ownership.isOwner(event.getInstance()))
+				.flatMap(this::detectEndpoints);
 	}
 
 	protected Mono<Void> detectEndpoints(InstanceEvent event) {
-		return this.endpointDetector.detectEndpoints(event.getInstance()).onErrorResume((e) -> {
+		Mono<Void> detection = (event instanceof InstanceRegistrationUpdatedEvent)
+				? this.endpointDetector.redetectEndpoints(event.getInstance())
+				: this.endpointDetector.detectEndpoints(event.getInstance());
+		return detection.onErrorResume((e) -> {
 			log.warn("Unexpected error while detecting endpoints for {}", event.getInstance(), e);
 			return Mono.empty();
 		});
 	}
 
+	/**
+	 * Restricts the detection to the instances owned by this server.
+	 * @param ownership the ownership of the instances or {@code null} for all instances
+	 */
+	public void setOwnership(@Nullable InstanceOwnership ownership) {
+		this.ownership = ownership;
+	}
+
 }
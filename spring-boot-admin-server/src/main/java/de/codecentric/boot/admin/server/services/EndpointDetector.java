@@ -46,6 +46,13 @@ public class EndpointDetector {
 		return repository.computeIfPresent(id, (key, instance) -> this.doDetectEndpoints(instance)).then();
 	}
 
+	public Mono<Void> redetectEndpoints(InstanceId id) {
+		return repository.computeIfPresent(id, (key, instance) -> {
+			strategy.invalidate(instance);
+			return this.doDetectEndpoints(instance);
+		}).then();
+	}
+
 	private Mono<Instance> doDetectEndpoints(Instance instance) {
 		if (!StringUtils.hasText(instance.getRegistration().getManagementUrl()) || instance.getStatusInfo().isOffline()
 				|| instance.getStatusInfo().isUnknown()) {
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.services;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import com.hazelcast.cluster.Cluster;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.core.EntryAdapter;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.MapEvent;
+import com.hazelcast.replicatedmap.ReplicatedMap;
+import reactor.core.publisher.Flux;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+/**
+ * Assigns each instance to one of the cluster members running an admin server. The
+ * members running an admin server register themselves in a replicated map on
+ * {@link #start()}, so plain Hazelcast members which joined the cluster are never
+ * assigned any instance. The instance is assigned by rendezvous hashing over the
+ * registered members (not by the Hazelcast partitions), thus only the instances of a
+ * leaving member are reassigned and the instances are rebalanced when a member joins.
+ * <p>
+ * The members and the assignment are cached until the members change. The owned instances
+ * are taken from the registered instances of the {@link InstanceRepository}, so
+ * deregistered instances are not checked anymore.
+ */
+public class HazelcastInstanceOwnership implements InstanceOwnership {
+
+	private final Cluster cluster;
+
+	private final InstanceRepository repository;
+
+	private final ReplicatedMap<UUID, Boolean> adminMembers;
+
+	private final AtomicLong membersVersion = new AtomicLong();
+
+	@Nullable
+	private volatile Assignment assignment;
+
+	@Nullable
+	private UUID membershipListenerId;
+
+	@Nullable
+	private UUID adminMembersListenerId;
+
+	public HazelcastInstanceOwnership(HazelcastInstance hazelcastInstance, InstanceRepository repository,
+			ReplicatedMap<UUID, Boolean> adminMembers) {
+		this.cluster = hazelcastInstance.getCluster();
+		this.repository = repository;
+		this.adminMembers = adminMembers;
+	}
+
+	public void start() {
+		this.membershipListenerId = this.cluster.addMembershipListener(new MembershipListener() {
+			@Override
+			public void memberAdded(MembershipEvent event) {
+				HazelcastInstanceOwnership.this.membersChanged();
+			}
+
+			@Override
+			public void memberRemoved(MembershipEvent event) {
+				HazelcastInstanceOwnership.this.adminMembers.remove(event.getMember().getUuid());
+				HazelcastInstanceOwnership.this.membersChanged();
+			}
+		});
+		this.adminMembersListenerId = this.adminMembers.addEntryListener(new EntryAdapter<UUID, Boolean>() {
+			@Override
+			public void onEntryEvent(EntryEvent<UUID, Boolean> event) {
+				HazelcastInstanceOwnership.this.membersChanged();
+			}
+
+			@Override
+			public void onMapEvent(MapEvent event) {
+				HazelcastInstanceOwnership.this.membersChanged();
+			}
+		});
+		this.adminMembers.put(this.cluster.getLocalMember().getUuid(), Boolean.TRUE);
+		this.membersChanged();
+	}
+
+	public void stop() {
+		this.adminMembers.remove(this.cluster.getLocalMember().getUuid());
+		if (this.adminMembersListenerId != null) {
+			this.adminMembers.removeEntryListener(this.adminMembersListenerId);
+			this.adminMembersListenerId = null;
+		}
+		if (this.membershipListenerId != null) {
+			this.cluster.removeMembershipListener(this.membershipListenerId);
+			this.membershipListenerId = null;
+		}
+	}
+
+	@Override
+	public boolean isOwner(InstanceId id) {
+		return this.getAssignment().isOwner(id);
+	}
+
+	@Override
+	public Flux<InstanceId> getOwnedInstances() {
+		return this.repository.findAll().filter(Instance::isRegistered).map(Instance::getId).collectList()
+				.flatMapIterable((ids) -> {
+					Assignment current = this.getAssignment();
+					// forget the assignment of instances which are gone
+					current.retain(ids);
+					return ids.stream().filter(current::isOwner).collect(Collectors.toList());
+				});
+	}
+
+	private void membersChanged() {
+		this.membersVersion.incrementAndGet();
+	}
+
+	private Assignment getAssignment() {
+		Assignment current = this.assignment;
+		long version = this.membersVersion.get();
+		if (current == null || current.version != version) {
+			current = new Assignment(version, this.getAdminMembers(), this.cluster.getLocalMember().getUuid());
+			this.assignment = current;
+		}
+		return current;
+	}
+
+	private List<UUID> getAdminMembers() {
+		return this.cluster.getMembers().stream().map(Member::getUuid).filter(this.adminMembers::containsKey)
+				.collect(Collectors.toList());
+	}
+
+	private static long weight(UUID member, InstanceId id) {
+		long h = member.getMostSignificantBits() ^ member.getLeastSignificantBits()
+				^ (id.getValue().hashCode() * 0x9E3779B97F4A7C15L);
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	private static final class Assignment {
+
+		private final long version;
+
+		private final List<UUID> members;
+
+		private final UUID localMember;
+
+		private final Map<InstanceId, Boolean> owned = new ConcurrentHashMap<>();
+
+		private Assignment(long version, List<UUID> members, UUID localMember) {
+			this.version = version;
+			this.members = members;
+			this.localMember = localMember;
+		}
+
+		private boolean isOwner(InstanceId id) {
+			return this.owned.computeIfAbsent(id, this::computeIsOwner);
+		}
+
+		private void retain(List<InstanceId> ids) {
+			this.owned.keySet().retainAll(new HashSet<>(ids));
+		}
+
+		private boolean computeIsOwner(InstanceId id) {
+			UUID owner = null;
+			long ownerWeight = Long.MIN_VALUE;
+			for (UUID member : this.members) {
+				long weight = weight(member, id);
+				if (owner == null || weight > ownerWeight) {
+					owner = member;
+					ownerWeight = weight;
+				}
+			}
+			// As long as no admin server has registered, all of them are responsible.
+			return owner == null || owner.equals(this.localMember);
+		}
+
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.services;
+
+import reactor.core.publisher.Flux;
+
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+/**
+ * Decides which instances are monitored by this server, when the monitoring is shared
+ * between the nodes of a cluster.
+ */
+public interface InstanceOwnership {
+
+	/**
+	 * Checks if this server is responsible for the given instance.
+	 * @param id the id of the instance
+	 * @return {@code true} if this server is responsible for the instance
+	 */
+	boolean isOwner(InstanceId id);
+
+	/**
+	 * Returns all registered instances this server is currently responsible for.
+	 * @return the ids of the owned instances
+	 */
+	Flux<InstanceId> getOwnedInstances();
+
+}
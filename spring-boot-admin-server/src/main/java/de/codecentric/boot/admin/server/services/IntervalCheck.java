@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,11 +20,17 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.Disposable;
@@ -39,11 +45,12 @@ import de.codecentric.boot.admin.server.domain.values.InstanceId;
 /**
  * Calls the checkFn for all instances in the given time, but not before the given
  * retention time has passed. The instances which will be checked have to be registered
- * via `markAsChecked`.
+ * via `markAsChecked`. If an {@link InstanceOwnership} is set, only the owned instances
+ * are checked, including owned instances which have never been marked as checked.
  *
  * @author Johannes Edmeier
  */
-public class IntervalCheck {
+public class IntervalCheck implements MeterBinder {
 
 	private static final Logger log = LoggerFactory.getLogger(IntervalCheck.class);
 
@@ -53,6 +60,8 @@ public class IntervalCheck {
 
 	private final Function<InstanceId, Mono<Void>> checkFn;
 
+	private final AtomicInteger backlog = new AtomicInteger();
+
 	private Duration interval;
 
 	private Duration minRetention;
@@ -63,6 +72,12 @@ public class IntervalCheck {
 	@Nullable
 	private Scheduler scheduler;
 
+	@Nullable
+	private InstanceOwnership ownership;
+
+	@Nullable
+	private Timer cycleTimer;
+
 	public IntervalCheck(String name, Function<InstanceId, Mono<Void>> checkFn) {
 		this(name, checkFn, Duration.ofSeconds(10), Duration.ofSeconds(10));
 	}
@@ -89,11 +104,44 @@ public class IntervalCheck {
 		this.lastChecked.put(instanceId, Instant.now());
 	}
 
+	public void remove(InstanceId instanceId) {
+		this.lastChecked.remove(instanceId);
+	}
+
 	protected Mono<Void> checkAllInstances() {
 		log.debug("check {} for all instances", this.name);
 		Instant expiration = Instant.now().minus(this.minRetention);
-		return Flux.fromIterable(this.lastChecked.entrySet()).filter((e) -> e.getValue().isBefore(expiration))
-				.map(Map.Entry::getKey).flatMap(this.checkFn).then();
+		Flux<InstanceId> due;
+		if (this.ownership != null) {
+			due = this.ownership.getOwnedInstances().filter((instanceId) -> {
+				Instant checked = this.lastChecked.get(instanceId);
+				return checked == null || checked.isBefore(expiration);
+			});
+		}
+		else {
+			due = Flux.fromIterable(this.lastChecked.entrySet()).filter((e) -> e.getValue().isBefore(expiration))
+					.map(Map.Entry::getKey);
+		}
+		Timer cycleTimer = this.cycleTimer;
+		long start = System.nanoTime();
+		return due.doOnNext((instanceId) -> this.backlog.incrementAndGet())
+				.flatMap(
+						(instanceId) -> this.checkFn.apply(instanceId).doFinally((s) -> this.backlog.decrementAndGet()))
+				.doFinally((s) -> {
+					if (cycleTimer != null) {
+						cycleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+					}
+				}).then();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.cycleTimer = Timer.builder("spring.boot.admin.checks.duration")
+				.description("Time taken to check all due instances").tag("check", this.name).register(registry);
+		Gauge.builder("spring.boot.admin.checks.backlog", this.backlog, AtomicInteger::get)
+				.description("Number of due instances not checked yet").tag("check", this.name).register(registry);
+		Gauge.builder("spring.boot.admin.checks.instances", this.lastChecked, Map::size)
+				.description("Number of instances scheduled for checks").tag("check", this.name).register(registry);
 	}
 
 	public void stop() {
@@ -115,4 +163,8 @@ public class IntervalCheck {
 		this.minRetention = minRetention;
 	}
 
+	public void setOwnership(@Nullable InstanceOwnership ownership) {
+		this.ownership = ownership;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,18 +18,22 @@ package de.codecentric.boot.admin.server.services;
 
 import java.time.Duration;
 
+import javax.annotation.Nullable;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import de.codecentric.boot.admin.server.domain.entities.InstanceEvictionListener;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
 import de.codecentric.boot.admin.server.domain.events.InstanceRegisteredEvent;
 import de.codecentric.boot.admin.server.domain.events.InstanceRegistrationUpdatedEvent;
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
 
-public class StatusUpdateTrigger extends AbstractEventHandler<InstanceEvent> {
+public class StatusUpdateTrigger extends AbstractEventHandler<InstanceEvent> implements InstanceEvictionListener {
 
 	private static final Logger log = LoggerFactory.getLogger(StatusUpdateTrigger.class);
 
@@ -37,6 +41,9 @@ public class StatusUpdateTrigger extends AbstractEventHandler<InstanceEvent> {
 
 	private final IntervalCheck intervalCheck;
 
+	@Nullable
+	private InstanceOwnership ownership;
+
 	public StatusUpdateTrigger(StatusUpdater statusUpdater, Publisher<InstanceEvent> publisher) {
 		super(publisher, InstanceEvent.class);
 		this.statusUpdater = statusUpdater;
@@ -48,6 +55,7 @@ public class StatusUpdateTrigger extends AbstractEventHandler<InstanceEvent> {
 		return publisher
 				.filter((event) -> event instanceof InstanceRegisteredEvent
 						|| event instanceof InstanceRegistrationUpdatedEvent)
+				.filter((event) -> this.ownership == null || this.ownership.isOwner(event.getInstance()))
 				.flatMap((event) -> updateStatus(event.getInstance()));
 	}
 
@@ -58,6 +66,17 @@ public class StatusUpdateTrigger extends AbstractEventHandler<InstanceEvent> {
 		}).doFinally((s) -> this.intervalCheck.markAsChecked(instanceId));
 	}
 
+	@Override
+	public void evicted(InstanceId id) {
+		this.intervalCheck.remove(id);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		super.bindTo(registry);
+		this.intervalCheck.bindTo(registry);
+	}
+
 	@Override
 	public void start() {
 		super.start();
@@ -78,4 +97,13 @@ public class StatusUpdateTrigger extends AbstractEventHandler<InstanceEvent> {
 		this.intervalCheck.setMinRetention(statusLifetime);
 	}
 
+	/**
+	 * Restricts the updates to the instances owned by this server.
+	 * @param ownership the ownership of the instances or {@code null} for all instances
+	 */
+	public void setOwnership(@Nullable InstanceOwnership ownership) {
+		this.ownership = ownership;
+		this.intervalCheck.setOwnership(ownership);
+	}
+
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceEvictionListener;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventStore;
+
+/**
+ * Evicts instances which have been deregistered longer than the time to live. The events
+ * of such an instance are removed from the event store first; afterwards all
+ * {@link InstanceEvictionListener}s discard their state for the instance. Instances
+ * registered again in the meantime are kept.
+ */
+public class TombstoneEvictor {
+
+	private static final Logger log = LoggerFactory.getLogger(TombstoneEvictor.class);
+
+	private final InstanceRepository repository;
+
+	private final InstanceEventStore eventStore;
+
+	private final List<InstanceEvictionListener> listeners;
+
+	private Duration interval = Duration.ofMinutes(1L);
+
+	private Duration timeToLive = Duration.ofHours(1L);
+
+	@Nullable
+	private Disposable subscription;
+
+	@Nullable
+	private Scheduler scheduler;
+
+	public TombstoneEvictor(InstanceRepository repository, InstanceEventStore eventStore,
+			List<InstanceEvictionListener> listeners) {
+		this.repository = repository;
+		this.eventStore = eventStore;
+		this.listeners = listeners;
+	}
+
+	public void start() {
+		this.scheduler = Schedulers.newSingle("tombstone-eviction");
+		this.subscription = Flux.interval(this.interval)
+				.doOnSubscribe((s) -> log.debug("Scheduled tombstone eviction every {}", this.interval))
+				.log(log.getName(), Level.FINEST).subscribeOn(this.scheduler).concatMap((i) -> this.evictTombstones())
+				.retryWhen(Retry.indefinitely()
+						.doBeforeRetry((s) -> log.warn("Unexpected error in tombstone eviction", s.failure())))
+				.subscribe();
+	}
+
+	protected Mono<Void> evictTombstones() {
+		Instant deregisteredBefore = Instant.now().minus(this.timeToLive);
+		return this.repository.findAll()
+				.filter((instance) -> !instance.isRegistered()
+						&& instance.getStatusTimestamp().isBefore(deregisteredBefore))
+				.map(Instance::getId).concatMap((id) -> this.evict(id, deregisteredBefore)).then();
+	}
+
+	protected Mono<Void> evict(InstanceId id, Instant deregisteredBefore) {
+		return this.eventStore.evict(id, deregisteredBefore).filter(Boolean::booleanValue).doOnNext((evicted) -> {
+			log.debug("Evicting deregistered instance {}", id);
+			this.listeners.forEach((listener) -> {
+				try {
+					listener.evicted(id);
+				}
+				catch (Exception ex) {
+					log.warn("Unexpected error while evicting instance {} from {}", id, listener, ex);
+				}
+			});
+		}).then();
+	}
+
+	public void stop() {
+		if (this.subscription != null) {
+			this.subscription.dispose();
+			this.subscription = null;
+		}
+		if (this.scheduler != null) {
+			this.scheduler.dispose();
+			this.scheduler = null;
+		}
+	}
+
+	public void setInterval(Duration interval) {
+		this.interval = interval;
+	}
+
+	public void setTimeToLive(Duration timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.services.endpoints;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.values.BuildVersion;
+import de.codecentric.boot.admin.server.domain.values.Endpoint;
+import de.codecentric.boot.admin.server.domain.values.Endpoints;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+
+/**
+ * Caches the endpoints detected by the delegate, so instances of the same deployment
+ * (same management path, build version and registration metadata) reuse them instead of
+ * detecting them again. The endpoint urls are cached relative to the management-url and
+ * are rebased onto the management-url of the requesting instance.
+ * <p>
+ * Only complete detections are cached. A delegate reports an incomplete detection (e.g. a
+ * probe that failed because the instance was slow or down) using {@link #incomplete()},
+ * so a partial result isn't handed to the other instances of the deployment.
+ */
+public class CachingEndpointDetectionStrategy implements EndpointDetectionStrategy {
+
+	private static final Logger log = LoggerFactory.getLogger(CachingEndpointDetectionStrategy.class);
+
+	private static final String INCOMPLETE_KEY = CachingEndpointDetectionStrategy.class.getName() + ".incomplete";
+
+	private final EndpointDetectionStrategy delegate;
+
+	private final Duration timeToLive;
+
+	private final Clock clock;
+
+	private final Map<CacheKey, CacheEntry> cache;
+
+	public CachingEndpointDetectionStrategy(EndpointDetectionStrategy delegate, Duration timeToLive, int maxSize) {
+		this(delegate, timeToLive, maxSize, Clock.systemUTC());
+	}
+
+	public CachingEndpointDetectionStrategy(EndpointDetectionStrategy delegate, Duration timeToLive, int maxSize,
+			Clock clock) {
+		Assert.notNull(delegate, "'delegate' must not be null.");
+		Assert.isTrue(maxSize > 0, "'maxSize' must be greater than 0.");
+		this.delegate = delegate;
+		this.timeToLive = timeToLive;
+		this.clock = clock;
+		this.cache = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	@Override
+	public Mono<Endpoints> detectEndpoints(Instance instance) {
+		CacheKey key = CacheKey.of(instance);
+		if (key == null) {
+			return this.delegate.detectEndpoints(instance);
+		}
+
+		String managementUrl = instance.getRegistration().getManagementUrl();
+		CacheEntry cached = this.get(key);
+		if (cached != null) {
+			log.debug("Using cached endpoints for instance {}", instance.getId());
+			return Mono.just(cached.rebase(managementUrl));
+		}
+
+		AtomicBoolean incomplete = new AtomicBoolean(false);
+		return this.delegate.detectEndpoints(instance).doOnNext((endpoints) -> {
+			if (incomplete.get()) {
+				log.debug("Not caching incomplete endpoints for instance {}", instance.getId());
+				return;
+			}
+			CacheEntry entry = CacheEntry.of(endpoints, managementUrl, this.clock.instant().plus(this.timeToLive));
+			if (entry != null) {
+				this.put(key, entry);
+			}
+		}).contextWrite(Context.of(INCOMPLETE_KEY, incomplete));
+	}
+
+	/**
+	 * Marks the current detection as incomplete, so its result isn't cached, and
+	 * completes empty. Has no effect when the detection isn't cached.
+	 * @param <T> the type of the returned mono
+	 * @return an empty mono
+	 */
+	public static <T> Mono<T> incomplete() {
+		return Mono.deferContextual((context) -> {
+			context.<AtomicBoolean>getOrEmpty(INCOMPLETE_KEY).ifPresent((incomplete) -> incomplete.set(true));
+			return Mono.empty();
+		});
+	}
+
+	@Override
+	public void invalidate(Instance instance) {
+		CacheKey key = CacheKey.of(instance);
+		if (key != null) {
+			synchronized (this.cache) {
+				this.cache.remove(key);
+			}
+		}
+		this.delegate.invalidate(instance);
+	}
+
+	@Nullable
+	private CacheEntry get(CacheKey key) {
+		synchronized (this.cache) {
+			CacheEntry entry = this.cache.get(key);
+			if (entry != null && entry.getExpiresAt().isBefore(this.clock.instant())) {
+				this.cache.remove(key);
+				return null;
+			}
+			return entry;
+		}
+	}
+
+	private void put(CacheKey key, CacheEntry entry) {
+		synchronized (this.cache) {
+			this.cache.put(key, entry);
+		}
+	}
+
+	@Data
+	private static final class CacheKey {
+
+		private final String name;
+
+		private final String managementBase;
+
+		@Nullable
+		private final BuildVersion buildVersion;
+
+		private final int metadataHash;
+
+		@Nullable
+		private static CacheKey of(Instance instance) {
+			Registration registration = instance.getRegistration();
+			if (registration == null || registration.getManagementUrl() == null) {
+				return null;
+			}
+			UriComponents managementUrl = UriComponentsBuilder.fromUriString(registration.getManagementUrl()).build();
+			return new CacheKey(registration.getName(), managementUrl.getScheme() + ":" + managementUrl.getPath(),
+					instance.getBuildVersion(), registration.getMetadata().hashCode());
+		}
+
+	}
+
+	@Data
+	private static final class CacheEntry {
+
+		private final Map<String, String> relativeUrls;
+
+		private final Instant expiresAt;
+
+		@Nullable
+		private static CacheEntry of(Endpoints endpoints, String managementUrl, Instant expiresAt) {
+			String base = stripTrailingSlash(managementUrl);
+			Map<String, String> relativeUrls = new LinkedHashMap<>();
+			for (Endpoint endpoint : endpoints) {
+				if (!endpoint.getUrl().startsWith(base)) {
+					return null;
+				}
+				relativeUrls.put(endpoint.getId(), endpoint.getUrl().substring(base.length()));
+			}
+			return new CacheEntry(relativeUrls, expiresAt);
+		}
+
+		private Endpoints rebase(String managementUrl) {
+			String base = stripTrailingSlash(managementUrl);
+			List<Endpoint> endpoints = this.relativeUrls.entrySet().stream()
+					.map((e) -> Endpoint.of(e.getKey(), base + e.getValue())).collect(Collectors.toList());
+			return Endpoints.of(endpoints);
+		}
+
+		private static String stripTrailingSlash(String url) {
+			return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+		}
+
+	}
+
+}
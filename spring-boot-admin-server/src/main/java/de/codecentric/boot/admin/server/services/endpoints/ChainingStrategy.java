@@ -41,4 +41,11 @@ public class ChainingStrategy implements EndpointDetectionStrategy {
 		return result.switchIfEmpty(Mono.just(Endpoints.empty()));
 	}
 
+	@Override
+	public void invalidate(Instance instance) {
+		for (EndpointDetectionStrategy delegate : delegates) {
+			delegate.invalidate(instance);
+		}
+	}
+
 }
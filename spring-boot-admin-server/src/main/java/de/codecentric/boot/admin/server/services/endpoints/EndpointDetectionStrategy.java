@@ -25,4 +25,11 @@ public interface EndpointDetectionStrategy {
 
 	Mono<Endpoints> detectEndpoints(Instance instance);
 
+	/**
+	 * Discards any state kept from previous detections for the given instance.
+	 * @param instance the instance to detect the endpoints for
+	 */
+	default void invalidate(Instance instance) {
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -75,7 +75,7 @@ public class ProbeEndpointsStrategy implements EndpointDetectionStrategy {
 					log.warn("Endpoint probe for instance {} on endpoint '{}' failed: {}", instance.getId(), uri,
 							e.getMessage());
 					log.debug("Endpoint probe for instance {} on endpoint '{}' failed.", instance.getId(), uri, e);
-					return Mono.empty();
+					return CachingEndpointDetectionStrategy.incomplete();
 				});
 	}
 
@@ -87,6 +87,11 @@ public class ProbeEndpointsStrategy implements EndpointDetectionStrategy {
 				endpoint = Mono.just(DetectedEndpoint.of(endpointDefinition, uri.toString()));
 				log.debug("Endpoint probe for instance {} on endpoint '{}' successful.", instanceId, uri);
 			}
+			else if (response.rawStatusCode() >= 500) {
+				log.debug("Endpoint probe for instance {} on endpoint '{}' failed with status {}.", instanceId, uri,
+						response.rawStatusCode());
+				endpoint = CachingEndpointDetectionStrategy.incomplete();
+			}
 			else {
 				log.debug("Endpoint probe for instance {} on endpoint '{}' failed with status {}.", instanceId, uri,
 						response.rawStatusCode());
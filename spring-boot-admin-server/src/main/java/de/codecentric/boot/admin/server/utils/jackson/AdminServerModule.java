@@ -16,8 +16,15 @@
 
 package de.codecentric.boot.admin.server.utils.jackson;
 
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 
+import de.codecentric.boot.admin.server.domain.entities.Instance;
 import de.codecentric.boot.admin.server.domain.events.InstanceDeregisteredEvent;
 import de.codecentric.boot.admin.server.domain.events.InstanceEndpointsDetectedEvent;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
@@ -47,13 +54,29 @@ import de.codecentric.boot.admin.server.domain.values.Tags;
  */
 public class AdminServerModule extends SimpleModule {
 
+	@Nullable
+	private final InstanceJsonCache instanceJsonCache;
+
 	/**
 	 * Construct the module with a pattern for registration metadata keys. The values of
 	 * the matched metadata keys will be sanitized before serializing to json.
 	 * @param metadataKeyPatterns pattern for metadata keys which should be sanitized
 	 */
 	public AdminServerModule(String[] metadataKeyPatterns) {
+		this(metadataKeyPatterns, null);
+	}
+
+	/**
+	 * Construct the module with a pattern for registration metadata keys and a cache for
+	 * the serialized instances. Unchanged instances are written from the cache instead of
+	 * being serialized again.
+	 * @param metadataKeyPatterns pattern for metadata keys which should be sanitized
+	 * @param instanceJsonCache cache for serialized instances, {@code null} disables
+	 * caching
+	 */
+	public AdminServerModule(String[] metadataKeyPatterns, @Nullable InstanceJsonCache instanceJsonCache) {
 		super(AdminServerModule.class.getName());
+		this.instanceJsonCache = instanceJsonCache;
 
 		addDeserializer(Registration.class, new RegistrationDeserializer());
 		setSerializerModifier(new RegistrationBeanSerializerModifier(new SanitizingMapSerializer(metadataKeyPatterns)));
@@ -75,4 +98,23 @@ public class AdminServerModule extends SimpleModule {
 		setMixInAnnotation(Tags.class, TagsMixin.class);
 	}
 
+	@Override
+	public void setupModule(SetupContext context) {
+		super.setupModule(context);
+		InstanceJsonCache cache = this.instanceJsonCache;
+		if (cache != null) {
+			context.addBeanSerializerModifier(new BeanSerializerModifier() {
+				@Override
+				@SuppressWarnings("unchecked")
+				public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+						JsonSerializer<?> serializer) {
+					if (Instance.class.equals(beanDesc.getBeanClass())) {
+						return new CachingInstanceSerializer((JsonSerializer<Object>) serializer, cache);
+					}
+					return serializer;
+				}
+			});
+		}
+	}
+
 }
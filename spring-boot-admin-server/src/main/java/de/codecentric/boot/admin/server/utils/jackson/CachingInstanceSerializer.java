@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.utils.jackson;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+
+/**
+ * Writes the json of an {@link Instance} from the {@link InstanceJsonCache} as raw value
+ * and delegates to the bean serializer on a cache miss. The cached json is scoped to the
+ * serialization config and the generator features, so mappers and writers with different
+ * settings don't share it. Serialization with an active json view, a pretty printer or
+ * custom character escapes bypasses the cache.
+ */
+public class CachingInstanceSerializer extends StdSerializer<Instance>
+		implements ContextualSerializer, ResolvableSerializer {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final JsonFactory DEFAULT_FACTORY = new JsonFactory();
+
+	private final JsonSerializer<Object> delegate;
+
+	private final InstanceJsonCache cache;
+
+	public CachingInstanceSerializer(JsonSerializer<Object> delegate, InstanceJsonCache cache) {
+		super(Instance.class);
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public void serialize(Instance instance, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		if (provider.getActiveView() != null || gen.getPrettyPrinter() != null || gen.getCharacterEscapes() != null) {
+			this.delegate.serialize(instance, gen, provider);
+			return;
+		}
+
+		JsonFactory factory = (gen.getCodec() != null) ? gen.getCodec().getFactory() : DEFAULT_FACTORY;
+		Scope scope = new Scope(provider.getConfig(), gen.getFeatureMask(), gen.getHighestEscapedChar());
+		String json;
+		try {
+			json = this.cache.getJson(instance, scope, (i) -> this.toJson(i, factory, gen, provider));
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		gen.writeRawValue(json);
+	}
+
+	private String toJson(Instance instance, JsonFactory factory, JsonGenerator gen, SerializerProvider provider) {
+		StringWriter writer = new StringWriter(512);
+		try (JsonGenerator generator = factory.createGenerator(writer)) {
+			generator.overrideStdFeatures(gen.getFeatureMask(), -1);
+			generator.setHighestNonEscapedChar(gen.getHighestEscapedChar());
+			this.delegate.serialize(instance, generator, provider);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return writer.toString();
+	}
+
+	@Override
+	public void serializeWithType(Instance instance, JsonGenerator gen, SerializerProvider provider,
+			TypeSerializer typeSer) throws IOException {
+		this.delegate.serializeWithType(instance, gen, provider, typeSer);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+			throws JsonMappingException {
+		if (this.delegate instanceof ContextualSerializer) {
+			JsonSerializer<?> contextual = ((ContextualSerializer) this.delegate).createContextual(provider, property);
+			if (contextual != this.delegate) {
+				return new CachingInstanceSerializer((JsonSerializer<Object>) contextual, this.cache);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public void resolve(SerializerProvider provider) throws JsonMappingException {
+		if (this.delegate instanceof ResolvableSerializer) {
+			((ResolvableSerializer) this.delegate).resolve(provider);
+		}
+	}
+
+	/**
+	 * The settings the json was serialized with. The config is compared by identity, as
+	 * each mapper and each reconfigured writer has its own instance.
+	 */
+	static final class Scope {
+
+		private final SerializationConfig config;
+
+		private final int features;
+
+		private final int highestEscapedChar;
+
+		Scope(SerializationConfig config, int features, int highestEscapedChar) {
+			this.config = config;
+			this.features = features;
+			this.highestEscapedChar = highestEscapedChar;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Scope)) {
+				return false;
+			}
+			Scope other = (Scope) o;
+			return this.config == other.config && this.features == other.features
+					&& this.highestEscapedChar == other.highestEscapedChar;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * System.identityHashCode(this.config) + this.features) + this.highestEscapedChar;
+		}
+
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.utils.jackson;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceEvictionListener;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+
+/**
+ * Keeps the serialized json of each instance keyed by {@link InstanceId} and version, so
+ * that unchanged instances are not serialized again for every request or server-sent
+ * event. An entry is replaced as soon as a newer version of the instance is serialized;
+ * deregistered instances are not cached at all.
+ * <p>
+ * Each entry is bound to a scope, which identifies the serialization settings (e.g. the
+ * mapper configuration and generator features) the json was created with. The json is
+ * only reused for an equal scope, otherwise the instance is serialized again and the
+ * entry replaced.
+ */
+public class InstanceJsonCache implements InstanceEvictionListener {
+
+	private final ConcurrentMap<InstanceId, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the cached json for the given instance version and scope or serializes it
+	 * using the given function.
+	 * @param instance the instance to serialize
+	 * @param scope the serialization settings the json is created with
+	 * @param serializer the function to serialize the instance on a cache miss
+	 * @return the serialized json of the instance
+	 */
+	public String getJson(Instance instance, Object scope, Function<Instance, String> serializer) {
+		if (!instance.isRegistered()) {
+			this.entries.remove(instance.getId());
+			return serializer.apply(instance);
+		}
+
+		Entry entry = this.entries.get(instance.getId());
+		if (entry != null && entry.version == instance.getVersion() && entry.scope.equals(scope)) {
+			return entry.json;
+		}
+
+		String json = serializer.apply(instance);
+		this.entries.merge(instance.getId(), new Entry(instance.getVersion(), scope, json),
+				(existing, created) -> (existing.version > created.version) ? existing : created);
+		return json;
+	}
+
+	public void evict(InstanceId id) {
+		this.entries.remove(id);
+	}
+
+	@Override
+	public void evicted(InstanceId id) {
+		this.evict(id);
+	}
+
+	public void clear() {
+		this.entries.clear();
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	private static final class Entry {
+
+		private final long version;
+
+		private final Object scope;
+
+		private final String json;
+
+		private Entry(long version, Object scope, String json) {
+			this.version = version;
+			this.scope = scope;
+			this.json = json;
+		}
+
+	}
+
+}
@@ -17,9 +17,14 @@
 package de.codecentric.boot.admin.server.utils.jackson;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
@@ -27,20 +32,70 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
+/**
+ * Serializes metadata maps and masks the values of keys matching any of the given
+ * patterns.
+ * <p>
+ * Patterns of the form {@code .*suffix$} or {@code .*infix.*} with a plain literal are
+ * matched by string comparison. All other patterns are combined into a single regular
+ * expression. Results are cached per key, as the set of distinct metadata keys is usually
+ * small.
+ */
 public class SanitizingMapSerializer extends StdSerializer<Map<String, String>> {
 
 	private static final long serialVersionUID = 1L;
 
+	private static final int MAX_CACHED_KEYS = 10_000;
+
+	private static final Pattern SUFFIX_PATTERN = Pattern.compile("^\\.\\*([a-zA-Z0-9_-]+)\\$$");
+
+	private static final Pattern INFIX_PATTERN = Pattern.compile("^\\.\\*([a-zA-Z0-9_-]+)\\.\\*$");
+
+	private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\[1-9]");
+
+	private final String[] suffixes;
+
+	private final String[] infixes;
+
 	private final Pattern[] keysToSanitize;
 
+	private final ConcurrentMap<String, Boolean> cache = new ConcurrentHashMap<>();
+
 	@SuppressWarnings("unchecked")
 	public SanitizingMapSerializer(String[] patterns) {
 		super((Class<Map<String, String>>) (Class<?>) Map.class);
-		this.keysToSanitize = createPatterns(patterns);
+		List<String> suffixes = new ArrayList<>();
+		List<String> infixes = new ArrayList<>();
+		List<String> others = new ArrayList<>();
+		for (String pattern : patterns) {
+			Matcher suffix = SUFFIX_PATTERN.matcher(pattern);
+			Matcher infix = INFIX_PATTERN.matcher(pattern);
+			if (suffix.matches()) {
+				suffixes.add(suffix.group(1));
+			}
+			else if (infix.matches()) {
+				infixes.add(infix.group(1));
+			}
+			else {
+				others.add(pattern);
+			}
+		}
+		this.suffixes = suffixes.toArray(new String[0]);
+		this.infixes = infixes.toArray(new String[0]);
+		this.keysToSanitize = createPatterns(others);
 	}
 
-	private static Pattern[] createPatterns(String... keys) {
-		return Arrays.stream(keys).map((key) -> Pattern.compile(key, Pattern.CASE_INSENSITIVE)).toArray(Pattern[]::new);
+	private static Pattern[] createPatterns(List<String> patterns) {
+		if (patterns.isEmpty()) {
+			return new Pattern[0];
+		}
+		if (patterns.stream().noneMatch((pattern) -> BACK_REFERENCE.matcher(pattern).find())) {
+			String combined = patterns.stream().map((pattern) -> "(?:" + pattern + ")")
+					.collect(Collectors.joining("|"));
+			return new Pattern[] { Pattern.compile(combined, Pattern.CASE_INSENSITIVE) };
+		}
+		return patterns.stream().map((pattern) -> Pattern.compile(pattern, Pattern.CASE_INSENSITIVE))
+				.toArray(Pattern[]::new);
 	}
 
 	@Override
@@ -58,10 +113,40 @@ public class SanitizingMapSerializer extends StdSerializer<Map<String, String>>
 		if (value == null) {
 			return null;
 		}
+		return isSanitized(key) ? "******" : value;
+	}
 
-		boolean matchesAnyPattern = Arrays.stream(this.keysToSanitize)
-				.anyMatch((pattern) -> pattern.matcher(key).matches());
-		return matchesAnyPattern ? "******" : value;
+	private boolean isSanitized(String key) {
+		Boolean cached = this.cache.get(key);
+		if (cached != null) {
+			return cached;
+		}
+		boolean sanitized = matches(key);
+		if (this.cache.size() < MAX_CACHED_KEYS) {
+			this.cache.put(key, sanitized);
+		}
+		return sanitized;
+	}
+
+	private boolean matches(String key) {
+		for (String suffix : this.suffixes) {
+			if (key.regionMatches(true, key.length() - suffix.length(), suffix, 0, suffix.length())) {
+				return true;
+			}
+		}
+		for (String infix : this.infixes) {
+			for (int i = 0; i <= key.length() - infix.length(); i++) {
+				if (key.regionMatches(true, i, infix, 0, infix.length())) {
+					return true;
+				}
+			}
+		}
+		for (Pattern pattern : this.keysToSanitize) {
+			if (pattern.matcher(key).matches()) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 }
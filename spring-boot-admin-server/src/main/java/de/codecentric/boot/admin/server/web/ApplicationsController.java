@@ -26,6 +26,7 @@ import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -49,8 +50,11 @@ public class ApplicationsController {
 
 	private final ApplicationRegistry registry;
 
-	public ApplicationsController(ApplicationRegistry registry) {
+	private final ServerSentEventHub serverSentEventHub;
+
+	public ApplicationsController(ApplicationRegistry registry, ServerSentEventHub serverSentEventHub) {
 		this.registry = registry;
+		this.serverSentEventHub = serverSentEventHub;
 	}
 
 	@GetMapping(path = "/applications", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -64,9 +68,11 @@ public class ApplicationsController {
 	}
 
 	@GetMapping(path = "/applications", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-	public Flux<ServerSentEvent<Application>> applicationsStream() {
-		return registry.getApplicationStream().map((application) -> ServerSentEvent.builder(application).build())
-				.mergeWith(ping());
+	public Flux<ServerSentEvent<String>> applicationsStream(
+			@RequestParam(name = "delta", defaultValue = "false") boolean delta) {
+		Flux<ServerSentEvent<String>> stream = delta ? serverSentEventHub.getApplicationDeltaStream()
+				: serverSentEventHub.getApplicationStream();
+		return stream.mergeWith(ping());
 	}
 
 	@DeleteMapping(path = "/applications/{name}")
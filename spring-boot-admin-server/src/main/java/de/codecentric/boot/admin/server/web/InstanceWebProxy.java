@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,13 +41,16 @@ import reactor.core.publisher.Mono;
 
 import de.codecentric.boot.admin.server.domain.entities.Instance;
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions;
 import de.codecentric.boot.admin.server.web.client.InstanceWebClient;
+import de.codecentric.boot.admin.server.web.client.exception.CircuitBreakerOpenException;
 import de.codecentric.boot.admin.server.web.client.exception.ResolveEndpointException;
 
 /**
  * Forwards a request to a single instances endpoint and will respond with: - 502 (Bad
  * Gateway) when any error occurs during the request - 503 (Service unavailable) when the
- * instance is not found - 504 (Gateway timeout) when the request exceeds the timeout
+ * instance is not found or its circuit breaker is open - 504 (Gateway timeout) when the
+ * request exceeds the timeout
  *
  * @author Johannes Edmeier
  */
@@ -93,7 +96,8 @@ public class InstanceWebProxy {
 		log.trace("Proxy-Request for instance {} with URL '{}'", instance.getId(), forwardRequest.getUri());
 		WebClient.RequestBodySpec bodySpec = this.instanceWebClient.instance(instance)
 				.method(forwardRequest.getMethod()).uri(forwardRequest.getUri())
-				.headers((h) -> h.addAll(forwardRequest.getHeaders()));
+				.headers((h) -> h.addAll(forwardRequest.getHeaders()))
+				.attribute(InstanceExchangeFilterFunctions.ATTRIBUTE_PROXIED, true);
 
 		WebClient.RequestHeadersSpec<?> headersSpec = bodySpec;
 		if (requiresBody(forwardRequest.getMethod())) {
@@ -104,6 +108,11 @@ public class InstanceWebProxy {
 			log.trace("No Endpoint found for Proxy-Request for instance {} with URL '{}'", instance.getId(),
 					forwardRequest.getUri());
 			return responseHandler.apply(ClientResponse.create(HttpStatus.NOT_FOUND, this.strategies).build());
+		}).onErrorResume(CircuitBreakerOpenException.class, (ex) -> {
+			log.trace("Circuit open for Proxy-Request for instance {} with URL '{}'", instance.getId(),
+					forwardRequest.getUri());
+			return responseHandler
+					.apply(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE, this.strategies).build());
 		}).onErrorResume(WebClientRequestException.class, (ex) -> {
 			Throwable cause = ex.getCause();
 			if (cause instanceof ReadTimeoutException || cause instanceof TimeoutException) {
@@ -18,11 +18,18 @@ package de.codecentric.boot.admin.server.web;
 
 import java.net.URI;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
@@ -31,6 +38,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -41,6 +49,7 @@ import de.codecentric.boot.admin.server.domain.entities.Instance;
 import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
 import de.codecentric.boot.admin.server.domain.values.Registration;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventQuery;
 import de.codecentric.boot.admin.server.eventstore.InstanceEventStore;
 import de.codecentric.boot.admin.server.services.InstanceRegistry;
 
@@ -51,6 +60,11 @@ import de.codecentric.boot.admin.server.services.InstanceRegistry;
 @ResponseBody
 public class InstancesController {
 
+	/**
+	 * Response header containing the cursor for the next page.
+	 */
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(InstancesController.class);
 
 	private static final ServerSentEvent<?> PING = ServerSentEvent.builder().comment("ping").build();
@@ -62,9 +76,13 @@ public class InstancesController {
 
 	private final InstanceEventStore eventStore;
 
-	public InstancesController(InstanceRegistry registry, InstanceEventStore eventStore) {
+	private final ServerSentEventHub serverSentEventHub;
+
+	public InstancesController(InstanceRegistry registry, InstanceEventStore eventStore,
+			ServerSentEventHub serverSentEventHub) {
 		this.registry = registry;
 		this.eventStore = eventStore;
+		this.serverSentEventHub = serverSentEventHub;
 	}
 
 	/**
@@ -85,23 +103,38 @@ public class InstancesController {
 	}
 
 	/**
-	 * List all registered instances with name
-	 * @param name the name to search for
-	 * @return application list
-	 */
-	@GetMapping(path = "/instances", produces = MediaType.APPLICATION_JSON_VALUE, params = "name")
-	public Flux<Instance> instances(@RequestParam("name") String name) {
-		return registry.getInstances(name).filter(Instance::isRegistered);
-	}
-
-	/**
-	 * List all registered instances with name
+	 * List all registered instances, optionally filtered and paginated. Pages are ordered
+	 * by instance id; if there are more instances the cursor for the next page is
+	 * returned in the {@value #NEXT_CURSOR_HEADER} header.
+	 * @param name only list instances of the application with this name
+	 * @param status only list instances with one of these statuses
+	 * @param tags only list instances having all these tags, either as {@code key} or as
+	 * {@code key:value}
+	 * @param cursor the cursor returned for the previous page
+	 * @param limit the maximum number of instances to return; unlimited if zero
 	 * @return application list
 	 */
 	@GetMapping(path = "/instances", produces = MediaType.APPLICATION_JSON_VALUE)
-	public Flux<Instance> instances() {
-		LOGGER.debug("Deliver all registered instances");
-		return registry.getInstances().filter(Instance::isRegistered);
+	public Mono<ResponseEntity<List<Instance>>> instances(
+			@RequestParam(name = "name", required = false) @Nullable String name,
+			@RequestParam(name = "status", required = false) @Nullable List<String> status,
+			@RequestParam(name = "tag", required = false) @Nullable List<String> tags,
+			@RequestParam(name = "cursor", required = false) @Nullable String cursor,
+			@RequestParam(name = "limit", defaultValue = "0") int limit) {
+		LOGGER.debug("Deliver registered instances");
+		Flux<Instance> instances = ((name != null) ? registry.getInstances(name) : registry.getInstances())
+				.filter(Instance::isRegistered).filter((instance) -> hasStatus(instance, status))
+				.filter((instance) -> hasTags(instance, tags));
+		if (cursor == null && limit <= 0) {
+			return instances.collectList().map(ResponseEntity::ok);
+		}
+
+		if (cursor != null) {
+			InstanceId after = InstanceId.of(cursor);
+			instances = instances.filter((instance) -> instance.getId().compareTo(after) > 0);
+		}
+		return instances.sort(Comparator.comparing(Instance::getId)).take((limit > 0) ? limit : Long.MAX_VALUE)
+				.collectList().map((page) -> page(page, limit, (last) -> last.getId().getValue()));
 	}
 
 	/**
@@ -128,21 +161,87 @@ public class InstancesController {
 				.defaultIfEmpty(ResponseEntity.notFound().build());
 	}
 
+	/**
+	 * List the stored events, optionally filtered and paginated. If there are more events
+	 * the cursor for the next page is returned in the {@value #NEXT_CURSOR_HEADER}
+	 * header.
+	 * @param name only list events of instances of the application with this name
+	 * @param types only list events of these types
+	 * @param from only list events at or after this time
+	 * @param to only list events before this time
+	 * @param cursor the cursor returned for the previous page
+	 * @param limit the maximum number of events to return; unlimited if zero
+	 * @return event list
+	 */
 	@GetMapping(path = "/instances/events", produces = MediaType.APPLICATION_JSON_VALUE)
-	public Flux<InstanceEvent> events() {
-		return eventStore.findAll();
+	public Mono<ResponseEntity<List<InstanceEvent>>> events(
+			@RequestParam(name = "name", required = false) @Nullable String name,
+			@RequestParam(name = "type", required = false) @Nullable List<String> types,
+			@RequestParam(name = "from",
+					required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable Instant from,
+			@RequestParam(name = "to",
+					required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable Instant to,
+			@RequestParam(name = "cursor", required = false) @Nullable String cursor,
+			@RequestParam(name = "limit", defaultValue = "0") int limit) {
+		InstanceEventQuery.Builder query = InstanceEventQuery.builder().from(from).to(to).limit(limit);
+		if (types != null) {
+			query.types(types);
+		}
+		if (cursor != null) {
+			try {
+				query.after(InstanceEventQuery.Cursor.parse(cursor));
+			}
+			catch (IllegalArgumentException ex) {
+				return Mono.just(ResponseEntity.badRequest().build());
+			}
+		}
+
+		Mono<List<InstanceId>> instanceIds = (name != null)
+				? registry.getInstances(name).map(Instance::getId).collectList() : Mono.just(Collections.emptyList());
+		return instanceIds.flatMap((ids) -> {
+			if (name != null && ids.isEmpty()) {
+				return Mono.just(ResponseEntity.ok(Collections.<InstanceEvent>emptyList()));
+			}
+			return eventStore.query(query.instances(ids).build()).collectList()
+					.map((page) -> page(page, limit, (last) -> InstanceEventQuery.Cursor.of(last).encode()));
+		});
 	}
 
 	@GetMapping(path = "/instances/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-	public Flux<ServerSentEvent<InstanceEvent>> eventStream() {
-		return Flux.from(eventStore).map((event) -> ServerSentEvent.builder(event).build()).mergeWith(ping());
+	public Flux<ServerSentEvent<String>> eventStream(
+			@RequestHeader(name = "Last-Event-ID", required = false) @Nullable String lastEventId) {
+		return serverSentEventHub.getEventStream(lastEventId).mergeWith(ping());
 	}
 
 	@GetMapping(path = "/instances/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-	public Flux<ServerSentEvent<Instance>> instanceStream(@PathVariable String id) {
-		return Flux.from(eventStore).filter((event) -> event.getInstance().equals(InstanceId.of(id)))
-				.flatMap((event) -> registry.getInstance(event.getInstance()))
-				.map((event) -> ServerSentEvent.builder(event).build()).mergeWith(ping());
+	public Flux<ServerSentEvent<String>> instanceStream(@PathVariable String id) {
+		return serverSentEventHub.getInstanceStream(InstanceId.of(id)).mergeWith(ping());
+	}
+
+	private static <T> ResponseEntity<List<T>> page(List<T> page, int limit, Function<T, String> cursor) {
+		if (limit > 0 && page.size() >= limit) {
+			return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, cursor.apply(page.get(page.size() - 1))).body(page);
+		}
+		return ResponseEntity.ok(page);
+	}
+
+	private static boolean hasStatus(Instance instance, @Nullable List<String> status) {
+		return status == null
+				|| status.stream().anyMatch((s) -> s.equalsIgnoreCase(instance.getStatusInfo().getStatus()));
+	}
+
+	private static boolean hasTags(Instance instance, @Nullable List<String> tags) {
+		if (tags == null) {
+			return true;
+		}
+		Map<String, String> values = instance.getTags().getValues();
+		return tags.stream().allMatch((tag) -> {
+			int separator = tag.indexOf(':');
+			if (separator < 0) {
+				return values.containsKey(tag);
+			}
+			return tag.substring(separator + 1).equals(values.get(tag.substring(0, separator)));
+		});
 	}
 
 	@SuppressWarnings("unchecked")
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.web;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Computes the RFC 6902 json patch to turn one json document into another. Objects are
+ * compared field by field and arrays of equal length element by element; everything else
+ * that differs is replaced as a whole.
+ */
+public final class JsonPatch {
+
+	private JsonPatch() {
+	}
+
+	/**
+	 * Returns the operations transforming {@code source} into {@code target}.
+	 * @param source the previous document
+	 * @param target the new document
+	 * @return the patch operations, empty if both documents are equal
+	 */
+	public static ArrayNode diff(JsonNode source, JsonNode target) {
+		ArrayNode operations = JsonNodeFactory.instance.arrayNode();
+		diff("", source, target, operations);
+		return operations;
+	}
+
+	private static void diff(String path, JsonNode source, JsonNode target, ArrayNode operations) {
+		if (source.equals(target)) {
+			return;
+		}
+		if (source.isObject() && target.isObject()) {
+			diffObjects(path, source, target, operations);
+		}
+		else if (source.isArray() && target.isArray() && source.size() == target.size()) {
+			for (int i = 0; i < source.size(); i++) {
+				diff(path + "/" + i, source.get(i), target.get(i), operations);
+			}
+		}
+		else {
+			operations.add(operation("replace", path).set("value", target));
+		}
+	}
+
+	private static void diffObjects(String path, JsonNode source, JsonNode target, ArrayNode operations) {
+		for (Iterator<String> names = source.fieldNames(); names.hasNext();) {
+			String name = names.next();
+			if (!target.has(name)) {
+				operations.add(operation("remove", path + "/" + escape(name)));
+			}
+		}
+		for (Iterator<Map.Entry<String, JsonNode>> fields = target.fields(); fields.hasNext();) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			String fieldPath = path + "/" + escape(field.getKey());
+			JsonNode previous = source.get(field.getKey());
+			if (previous == null) {
+				operations.add(operation("add", fieldPath).set("value", field.getValue()));
+			}
+			else {
+				diff(fieldPath, previous, field.getValue(), operations);
+			}
+		}
+	}
+
+	private static ObjectNode operation(String op, String path) {
+		return JsonNodeFactory.instance.objectNode().put("op", op).put("path", path);
+	}
+
+	private static String escape(String name) {
+		return name.replace("~", "~0").replace("/", "~1");
+	}
+
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.web;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import de.codecentric.boot.admin.server.domain.entities.Application;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher;
+import de.codecentric.boot.admin.server.eventstore.SequencedInstanceEvent;
+import de.codecentric.boot.admin.server.services.ApplicationRegistry;
+import de.codecentric.boot.admin.server.services.InstanceRegistry;
+
+/**
+ * Shares the server-sent event streams between all subscribers. Each derived item (the
+ * event, the changed instance and its application) is computed and encoded to json once
+ * per event and multicast to all subscribers of the stream. The shared pipelines are only
+ * active while they have subscribers.
+ * <p>
+ * Every subscriber gets its own buffer of {@code bufferSize} frames, so a slow consumer
+ * does not hold back the others. When the buffer overflows the stream of that subscriber
+ * is completed; the client reconnects and reloads its state.
+ * <p>
+ * The updates of an application can be coalesced within {@code applicationWindow}, so
+ * only the latest state of each application is emitted per window. Subscribers of the
+ * delta stream receive the full application once and afterwards only json patches (event
+ * {@code patch}) with the changed fields.
+ */
+public class ServerSentEventHub implements MeterBinder {
+
+	public static final int DEFAULT_BUFFER_SIZE = 256;
+
+	private static final Logger log = LoggerFactory.getLogger(ServerSentEventHub.class);
+
+	private static final ServerSentEvent<String> UNCHANGED = ServerSentEvent.<String>builder().build();
+
+	private static final ServerSentEvent<String> RESET = ServerSentEvent.builder("{}").event("reset").build();
+
+	private final ObjectMapper objectMapper;
+
+	private final int bufferSize;
+
+	private final InstanceEventPublisher publisher;
+
+	private final Flux<Tuple2<Long, ServerSentEvent<String>>> eventFrames;
+
+	private final Flux<Tuple2<InstanceId, ServerSentEvent<String>>> instanceFrames;
+
+	private final Map<InstanceId, Integer> instanceSubscribers = new ConcurrentHashMap<>();
+
+	private final Flux<ApplicationFrame> applicationFrames;
+
+	private final Map<String, JsonNode> lastApplicationTrees = new ConcurrentHashMap<>();
+
+	private final AtomicInteger deltaSubscribers = new AtomicInteger();
+
+	private final Map<String, AtomicInteger> subscribers = new LinkedHashMap<>();
+
+	public ServerSentEventHub(InstanceEventPublisher events, InstanceRegistry instanceRegistry,
+			ApplicationRegistry applicationRegistry, ObjectMapper objectMapper) {
+		this(events, instanceRegistry, applicationRegistry, objectMapper, DEFAULT_BUFFER_SIZE);
+	}
+
+	public ServerSentEventHub(InstanceEventPublisher events, InstanceRegistry instanceRegistry,
+			ApplicationRegistry applicationRegistry, ObjectMapper objectMapper, int bufferSize) {
+		this(events, instanceRegistry, applicationRegistry, objectMapper, bufferSize, Duration.ZERO);
+	}
+
+	public ServerSentEventHub(InstanceEventPublisher events, InstanceRegistry instanceRegistry,
+			ApplicationRegistry applicationRegistry, ObjectMapper objectMapper, int bufferSize,
+			Duration applicationWindow) {
+		this.objectMapper = objectMapper;
+		this.bufferSize = bufferSize;
+		this.publisher = events;
+		this.eventFrames = events.getSequencedEvents().concatMap(this::encode)
+				.contextWrite(InstanceEventPublisher.subscriberName(ServerSentEventHub.class.getName() + ".events"))
+				.publish().refCount();
+		this.instanceFrames = Flux.from(events)
+				.filter((event) -> this.instanceSubscribers.containsKey(event.getInstance()))
+				.concatMap((event) -> instanceRegistry.getInstance(event.getInstance()))
+				.concatMap((instance) -> this.encode(instance).map((frame) -> Tuples.of(instance.getId(), frame)))
+				.contextWrite(InstanceEventPublisher.subscriberName(ServerSentEventHub.class.getName() + ".instance"))
+				.publish().refCount();
+		this.applicationFrames = coalesce(applicationRegistry.getApplicationStream(), applicationWindow)
+				.concatMap(this::toApplicationFrame).publish().refCount();
+		for (String stream : new String[] { "events", "instance", "applications", "application-deltas" }) {
+			this.subscribers.put(stream, new AtomicInteger());
+		}
+	}
+
+	/**
+	 * Returns the stream of all instance events.
+	 * @return the shared stream of encoded events
+	 */
+	public Flux<ServerSentEvent<String>> getEventStream() {
+		return this.counted("events", this.buffered(this.eventFrames.map(Tuple2::getT2)));
+	}
+
+	/**
+	 * Returns the stream of all instance events, resuming after the event with the given
+	 * id. The missed events are replayed from the buffer of the publisher; if they are
+	 * not available anymore a {@code reset} event is sent first, so the client reloads
+	 * its state.
+	 * @param lastEventId id of the last event the client received
+	 * @return the replayed and the shared stream of encoded events
+	 */
+	public Flux<ServerSentEvent<String>> getEventStream(@Nullable String lastEventId) {
+		if (lastEventId == null) {
+			return this.getEventStream();
+		}
+		return this.counted("events", Flux.defer(() -> {
+			Sinks.Many<Tuple2<Long, ServerSentEvent<String>>> live = Sinks.many().unicast().onBackpressureBuffer();
+			Disposable subscription = this.eventFrames.subscribe(live::tryEmitNext);
+			long sequence = this.publisher.getSequence();
+			List<SequencedInstanceEvent> replay = this.publisher.getEventsAfter(lastEventId);
+			if (replay == null) {
+				log.debug("Events after '{}' can't be replayed, sending reset", lastEventId);
+				return this.buffered(Flux.just(RESET).concatWith(live.asFlux().map(Tuple2::getT2)))
+						.doFinally((s) -> subscription.dispose());
+			}
+			long replayed = replay.isEmpty() ? sequence : replay.get(replay.size() - 1).getSequence();
+			Flux<ServerSentEvent<String>> frames = Flux.fromIterable(replay).concatMap(this::encode)
+					.concatWith(live.asFlux().filter((frame) -> frame.getT1() > replayed)).map(Tuple2::getT2);
+			return this.buffered(frames).doFinally((s) -> subscription.dispose());
+		}));
+	}
+
+	/**
+	 * Returns the stream of the instance with the given id, emitting the instance after
+	 * each of its events. Only instances with subscribers are looked up and encoded.
+	 * @param id the id of the instance
+	 * @return the shared stream of the encoded instance
+	 */
+	public Flux<ServerSentEvent<String>> getInstanceStream(InstanceId id) {
+		Flux<ServerSentEvent<String>> frames = this.instanceFrames.filter((frame) -> frame.getT1().equals(id))
+				.map(Tuple2::getT2).doOnSubscribe((s) -> this.instanceSubscribers.merge(id, 1, Integer::sum))
+				.doFinally((s) -> this.instanceSubscribers.computeIfPresent(id, (key, n) -> (n > 1) ? n - 1 : null));
+		return this.counted("instance", this.buffered(frames));
+	}
+
+	/**
+	 * Returns the stream of applications, emitting the application of an instance after
+	 * each of its events.
+	 * @return the shared stream of encoded applications
+	 */
+	public Flux<ServerSentEvent<String>> getApplicationStream() {
+		return this.counted("applications", this.buffered(this.applicationFrames.map(ApplicationFrame::getFull)));
+	}
+
+	/**
+	 * Returns the stream of applications, emitting the full application on its first
+	 * update and json patches for the changed fields on all later updates.
+	 * @return the shared stream of encoded applications and patches
+	 */
+	public Flux<ServerSentEvent<String>> getApplicationDeltaStream() {
+		return this.counted("application-deltas", Flux.defer(() -> {
+			Set<String> sent = new HashSet<>();
+			return this.buffered(this.applicationFrames.concatMap((frame) -> {
+				if (sent.add(frame.getName()) || frame.getPatch() == null) {
+					return Mono.just(frame.getFull());
+				}
+				return (frame.getPatch() != UNCHANGED) ? Mono.just(frame.getPatch()) : Mono.empty();
+			}));
+		}).doOnSubscribe((s) -> this.deltaSubscribers.incrementAndGet()).doFinally((s) -> {
+			if (this.deltaSubscribers.decrementAndGet() == 0) {
+				this.lastApplicationTrees.clear();
+			}
+		}));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.subscribers.forEach(
+				(stream, count) -> Gauge.builder("spring.boot.admin.sse.subscribers", count, AtomicInteger::get)
+						.description("Number of subscribers of the server-sent event streams").tag("stream", stream)
+						.register(registry));
+	}
+
+	private Flux<ServerSentEvent<String>> counted(String stream, Flux<ServerSentEvent<String>> frames) {
+		AtomicInteger count = this.subscribers.get(stream);
+		return frames.doOnSubscribe((s) -> count.incrementAndGet()).doFinally((s) -> count.decrementAndGet());
+	}
+
+	private static Flux<Application> coalesce(Flux<Application> applications, Duration window) {
+		if (window.isZero() || window.isNegative()) {
+			return applications;
+		}
+		return applications.groupBy(Application::getName).flatMap((group) -> group.sample(window), Integer.MAX_VALUE);
+	}
+
+	private Mono<ApplicationFrame> toApplicationFrame(Application application) {
+		String json;
+		try {
+			json = this.objectMapper.writeValueAsString(application);
+		}
+		catch (JsonProcessingException ex) {
+			log.warn("Couldn't encode {} for server-sent events", application, ex);
+			return Mono.empty();
+		}
+		ServerSentEvent<String> full = ServerSentEvent.builder(json).build();
+		if (this.deltaSubscribers.get() == 0) {
+			return Mono.just(new ApplicationFrame(application.getName(), full, null));
+		}
+
+		try {
+			JsonNode tree = this.objectMapper.readTree(json);
+			JsonNode previous = application.getInstances().isEmpty()
+					? this.lastApplicationTrees.remove(application.getName())
+					: this.lastApplicationTrees.put(application.getName(), tree);
+			return Mono
+					.just(new ApplicationFrame(application.getName(), full, this.toPatch(application, previous, tree)));
+		}
+		catch (JsonProcessingException ex) {
+			log.warn("Couldn't compute patch for {}", application, ex);
+			return Mono.just(new ApplicationFrame(application.getName(), full, null));
+		}
+	}
+
+	@Nullable
+	private ServerSentEvent<String> toPatch(Application application, @Nullable JsonNode previous, JsonNode tree)
+			throws JsonProcessingException {
+		if (previous == null) {
+			return null;
+		}
+		ArrayNode patch = JsonPatch.diff(previous, tree);
+		if (patch.isEmpty()) {
+			return UNCHANGED;
+		}
+		String data = this.objectMapper.writeValueAsString(
+				this.objectMapper.createObjectNode().put("name", application.getName()).set("patch", patch));
+		return ServerSentEvent.builder(data).event("patch").build();
+	}
+
+	protected Flux<ServerSentEvent<String>> buffered(Flux<ServerSentEvent<String>> frames) {
+		return frames.onBackpressureBuffer(this.bufferSize,
+				(dropped) -> log.debug("Subscriber is too slow, dropping stream for resync"),
+				BufferOverflowStrategy.ERROR).onErrorResume(Exceptions::isOverflow, (ex) -> Flux.empty());
+	}
+
+	private Mono<Tuple2<Long, ServerSentEvent<String>>> encode(SequencedInstanceEvent event) {
+		return this.encode(event.getEvent()).map((frame) -> Tuples.of(event.getSequence(),
+				ServerSentEvent.builder(frame.data()).id(event.getId()).build()));
+	}
+
+	protected Mono<ServerSentEvent<String>> encode(Object data) {
+		try {
+			return Mono.just(ServerSentEvent.builder(this.objectMapper.writeValueAsString(data)).build());
+		}
+		catch (JsonProcessingException ex) {
+			log.warn("Couldn't encode {} for server-sent events", data, ex);
+			return Mono.empty();
+		}
+	}
+
+	private static final class ApplicationFrame {
+
+		private final String name;
+
+		private final ServerSentEvent<String> full;
+
+		@Nullable
+		private final ServerSentEvent<String> patch;
+
+		private ApplicationFrame(String name, ServerSentEvent<String> full, @Nullable ServerSentEvent<String> patch) {
+			this.name = name;
+			this.full = full;
+			this.patch = patch;
+		}
+
+		private String getName() {
+			return this.name;
+		}
+
+		private ServerSentEvent<String> getFull() {
+			return this.full;
+		}
+
+		@Nullable
+		private ServerSentEvent<String> getPatch() {
+			return this.patch;
+		}
+
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.web.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceEvictionListener;
+import de.codecentric.boot.admin.server.domain.values.Endpoint;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.web.client.exception.CircuitBreakerOpenException;
+
+import static de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions.ATTRIBUTE_ENDPOINT;
+import static de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions.ATTRIBUTE_PROXIED;
+
+/**
+ * Keeps a circuit breaker per instance for the status and info polls. After the
+ * configured number of consecutive failed polls (any error signal, HTTP error responses
+ * don't count as failure) the circuit is opened and all further polls fail immediately
+ * with a {@link CircuitBreakerOpenException}. Proxied and any other requests are neither
+ * counted nor rejected, so they can't open the circuit and thereby mark the instance as
+ * offline. After the open duration has elapsed a single request to the health endpoint,
+ * as issued by the {@link de.codecentric.boot.admin.server.services.StatusUpdater}, is
+ * let through as probe. A successful probe closes the circuit, a failed one opens it
+ * again.
+ */
+public class CircuitBreakerInstanceExchangeFilterFunction
+		implements InstanceExchangeFilterFunction, InstanceEvictionListener {
+
+	private static final Logger log = LoggerFactory.getLogger(CircuitBreakerInstanceExchangeFilterFunction.class);
+
+	private final ConcurrentMap<InstanceId, Circuit> circuits = new ConcurrentHashMap<>();
+
+	private final int failureThreshold;
+
+	private final Duration openDuration;
+
+	private final Clock clock;
+
+	public CircuitBreakerInstanceExchangeFilterFunction(int failureThreshold, Duration openDuration) {
+		this(failureThreshold, openDuration, Clock.systemUTC());
+	}
+
+	public CircuitBreakerInstanceExchangeFilterFunction(int failureThreshold, Duration openDuration, Clock clock) {
+		Assert.isTrue(failureThreshold > 0, "'failureThreshold' must be greater than 0");
+		Assert.isTrue(!openDuration.isNegative(), "'openDuration' must not be negative");
+		this.failureThreshold = failureThreshold;
+		this.openDuration = openDuration;
+		this.clock = clock;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(Instance instance, ClientRequest request, ExchangeFunction next) {
+		if (!isPoll(request)) {
+			return next.exchange(request);
+		}
+		return Mono.defer(() -> {
+			InstanceId id = instance.getId();
+			Circuit circuit = this.circuits.get(id);
+			if (circuit != null && !circuit.tryAcquirePermission(isProbe(request), this.clock.instant())) {
+				log.trace("Circuit for instance {} is open, request to '{}' rejected", id, request.url());
+				return Mono.error(new CircuitBreakerOpenException("Circuit breaker for instance " + id + " is open"));
+			}
+			return next.exchange(request).doOnNext((response) -> this.onSuccess(id))
+					.doOnError((ex) -> this.onFailure(id));
+		});
+	}
+
+	public boolean isOpen(InstanceId id) {
+		Circuit circuit = this.circuits.get(id);
+		return circuit != null && circuit.isOpen();
+	}
+
+	public void reset(InstanceId id) {
+		this.circuits.remove(id);
+	}
+
+	@Override
+	public void evicted(InstanceId id) {
+		this.reset(id);
+	}
+
+	private boolean isPoll(ClientRequest request) {
+		boolean proxied = request.attribute(ATTRIBUTE_PROXIED).map(Boolean.TRUE::equals).orElse(false);
+		return !proxied && request.attribute(ATTRIBUTE_ENDPOINT)
+				.map((endpoint) -> Endpoint.HEALTH.equals(endpoint) || Endpoint.INFO.equals(endpoint)).orElse(false);
+	}
+
+	private boolean isProbe(ClientRequest request) {
+		return request.attribute(ATTRIBUTE_ENDPOINT).map(Endpoint.HEALTH::equals).orElse(false);
+	}
+
+	private void onSuccess(InstanceId id) {
+		Circuit circuit = this.circuits.remove(id);
+		if (circuit != null && circuit.isOpen()) {
+			log.debug("Circuit for instance {} closed", id);
+		}
+	}
+
+	private void onFailure(InstanceId id) {
+		Circuit circuit = this.circuits.computeIfAbsent(id, (key) -> new Circuit());
+		if (circuit.recordFailure(this.clock.instant())) {
+			log.debug("Circuit for instance {} opened", id);
+		}
+	}
+
+	private final class Circuit {
+
+		private int consecutiveFailures = 0;
+
+		private Instant openUntil = null;
+
+		private synchronized boolean tryAcquirePermission(boolean probe, Instant now) {
+			if (this.openUntil == null) {
+				return true;
+			}
+			if (probe && !now.isBefore(this.openUntil)) {
+				// half-open: let this request through and keep rejecting others until the
+				// probe has finished or the open duration elapsed once more.
+				this.openUntil = now.plus(CircuitBreakerInstanceExchangeFilterFunction.this.openDuration);
+				return true;
+			}
+			return false;
+		}
+
+		private synchronized boolean recordFailure(Instant now) {
+			this.consecutiveFailures++;
+			if (this.consecutiveFailures < CircuitBreakerInstanceExchangeFilterFunction.this.failureThreshold) {
+				return false;
+			}
+			boolean wasOpen = this.openUntil != null;
+			this.openUntil = now.plus(CircuitBreakerInstanceExchangeFilterFunction.this.openDuration);
+			return !wasOpen;
+		}
+
+		private synchronized boolean isOpen() {
+			return this.openUntil != null;
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -51,6 +51,8 @@ public final class InstanceExchangeFilterFunctions {
 
 	public static final String ATTRIBUTE_ENDPOINT = "endpointId";
 
+	public static final String ATTRIBUTE_PROXIED = "proxied";
+
 	@SuppressWarnings("deprecation") // We need to support Spring Boot 1.x apps...
 	private static final List<MediaType> DEFAULT_ACCEPT_MEDIATYPES = asList(ACTUATOR_V2_MEDIATYPE,
 			ACTUATOR_V1_MEDIATYPE, MediaType.APPLICATION_JSON);
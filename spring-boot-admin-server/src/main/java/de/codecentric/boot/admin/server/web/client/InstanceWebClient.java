@@ -101,6 +101,11 @@ public class InstanceWebClient {
 			return this;
 		}
 
+		public Builder webClient(Consumer<WebClient.Builder> webClientCustomizer) {
+			webClientCustomizer.accept(this.webClientBuilder);
+			return this;
+		}
+
 		public Builder clone() {
 			return new Builder(this);
 		}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.web.client;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+
+import static de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions.ATTRIBUTE_ENDPOINT;
+import static de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions.ATTRIBUTE_PROXIED;
+
+/**
+ * Records the latency and the outcome of the requests to the instances, tagged by
+ * endpoint. Requests marked with
+ * {@link InstanceExchangeFilterFunctions#ATTRIBUTE_PROXIED} are recorded as proxy
+ * requests instead. Nothing is recorded until the filter is bound to a
+ * {@link MeterRegistry}.
+ */
+public class MetricsInstanceExchangeFilterFunction implements InstanceExchangeFilterFunction, MeterBinder {
+
+	private final boolean applicationTag;
+
+	@Nullable
+	private volatile MeterRegistry registry;
+
+	public MetricsInstanceExchangeFilterFunction(boolean applicationTag) {
+		this.applicationTag = applicationTag;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(Instance instance, ClientRequest request, ExchangeFunction next) {
+		MeterRegistry registry = this.registry;
+		if (registry == null) {
+			return next.exchange(request);
+		}
+		return Mono.defer(() -> {
+			long start = registry.config().clock().monotonicTime();
+			return next.exchange(request)
+					.doOnNext((response) -> this.record(registry, instance, request, start,
+							String.valueOf(response.rawStatusCode()),
+							Outcome.forStatus(response.rawStatusCode()).name(), "none"))
+					.doOnError((ex) -> this.record(registry, instance, request, start,
+							(ex instanceof IOException) ? "IO_ERROR" : "CLIENT_ERROR", Outcome.UNKNOWN.name(),
+							ex.getClass().getSimpleName()));
+		});
+	}
+
+	private void record(MeterRegistry registry, Instance instance, ClientRequest request, long start, String status,
+			String outcome, String exception) {
+		boolean proxied = request.attribute(ATTRIBUTE_PROXIED).map(Boolean.TRUE::equals).orElse(false);
+		Tags tags = Tags.of(
+				Tag.of("endpoint", request.attribute(ATTRIBUTE_ENDPOINT).map(String::valueOf).orElse("unknown")),
+				Tag.of("status", status), Tag.of("outcome", outcome), Tag.of("exception", exception));
+		if (this.applicationTag) {
+			tags = tags.and("application", instance.getRegistration().getName());
+		}
+		Timer.builder(proxied ? "spring.boot.admin.proxy.requests" : "spring.boot.admin.instance.requests")
+				.description(proxied ? "Requests proxied to the instances" : "Requests issued to the instances")
+				.tags(tags).register(registry)
+				.record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+}
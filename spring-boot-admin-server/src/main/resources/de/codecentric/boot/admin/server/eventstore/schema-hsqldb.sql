@@ -0,0 +1,11 @@
+CREATE TABLE SPRING_BOOT_ADMIN_EVENT (
+	EVENT_SEQUENCE BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+	INSTANCE_ID VARCHAR(255) NOT NULL,
+	VERSION BIGINT NOT NULL,
+	EVENT_TYPE VARCHAR(64) NOT NULL,
+	EVENT_TIMESTAMP BIGINT NOT NULL,
+	EVENT_DATA LONGVARCHAR NOT NULL,
+	CONSTRAINT SPRING_BOOT_ADMIN_EVENT_PK PRIMARY KEY (EVENT_SEQUENCE),
+	CONSTRAINT SPRING_BOOT_ADMIN_EVENT_UK UNIQUE (INSTANCE_ID, VERSION)
+);
+CREATE INDEX SPRING_BOOT_ADMIN_EVENT_IX ON SPRING_BOOT_ADMIN_EVENT (EVENT_TIMESTAMP, INSTANCE_ID, VERSION);
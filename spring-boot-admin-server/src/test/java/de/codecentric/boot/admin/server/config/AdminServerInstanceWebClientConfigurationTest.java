@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,8 @@ import org.springframework.boot.autoconfigure.web.reactive.function.client.Clien
 import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
 import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import reactor.netty.resources.ConnectionProvider;
 
 import de.codecentric.boot.admin.server.web.client.BasicAuthHttpHeaderProvider;
 import de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunction;
@@ -45,11 +47,16 @@ public class AdminServerInstanceWebClientConfigurationTest {
 		this.contextRunner.run((context) -> {
 			assertThat(context).hasSingleBean(InstanceWebClient.Builder.class);
 			assertThat(context).hasBean("filterInstanceWebClientCustomizer");
+			assertThat(context).hasBean("reactorNettyInstanceWebClientCustomizer");
+			assertThat(context).hasSingleBean(ConnectionProvider.class);
+			assertThat(context).hasSingleBean(ReactorResourceFactory.class);
 			assertThat(context).hasSingleBean(BasicAuthHttpHeaderProvider.class);
 			assertThat(context).getBeanNames(InstanceExchangeFilterFunction.class).containsExactly(
 					"addHeadersInstanceExchangeFilter", "rewriteEndpointUrlInstanceExchangeFilter",
-					"setDefaultAcceptHeaderInstanceExchangeFilter", "legacyEndpointConverterInstanceExchangeFilter",
-					"logfileAcceptWorkaround", "retryInstanceExchangeFilter", "timeoutInstanceExchangeFilter");
+					"metricsInstanceExchangeFilter", "setDefaultAcceptHeaderInstanceExchangeFilter",
+					"legacyEndpointConverterInstanceExchangeFilter", "logfileAcceptWorkaround",
+					"circuitBreakerInstanceExchangeFilter", "retryInstanceExchangeFilter",
+					"timeoutInstanceExchangeFilter");
 			assertThat(context).getBeanNames(LegacyEndpointConverter.class).containsExactly(
 					"healthLegacyEndpointConverter", "infoLegacyEndpointConverter", "envLegacyEndpointConverter",
 					"httptraceLegacyEndpointConverter", "threaddumpLegacyEndpointConverter",
@@ -59,4 +66,14 @@ public class AdminServerInstanceWebClientConfigurationTest {
 		});
 	}
 
+	@Test
+	public void connectionPoolDisabled() {
+		this.contextRunner.withPropertyValues("spring.boot.admin.instance-client.pool.enabled=false",
+				"spring.boot.admin.instance-client.protocols=h2c,http11").run((context) -> {
+					assertThat(context).hasNotFailed();
+					assertThat(context).doesNotHaveBean(ConnectionProvider.class);
+					assertThat(context).hasBean("reactorNettyInstanceWebClientCustomizer");
+				});
+	}
+
 }
@@ -35,9 +35,11 @@ import de.codecentric.boot.admin.server.notify.HipchatNotifier;
 import de.codecentric.boot.admin.server.notify.LetsChatNotifier;
 import de.codecentric.boot.admin.server.notify.MailNotifier;
 import de.codecentric.boot.admin.server.notify.MicrosoftTeamsNotifier;
+import de.codecentric.boot.admin.server.notify.NotificationDispatcher;
 import de.codecentric.boot.admin.server.notify.NotificationTrigger;
 import de.codecentric.boot.admin.server.notify.Notifier;
 import de.codecentric.boot.admin.server.notify.NotifierProxyProperties;
+import de.codecentric.boot.admin.server.notify.NotifierWebClient;
 import de.codecentric.boot.admin.server.notify.OpsGenieNotifier;
 import de.codecentric.boot.admin.server.notify.PagerdutyNotifier;
 import de.codecentric.boot.admin.server.notify.SlackNotifier;
@@ -60,9 +62,20 @@ public class AdminServerNotifierAutoConfigurationTest {
 		this.contextRunner.withUserConfiguration(TestSingleNotifierConfig.class).run((context) -> {
 			assertThat(context).getBean(Notifier.class).isInstanceOf(TestNotifier.class);
 			assertThat(context).getBeans(Notifier.class).hasSize(1);
+			assertThat(context).hasSingleBean(NotificationTrigger.class);
+			assertThat(context).doesNotHaveBean(NotificationDispatcher.class);
 		});
 	}
 
+	@Test
+	public void test_notifierListener_with_dispatch() {
+		this.contextRunner.withUserConfiguration(TestSingleNotifierConfig.class)
+				.withPropertyValues("spring.boot.admin.notify.dispatch.enabled=true").run((context) -> {
+					assertThat(context).hasSingleBean(NotificationTrigger.class);
+					assertThat(context.getBean(NotificationDispatcher.class).getQueuedNotifiers()).hasSize(1);
+				});
+	}
+
 	@Test
 	public void test_no_notifierListener() {
 		this.contextRunner.run((context) -> assertThat(context).doesNotHaveBean(NotificationTrigger.class));
@@ -92,6 +105,25 @@ public class AdminServerNotifierAutoConfigurationTest {
 				.run((context) -> assertThat(context).hasSingleBean(SlackNotifier.class));
 	}
 
+	@Test
+	public void test_slack_with_web_client_transport() {
+		this.contextRunner.withPropertyValues("spring.boot.admin.notify.slack.webhook-url:http://example.com",
+				"spring.boot.admin.notify.transport.mode:web-client").run((context) -> {
+					assertThat(context).hasSingleBean(NotifierWebClient.class);
+					assertThat(context.getBean(SlackNotifier.class)).extracting("webClient")
+							.isSameAs(context.getBean(NotifierWebClient.class));
+				});
+	}
+
+	@Test
+	public void test_rest_template_transport_by_default() {
+		this.contextRunner.withPropertyValues("spring.boot.admin.notify.slack.webhook-url:http://example.com")
+				.run((context) -> {
+					assertThat(context).doesNotHaveBean(NotifierWebClient.class);
+					assertThat(context.getBean(SlackNotifier.class)).extracting("webClient").isNull();
+				});
+	}
+
 	@Test
 	public void test_pagerduty() {
 		this.contextRunner.withPropertyValues("spring.boot.admin.notify.pagerduty.service-key:foo")
@@ -126,10 +158,12 @@ public class AdminServerNotifierAutoConfigurationTest {
 
 	@Test
 	public void test_multipleNotifiers() {
-		this.contextRunner.withUserConfiguration(TestMultipleNotifierConfig.class).run((context) -> {
-			assertThat(context.getBean(Notifier.class)).isInstanceOf(CompositeNotifier.class);
-			assertThat(context).getBeans(Notifier.class).hasSize(3);
-		});
+		this.contextRunner.withUserConfiguration(TestMultipleNotifierConfig.class)
+				.withPropertyValues("spring.boot.admin.notify.dispatch.enabled=true").run((context) -> {
+					assertThat(context.getBean(Notifier.class)).isInstanceOf(CompositeNotifier.class);
+					assertThat(context).getBeans(Notifier.class).hasSize(3);
+					assertThat(context.getBean(NotificationDispatcher.class).getQueuedNotifiers()).hasSize(2);
+				});
 	}
 
 	@Test
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,15 +16,47 @@
 
 package de.codecentric.boot.admin.server.domain.entities;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
 import de.codecentric.boot.admin.server.eventstore.InMemoryEventStore;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class EventsourcingInstanceRepositoryTest extends AbstractInstanceRepositoryTest {
 
+	private EventsourcingInstanceRepository repository;
+
 	@BeforeEach
 	public void setUp() {
-		super.setUp(new EventsourcingInstanceRepository(new InMemoryEventStore()));
+		this.repository = new EventsourcingInstanceRepository(new InMemoryEventStore());
+		super.setUp(this.repository);
+	}
+
+	@Test
+	public void should_count_retries() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.repository.bindTo(registry);
+		Instance instance = Instance.create(InstanceId.of("app-1"))
+				.register(Registration.create("app", "http://health").build());
+		AtomicLong conflicts = new AtomicLong(2L);
+
+		StepVerifier.create(this.repository.save(instance)).expectNextCount(1).verifyComplete();
+		StepVerifier
+				.create(this.repository.compute(instance.getId(),
+						(key, value) -> Mono.just((conflicts.getAndDecrement() > 0L) ? instance : value.deregister())))
+				.expectNextCount(1).verifyComplete();
+
+		assertThat(registry.get("spring.boot.admin.instances.retries").functionCounter().count()).isEqualTo(2.0);
+		assertThat(registry.get("spring.boot.admin.instances.retries.exhausted").functionCounter().count())
+				.isEqualTo(0.0);
 	}
 
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.domain.entities;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+import de.codecentric.boot.admin.server.domain.values.StatusInfo;
+import de.codecentric.boot.admin.server.eventstore.InMemoryEventStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstanceMailboxTest {
+
+	private final InstanceMailbox mailbox = new InstanceMailbox();
+
+	private final InstanceId id = InstanceId.of("id");
+
+	@Test
+	public void should_run_commands_for_same_instance_one_after_the_other() {
+		List<String> log = new CopyOnWriteArrayList<>();
+		Mono<String> first = this.mailbox.submit(this.id, () -> this.command(log, "first", 100L));
+		Mono<String> second = this.mailbox.submit(this.id, () -> this.command(log, "second", 0L));
+
+		StepVerifier.create(Flux.merge(first, second)).expectNext("first", "second").verifyComplete();
+		assertThat(log).containsExactly("start first", "end first", "start second", "end second");
+		assertThat(this.mailbox.size()).isZero();
+	}
+
+	@Test
+	public void should_run_commands_for_different_instances_concurrently() {
+		List<String> log = new CopyOnWriteArrayList<>();
+		Mono<String> first = this.mailbox.submit(this.id, () -> this.command(log, "first", 100L));
+		Mono<String> second = this.mailbox.submit(InstanceId.of("other"), () -> this.command(log, "second", 0L));
+
+		StepVerifier.create(Flux.merge(first, second)).expectNext("second", "first").verifyComplete();
+		assertThat(log).containsExactly("start first", "start second", "end second", "end first");
+	}
+
+	@Test
+	public void should_continue_after_failed_command() {
+		Mono<String> failing = this.mailbox.submit(this.id, () -> Mono.error(new IllegalStateException("test")));
+		Mono<String> next = this.mailbox.submit(this.id, () -> Mono.just("next"));
+
+		StepVerifier.create(failing).verifyError(IllegalStateException.class);
+		StepVerifier.create(next).expectNext("next").verifyComplete();
+		assertThat(this.mailbox.size()).isZero();
+	}
+
+	@Test
+	public void should_keep_order_when_waiting_command_is_cancelled() {
+		List<String> log = new CopyOnWriteArrayList<>();
+		Mono<String> first = this.mailbox.submit(this.id, () -> this.command(log, "first", 200L));
+		Mono<String> cancelled = this.mailbox.submit(this.id, () -> this.command(log, "cancelled", 0L));
+		Mono<String> third = this.mailbox.submit(this.id, () -> this.command(log, "third", 0L));
+
+		Disposable firstSubscription = first.subscribe();
+		cancelled.subscribe().dispose();
+
+		StepVerifier.create(third).expectNext("third").verifyComplete();
+		assertThat(log).containsExactly("start first", "end first", "start third", "end third");
+		assertThat(firstSubscription.isDisposed()).isTrue();
+		assertThat(this.mailbox.size()).isZero();
+	}
+
+	@Test
+	public void should_apply_racing_updates_without_retries() {
+		EventsourcingInstanceRepository repository = new EventsourcingInstanceRepository(new InMemoryEventStore(),
+				this.mailbox);
+		Instance instance = Instance.create(this.id).register(Registration.create("foo", "http://health").build());
+		StepVerifier.create(repository.save(instance)).expectNextCount(1).verifyComplete();
+
+		AtomicInteger invocations = new AtomicInteger();
+		Mono<Instance> statusUpdate = repository.computeIfPresent(this.id, (key, i) -> {
+			invocations.incrementAndGet();
+			return Mono.delay(Duration.ofMillis(50L)).map((tick) -> i.withStatusInfo(StatusInfo.ofUp()));
+		});
+		Mono<Instance> infoUpdate = repository.computeIfPresent(this.id, (key, i) -> {
+			invocations.incrementAndGet();
+			return Mono.delay(Duration.ofMillis(50L)).map((tick) -> i.withStatusInfo(StatusInfo.ofDown()));
+		});
+
+		StepVerifier.create(Flux.merge(statusUpdate, infoUpdate)).expectNextCount(2).verifyComplete();
+		assertThat(invocations).hasValue(2);
+		StepVerifier.create(repository.find(this.id))
+				.assertNext((i) -> assertThat(i.getStatusInfo().getStatus()).isEqualTo("DOWN")).verifyComplete();
+	}
+
+	private Mono<String> command(List<String> log, String name, long delay) {
+		return Mono.fromRunnable(() -> log.add("start " + name)).then(Mono.delay(Duration.ofMillis(delay)))
+				.then(Mono.fromCallable(() -> {
+					log.add("end " + name);
+					return name;
+				}));
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package de.codecentric.boot.admin.server.domain.entities;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -190,6 +191,34 @@ public class InstanceTest {
 		assertThat(instance.getTags().getValues()).isEmpty();
 	}
 
+	@Test
+	public void should_yield_same_instance_from_replay_as_from_single_events() {
+		Registration registration = Registration.create("foo", "http://health").metadata("tags.env", "test").build();
+		Registration updated = registration.toBuilder().healthUrl("http://health2").metadata("version", "1.0.0")
+				.build();
+		Instance instance = Instance.create(InstanceId.of("id")).register(registration)
+				.withEndpoints(Endpoints.single("info", "info")).withStatusInfo(StatusInfo.ofUp())
+				.withInfo(Info.from(singletonMap("build", singletonMap("version", "2.0.0")))).register(updated)
+				.withInfo(Info.from(singletonMap("tags", singletonMap("region", "eu")))).deregister()
+				.register(registration).withEndpoints(Endpoints.single("env", "env")).register(updated);
+
+		Instance replayed = Instance.create(InstanceId.of("id"));
+		for (InstanceEvent event : instance.getUnsavedEvents()) {
+			replayed = replayed.apply(event);
+			Instance folded = Instance.create(InstanceId.of("id"))
+					.apply(instance.getUnsavedEvents().subList(0, (int) event.getVersion() + 1));
+			assertThat(folded).isEqualTo(replayed);
+			assertThat(folded.getStatusTimestamp()).isEqualTo(replayed.getStatusTimestamp());
+		}
+		assertThat(replayed).isEqualTo(instance.clearUnsavedEvents());
+	}
+
+	@Test
+	public void should_return_same_instance_when_replaying_nothing() {
+		Instance instance = Instance.create(InstanceId.of("id"));
+		assertThat(instance.apply(Collections.emptyList())).isSameAs(instance);
+	}
+
 	@Test
 	public void shoud_rebuild_instance() {
 		Instance instance = Instance.create(InstanceId.of("id"))
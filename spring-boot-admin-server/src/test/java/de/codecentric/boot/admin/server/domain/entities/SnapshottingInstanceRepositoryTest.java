@@ -19,6 +19,7 @@ package de.codecentric.boot.admin.server.domain.entities;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -28,10 +29,12 @@ import de.codecentric.boot.admin.server.domain.values.InstanceId;
 import de.codecentric.boot.admin.server.domain.values.Registration;
 import de.codecentric.boot.admin.server.domain.values.StatusInfo;
 import de.codecentric.boot.admin.server.eventstore.InMemoryEventStore;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher.OverflowPolicy;
 import de.codecentric.boot.admin.server.eventstore.OptimisticLockingException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
@@ -99,6 +102,21 @@ public class SnapshottingInstanceRepositoryTest extends AbstractInstanceReposito
 				.assertNext((i) -> assertThat(i.getVersion()).isEqualTo(1L)).verifyComplete();
 	}
 
+	@Test
+	public void should_resync_cache_after_disconnect() {
+		// given
+		this.repository.stop();
+		doReturn(Flux.error(Exceptions.failWithOverflow("Subscriber doesn't keep up with the events")))
+				.doCallRealMethod().when(this.eventStore).getSequencedEvents(OverflowPolicy.BLOCK);
+		// when
+		this.repository.start();
+		StepVerifier.create(this.repository.save(this.instance)).expectNext(this.instance).verifyComplete();
+		// then
+		reset(this.eventStore);
+		StepVerifier.create(this.repository.findAll()).expectNext(this.instance).verifyComplete();
+		verify(this.eventStore, never()).find(any());
+	}
+
 	@Test
 	public void should_return_outdated_instance_not_present_in_cache() {
 		this.repository.stop();
@@ -78,6 +78,35 @@ public abstract class AbstractEventStoreTest {
 		StepVerifier.create(store.findAll()).expectNext(event1, eventOther, event2).verifyComplete();
 	}
 
+	@Test
+	public void should_find_events_by_query() {
+		InstanceEventStore store = createStore(100);
+
+		Instant now = Instant.now();
+		InstanceEvent event1 = new InstanceRegisteredEvent(id, 0L, now, registration);
+		InstanceEvent eventOther = new InstanceRegisteredEvent(InstanceId.of("other"), 0L, now.plusMillis(10),
+				registration);
+		InstanceEvent event2 = new InstanceDeregisteredEvent(id, 1L, now.plusMillis(20));
+		StepVerifier.create(store.append(singletonList(event1))).verifyComplete();
+		StepVerifier.create(store.append(singletonList(eventOther))).verifyComplete();
+		StepVerifier.create(store.append(singletonList(event2))).verifyComplete();
+
+		StepVerifier.create(store.query(InstanceEventQuery.builder().instance(id).build())).expectNext(event1, event2)
+				.verifyComplete();
+		StepVerifier.create(store.query(InstanceEventQuery.builder().type("REGISTERED").build()))
+				.expectNext(event1, eventOther).verifyComplete();
+		InstanceEventQuery timeRange = InstanceEventQuery.builder().from(now.plusMillis(10)).to(now.plusMillis(20))
+				.build();
+		StepVerifier.create(store.query(timeRange)).expectNext(eventOther).verifyComplete();
+
+		StepVerifier.create(store.query(InstanceEventQuery.builder().limit(2).build())).expectNext(event1, eventOther)
+				.verifyComplete();
+		InstanceEventQuery.Cursor cursor = InstanceEventQuery.Cursor
+				.parse(InstanceEventQuery.Cursor.of(eventOther).encode());
+		StepVerifier.create(store.query(InstanceEventQuery.builder().after(cursor).limit(2).build())).expectNext(event2)
+				.verifyComplete();
+	}
+
 	@Test
 	public void should_shorten_log_on_exceeded_capacity() {
 		InstanceEventStore store = createStore(2);
@@ -91,6 +120,31 @@ public abstract class AbstractEventStoreTest {
 		StepVerifier.create(store.findAll()).expectNext(event1, event3).verifyComplete();
 	}
 
+	@Test
+	public void should_evict_deregistered_instance_only() {
+		InstanceEventStore store = createStore(100);
+		Instant now = Instant.now();
+		InstanceId registered = InstanceId.of("registered");
+		InstanceId reregistered = InstanceId.of("reregistered");
+
+		StepVerifier.create(store.append(asList(new InstanceRegisteredEvent(id, 0L, now, registration),
+				new InstanceDeregisteredEvent(id, 1L, now)))).verifyComplete();
+		StepVerifier.create(store.append(singletonList(new InstanceRegisteredEvent(registered, 0L, now, registration))))
+				.verifyComplete();
+		StepVerifier.create(store.append(asList(new InstanceDeregisteredEvent(reregistered, 0L, now),
+				new InstanceRegisteredEvent(reregistered, 1L, now, registration)))).verifyComplete();
+
+		StepVerifier.create(store.evict(id, now)).expectNext(false).verifyComplete();
+		StepVerifier.create(store.evict(registered, now.plusSeconds(1))).expectNext(false).verifyComplete();
+		StepVerifier.create(store.evict(reregistered, now.plusSeconds(1))).expectNext(false).verifyComplete();
+		StepVerifier.create(store.evict(id, now.plusSeconds(1))).expectNext(true).verifyComplete();
+		StepVerifier.create(store.evict(id, now.plusSeconds(1))).expectNext(true).verifyComplete();
+
+		StepVerifier.create(store.find(id)).verifyComplete();
+		StepVerifier.create(store.find(registered)).expectNextCount(1L).verifyComplete();
+		StepVerifier.create(store.find(reregistered)).expectNextCount(2L).verifyComplete();
+	}
+
 	@Test
 	public void should_throw_optimictic_locking_exception() {
 		InstanceEvent event0 = new InstanceRegisteredEvent(id, 0L, registration);
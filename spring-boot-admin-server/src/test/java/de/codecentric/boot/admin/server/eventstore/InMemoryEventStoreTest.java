@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,18 @@
 
 package de.codecentric.boot.admin.server.eventstore;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.events.InstanceDeregisteredEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceRegisteredEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class InMemoryEventStoreTest extends AbstractEventStoreTest {
 
 	@Override
@@ -23,4 +35,20 @@ public class InMemoryEventStoreTest extends AbstractEventStoreTest {
 		return new InMemoryEventStore(maxLogSizePerAggregate);
 	}
 
+	@Test
+	public void should_record_store_size() {
+		InMemoryEventStore store = new InMemoryEventStore();
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		store.bindTo(registry);
+
+		InstanceId id = InstanceId.of("id");
+		StepVerifier.create(store
+				.append(asList(new InstanceRegisteredEvent(id, 0L, Registration.create("foo", "http://health").build()),
+						new InstanceDeregisteredEvent(id, 1L))))
+				.verifyComplete();
+
+		assertThat(registry.get("spring.boot.admin.events.store.instances").gauge().value()).isEqualTo(1.0);
+		assertThat(registry.get("spring.boot.admin.events.store.events").gauge().value()).isEqualTo(2.0);
+	}
+
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.eventstore;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.events.InstanceDeregisteredEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.eventstore.InstanceEventPublisher.OverflowPolicy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+public class InstanceEventPublisherTest {
+
+	private final InstanceEventPublisher publisher = new InstanceEventPublisher(3);
+
+	@Test
+	public void should_publish_events_with_increasing_sequence() {
+		StepVerifier.create(this.publisher.getSequencedEvents())
+				.then(() -> this.publisher.publish(Arrays.asList(event(0L), event(1L))))
+				.assertNext((event) -> assertThat(event.getSequence()).isEqualTo(1L)).assertNext((event) -> {
+					assertThat(event.getSequence()).isEqualTo(2L);
+					assertThat(event.getId()).endsWith(":2");
+					assertThat(event.getEvent().getVersion()).isEqualTo(1L);
+				}).thenCancel().verify(Duration.ofSeconds(5));
+		assertThat(this.publisher.getSequence()).isEqualTo(2L);
+	}
+
+	@Test
+	public void should_return_events_after_id() {
+		List<SequencedInstanceEvent> published = this.publishAndCollect(event(0L), event(1L), event(2L));
+
+		assertThat(this.publisher.getEventsAfter(published.get(0).getId()))
+				.extracting(SequencedInstanceEvent::getSequence).containsExactly(2L, 3L);
+		assertThat(this.publisher.getEventsAfter(published.get(2).getId())).isEmpty();
+	}
+
+	@Test
+	public void should_not_replay_evicted_or_unknown_events() {
+		List<SequencedInstanceEvent> published = this.publishAndCollect(event(0L), event(1L), event(2L), event(3L),
+				event(4L));
+
+		assertThat(this.publisher.getEventsAfter(published.get(1).getId()))
+				.extracting(SequencedInstanceEvent::getSequence).containsExactly(3L, 4L, 5L);
+		assertThat(this.publisher.getEventsAfter(published.get(0).getId())).isNull();
+		assertThat(this.publisher.getEventsAfter("other:1")).isNull();
+		assertThat(this.publisher.getEventsAfter("garbage")).isNull();
+		String epoch = published.get(0).getId().substring(0, published.get(0).getId().indexOf(':'));
+		assertThat(this.publisher.getEventsAfter(epoch + ":6")).isNull();
+		assertThat(this.publisher.getEventsAfter(epoch + ":x")).isNull();
+	}
+
+	@Test
+	public void should_disconnect_subscriber_not_keeping_up() {
+		this.publisher.setBufferSize(2);
+
+		StepVerifier.create(this.publisher.getSequencedEvents(OverflowPolicy.DISCONNECT), 0L)
+				.then(() -> this.publisher.publish(Arrays.asList(event(0L), event(1L), event(2L)))).thenRequest(3L)
+				.expectNextCount(2L).expectErrorMatches(Exceptions::isOverflow).verify(Duration.ofSeconds(5));
+		assertThat(this.publisher.getDisconnectedCount()).isEqualTo(1L);
+		assertThat(this.publisher.getSubscriberCount()).isZero();
+	}
+
+	@Test
+	public void should_drop_oldest_for_subscriber_not_keeping_up() {
+		this.publisher.setBufferSize(2);
+
+		StepVerifier.create(this.publisher.getSequencedEvents(OverflowPolicy.DROP_OLDEST), 0L)
+				.then(() -> this.publisher.publish(Arrays.asList(event(0L), event(1L), event(2L)))).thenRequest(3L)
+				.assertNext((event) -> assertThat(event.getSequence()).isEqualTo(2L))
+				.assertNext((event) -> assertThat(event.getSequence()).isEqualTo(3L)).thenCancel()
+				.verify(Duration.ofSeconds(5));
+		assertThat(this.publisher.getDroppedCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void should_block_appender_until_subscriber_made_room() {
+		this.publisher.setBufferSize(1);
+		this.publisher.setBlockTimeout(Duration.ofSeconds(5));
+
+		StepVerifier.create(this.publisher.getSequencedEvents(OverflowPolicy.BLOCK), 0L)
+				.then(() -> new Thread(() -> this.publisher.publish(Arrays.asList(event(0L), event(1L), event(2L))))
+						.start())
+				.thenAwait(Duration.ofMillis(100L)).thenRequest(3L).expectNextCount(3L).thenCancel()
+				.verify(Duration.ofSeconds(5));
+		assertThat(this.publisher.getDisconnectedCount()).isZero();
+	}
+
+	@Test
+	public void should_release_lock_while_blocking() {
+		this.publisher.setBufferSize(1);
+		this.publisher.setBlockTimeout(Duration.ofSeconds(5));
+
+		StepVerifier.create(this.publisher.getSequencedEvents(OverflowPolicy.BLOCK), 0L)
+				.then(() -> new Thread(() -> this.publisher.publish(Arrays.asList(event(0L), event(1L)))).start())
+				.then(() -> await().atMost(Duration.ofSeconds(1L))
+						.untilAsserted(() -> assertThat(this.publisher.getSequence()).isEqualTo(2L)))
+				.thenRequest(2L).expectNextCount(2L).thenCancel().verify(Duration.ofSeconds(5));
+		assertThat(this.publisher.getDisconnectedCount()).isZero();
+	}
+
+	@Test
+	public void should_disconnect_blocking_subscriber_after_timeout() {
+		this.publisher.setBufferSize(1);
+		this.publisher.setBlockTimeout(Duration.ofMillis(10L));
+
+		StepVerifier.create(this.publisher.getSequencedEvents(OverflowPolicy.BLOCK), 0L)
+				.then(() -> this.publisher.publish(Arrays.asList(event(0L), event(1L)))).thenRequest(2L)
+				.expectNextCount(1L).expectErrorMatches(Exceptions::isOverflow).verify(Duration.ofSeconds(5));
+		assertThat(this.publisher.getDisconnectedCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void should_not_block_non_blocking_appender() {
+		this.publisher.setBufferSize(1);
+		this.publisher.setBlockTimeout(Duration.ofSeconds(5));
+
+		StepVerifier.create(this.publisher.getSequencedEvents(OverflowPolicy.BLOCK), 0L)
+				.then(() -> Mono
+						.fromRunnable(() -> this.publisher.publish(Arrays.asList(event(0L), event(1L), event(2L))))
+						.subscribeOn(Schedulers.parallel()).block(Duration.ofSeconds(1L)))
+				.thenRequest(3L).expectNextCount(3L).thenCancel().verify(Duration.ofSeconds(5));
+		assertThat(this.publisher.getDisconnectedCount()).isZero();
+	}
+
+	@Test
+	public void should_expose_lag_per_subscriber_name() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.publisher.bindTo(registry);
+
+		Flux<SequencedInstanceEvent> events = this.publisher.getSequencedEvents()
+				.contextWrite(InstanceEventPublisher.subscriberName("test"));
+		Disposable first = events.subscribe(null, null, null, (s) -> {
+		});
+		Disposable second = events.subscribe(null, null, null, (s) -> {
+		});
+		this.publisher.publish(Arrays.asList(event(0L), event(1L)));
+
+		assertThat(registry.get("spring.boot.admin.events.subscriber.lag").tag("subscriber", "test").gauges())
+				.hasSize(1);
+		assertThat(registry.get("spring.boot.admin.events.subscriber.lag").tag("subscriber", "test").gauge().value())
+				.isEqualTo(4.0);
+		assertThat(registry.get("spring.boot.admin.events.subscriber.buffer.usage").tag("subscriber", "test").gauge()
+				.value()).isEqualTo(2.0 / InstanceEventPublisher.DEFAULT_BUFFER_SIZE);
+
+		first.dispose();
+		assertThat(registry.get("spring.boot.admin.events.subscriber.lag").tag("subscriber", "test").gauge().value())
+				.isEqualTo(2.0);
+		second.dispose();
+		assertThat(registry.find("spring.boot.admin.events.subscriber.lag").gauges()).isEmpty();
+		assertThat(registry.find("spring.boot.admin.events.subscriber.buffer.usage").gauges()).isEmpty();
+	}
+
+	@Test
+	public void should_expose_lag_of_unnamed_subscribers() {
+		StepVerifier.create(this.publisher.getSequencedEvents(), 0L).then(() -> {
+			SimpleMeterRegistry registry = new SimpleMeterRegistry();
+			this.publisher.bindTo(registry);
+			assertThat(registry.get("spring.boot.admin.events.subscriber.lag").tag("subscriber", "unnamed").gauge()
+					.value()).isEqualTo(0.0);
+		}).thenCancel().verify(Duration.ofSeconds(5));
+	}
+
+	private List<SequencedInstanceEvent> publishAndCollect(InstanceEvent... events) {
+		return this.publisher.getSequencedEvents().take(events.length)
+				.doOnSubscribe((s) -> new Thread(() -> this.publisher.publish(Arrays.asList(events))).start())
+				.collectList().block(Duration.ofSeconds(5));
+	}
+
+	private static InstanceEvent event(long version) {
+		return new InstanceDeregisteredEvent(InstanceId.of("a"), version);
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.eventstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+import de.codecentric.boot.admin.server.utils.jackson.AdminServerModule;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the event store tests against the H2 schema. The H2 driver is only on the test
+ * classpath when the {@code h2} profile is active ({@code mvn test -Ph2}).
+ */
+@EnabledIf("isH2Available")
+public class JdbcEventStoreH2Test extends AbstractEventStoreTest {
+
+	private static final AtomicInteger DATABASES = new AtomicInteger();
+
+	private final List<JdbcEventStore> stores = new ArrayList<>();
+
+	static boolean isH2Available() {
+		return ClassUtils.isPresent("org.h2.Driver", null);
+	}
+
+	@Override
+	protected InstanceEventStore createStore(int maxLogSizePerAggregate) {
+		String url = "jdbc:h2:mem:events-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+		try (Connection connection = DriverManager.getConnection(url);
+				Statement statement = connection.createStatement()) {
+			for (String sql : readSchema().split(";")) {
+				if (!sql.trim().isEmpty()) {
+					statement.execute(sql);
+				}
+			}
+			DataSource dataSource = mock(DataSource.class);
+			when(dataSource.getConnection()).then((invocation) -> DriverManager.getConnection(url));
+
+			JdbcEventStore store = new JdbcEventStore(dataSource,
+					Jackson2ObjectMapperBuilder.json().modulesToInstall(new AdminServerModule(new String[0])).build());
+			store.setMaxLogSizePerAggregate(maxLogSizePerAggregate);
+			store.start();
+			this.stores.add(store);
+			return store;
+		}
+		catch (SQLException | IOException ex) {
+			throw new IllegalStateException("Could not create the H2 event store", ex);
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.stores.forEach(JdbcEventStore::stop);
+	}
+
+	private static String readSchema() throws IOException {
+		try (InputStream schema = JdbcEventStore.class.getResourceAsStream("schema-h2.sql")) {
+			return StreamUtils.copyToString(schema, StandardCharsets.UTF_8);
+		}
+	}
+
+}
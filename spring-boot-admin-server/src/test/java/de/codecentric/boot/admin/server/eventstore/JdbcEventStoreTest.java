@@ -0,0 +1,216 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.eventstore;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceRegisteredEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceStatusChangedEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+import de.codecentric.boot.admin.server.domain.values.StatusInfo;
+import de.codecentric.boot.admin.server.utils.jackson.AdminServerModule;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JdbcEventStoreTest {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+			.modulesToInstall(new AdminServerModule(new String[0])).build();
+
+	private final Registration registration = Registration.create("foo", "http://health").metadata("password", "secret")
+			.build();
+
+	private final DataSource dataSource = mock(DataSource.class);
+
+	private final Connection connection = mock(Connection.class);
+
+	private final PreparedStatement insert = mock(PreparedStatement.class);
+
+	private final PreparedStatement select = mock(PreparedStatement.class);
+
+	private final PreparedStatement count = mock(PreparedStatement.class);
+
+	private final PreparedStatement delete = mock(PreparedStatement.class);
+
+	private final ResultSet countRows = mock(ResultSet.class);
+
+	private final JdbcEventStore store = new JdbcEventStore(this.dataSource, this.objectMapper);
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		when(this.dataSource.getConnection()).thenReturn(this.connection);
+		when(this.connection.getAutoCommit()).thenReturn(true);
+		when(this.connection.prepareStatement(startsWith("INSERT"))).thenReturn(this.insert);
+		when(this.connection.prepareStatement(startsWith("SELECT"))).thenReturn(this.select);
+		when(this.connection.prepareStatement(startsWith("SELECT COUNT"))).thenReturn(this.count);
+		when(this.connection.prepareStatement(startsWith("DELETE"))).thenReturn(this.delete);
+		when(this.count.executeQuery()).thenReturn(this.countRows);
+	}
+
+	@Test
+	public void should_group_commit_concurrent_appends() throws Exception {
+		CountDownLatch firstBatchStarted = new CountDownLatch(1);
+		CountDownLatch firstBatchReleased = new CountDownLatch(1);
+		when(this.insert.executeBatch()).then((invocation) -> {
+			firstBatchStarted.countDown();
+			firstBatchReleased.await(5, TimeUnit.SECONDS);
+			return new int[0];
+		}).thenReturn(new int[0]);
+
+		Mono<Void> first = this.store.append(singletonList(registered("first")));
+		first.subscribe();
+		assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+		Mono<Void> secondAndThird = Mono.when(this.store.append(singletonList(registered("second"))),
+				this.store.append(singletonList(registered("third")))).cache();
+		secondAndThird.subscribe();
+		firstBatchReleased.countDown();
+
+		StepVerifier.create(secondAndThird).expectComplete().verify(Duration.ofSeconds(5));
+		await().untilAsserted(() -> verify(this.insert, times(2)).executeBatch());
+		verify(this.insert, times(3)).addBatch();
+		verify(this.connection, times(2)).commit();
+	}
+
+	@Test
+	public void should_reject_overtaken_version() throws Exception {
+		when(this.insert.executeBatch()).thenThrow(new SQLIntegrityConstraintViolationException("duplicate", "23505"));
+
+		StepVerifier.create(this.store.append(singletonList(registered("id"))))
+				.expectError(OptimisticLockingException.class).verify(Duration.ofSeconds(5));
+		verify(this.connection).rollback();
+	}
+
+	@Test
+	public void should_publish_appended_and_polled_events_once() throws Exception {
+		InstanceEvent appended = registered("id");
+		InstanceEvent polled = new InstanceStatusChangedEvent(InstanceId.of("id"), 1L, Instant.now(),
+				StatusInfo.ofUp());
+		ResultSet rows = mock(ResultSet.class);
+		when(this.select.executeQuery()).thenReturn(rows);
+		when(rows.next()).thenReturn(true, true, false);
+		when(rows.getLong(1)).thenReturn(1L, 2L);
+		when(rows.getString(2)).thenReturn(this.objectMapper.writeValueAsString(appended),
+				this.objectMapper.writeValueAsString(polled));
+		when(this.insert.executeBatch()).thenReturn(new int[0]);
+
+		StepVerifier.create(this.store).expectSubscription()
+				.then(() -> StepVerifier.create(this.store.append(singletonList(appended))).verifyComplete())
+				.expectNext(appended).then(this.store::poll).expectNext(polled).thenCancel()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void should_store_complete_events() throws Exception {
+		when(this.insert.executeBatch()).thenReturn(new int[0]);
+		InstanceEvent event = registered("id");
+
+		StepVerifier.create(this.store.append(singletonList(event))).expectComplete().verify(Duration.ofSeconds(5));
+
+		verify(this.insert).setString(5, this.objectMapper.writeValueAsString(event));
+		verify(this.connection).prepareStatement(startsWith("INSERT"));
+		verify(this.connection, never()).prepareStatement(startsWith("DELETE"));
+		assertThat(this.objectMapper.writeValueAsString(event)).contains("\"password\":\"secret\"");
+	}
+
+	@Test
+	public void should_compact_events_exceeding_max_log_size() throws Exception {
+		when(this.insert.executeBatch()).thenReturn(new int[0]);
+		when(this.countRows.next()).thenReturn(true);
+		when(this.countRows.getLong(1)).thenReturn(3L);
+		this.store.setMaxLogSizePerAggregate(2);
+
+		StepVerifier.create(this.store.append(singletonList(registered("id")))).expectComplete()
+				.verify(Duration.ofSeconds(5));
+
+		verify(this.delete).setString(1, "id");
+		verify(this.delete).executeUpdate();
+		verify(this.connection).commit();
+	}
+
+	@Test
+	public void should_page_in_database() throws Exception {
+		when(this.select.executeQuery()).thenReturn(mock(ResultSet.class));
+		Instant timestamp = Instant.ofEpochSecond(1L, 2L);
+		InstanceEventQuery query = InstanceEventQuery.builder()
+				.after(new InstanceEventQuery.Cursor(timestamp, InstanceId.of("id"), 3L)).limit(10).build();
+
+		StepVerifier.create(this.store.query(query)).expectComplete().verify(Duration.ofSeconds(5));
+
+		verify(this.connection).prepareStatement(contains(
+				"(EVENT_TIMESTAMP > ? OR (EVENT_TIMESTAMP = ? AND (INSTANCE_ID > ? OR (INSTANCE_ID = ? AND VERSION > ?))))"
+						+ " ORDER BY EVENT_TIMESTAMP, INSTANCE_ID, VERSION"));
+		verify(this.select).setObject(1, 1_000_000_002L);
+		verify(this.select).setObject(5, 3L);
+		verify(this.select).setMaxRows(10);
+	}
+
+	@Test
+	public void should_poll_on_own_thread() throws Exception {
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		ResultSet rows = mock(ResultSet.class);
+		when(this.select.executeQuery()).then((invocation) -> {
+			threads.add(Thread.currentThread().getName());
+			return rows;
+		});
+		this.store.setPollInterval(Duration.ofMillis(10L));
+
+		this.store.start();
+		try {
+			await().untilAsserted(
+					() -> assertThat(threads).anyMatch((name) -> name.startsWith("jdbc-event-store-poll")));
+			assertThat(threads).noneMatch((name) -> name.startsWith("parallel"));
+		}
+		finally {
+			this.store.stop();
+		}
+	}
+
+	private InstanceEvent registered(String id) {
+		return new InstanceRegisteredEvent(InstanceId.of(id), 0L, Instant.now(), this.registration);
+	}
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.domain.events.InstanceDeregisteredEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceStatusChangedEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+import de.codecentric.boot.admin.server.domain.values.StatusInfo;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CoalescingNotifierTest {
+
+	private static final Instance instance1 = Instance.create(InstanceId.of("id-1"))
+			.register(Registration.create("App", "http://health").build());
+
+	private static final Instance instance2 = Instance.create(InstanceId.of("id-2"))
+			.register(Registration.create("App", "http://health").build());
+
+	private static final Instance instance3 = Instance.create(InstanceId.of("id-3"))
+			.register(Registration.create("Other", "http://health").build());
+
+	private static final InstanceStatusChangedEvent app1Down = new InstanceStatusChangedEvent(instance1.getId(), 1L,
+			StatusInfo.ofDown());
+
+	private static final InstanceStatusChangedEvent app2Down = new InstanceStatusChangedEvent(instance2.getId(), 1L,
+			StatusInfo.ofDown());
+
+	private static final InstanceStatusChangedEvent app2Up = new InstanceStatusChangedEvent(instance2.getId(), 2L,
+			StatusInfo.ofUp());
+
+	private static final InstanceStatusChangedEvent otherDown = new InstanceStatusChangedEvent(instance3.getId(), 1L,
+			StatusInfo.ofDown());
+
+	private static final InstanceEvent app1Deregistered = new InstanceDeregisteredEvent(instance1.getId(), 2L);
+
+	private final List<InstanceEvent> events = new CopyOnWriteArrayList<>();
+
+	private final Notifier delegate = (event) -> Mono.fromRunnable(() -> this.events.add(event));
+
+	private InstanceRepository repository;
+
+	private CoalescingNotifier notifier;
+
+	@BeforeEach
+	public void setUp() {
+		this.repository = mock(InstanceRepository.class);
+		when(this.repository.find(any())).thenReturn(Mono.empty());
+		when(this.repository.find(instance1.getId())).thenReturn(Mono.just(instance1));
+		when(this.repository.find(instance2.getId())).thenReturn(Mono.just(instance2));
+		when(this.repository.find(instance3.getId())).thenReturn(Mono.just(instance3));
+		this.notifier = new CoalescingNotifier(this.delegate, this.repository);
+		this.notifier.setWindow(Duration.ofMillis(200));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.notifier.stop();
+	}
+
+	@Test
+	public void should_throw_on_invalid_ctor() {
+		assertThatThrownBy(() -> new CoalescingNotifier((Notifier) null, mock(InstanceRepository.class)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void should_group_status_changes_by_application_and_status() {
+		this.notifier.start();
+
+		StepVerifier.create(this.notifier.notify(app1Down)).verifyComplete();
+		StepVerifier.create(this.notifier.notify(app2Down)).verifyComplete();
+		StepVerifier.create(this.notifier.notify(otherDown)).verifyComplete();
+		assertThat(this.events).isEmpty();
+
+		await().until(() -> this.events.size() == 2);
+		assertThat(this.events).contains(otherDown);
+		assertThat(this.events).filteredOn(StatusChangeDigestEvent.class::isInstance).singleElement()
+				.satisfies((event) -> {
+					StatusChangeDigestEvent digest = (StatusChangeDigestEvent) event;
+					assertThat(digest.getApplication()).isEqualTo("App");
+					assertThat(digest.getStatusInfo()).isEqualTo(StatusInfo.ofDown());
+					assertThat(digest.getCount()).isEqualTo(2);
+					assertThat(digest.getInstances()).containsExactly(instance1.getId(), instance2.getId());
+				});
+	}
+
+	@Test
+	public void should_separate_groups_by_status() {
+		this.notifier.start();
+
+		StepVerifier.create(this.notifier.notify(app1Down)).verifyComplete();
+		StepVerifier.create(this.notifier.notify(app2Up)).verifyComplete();
+
+		await().until(() -> this.events.size() == 2);
+		assertThat(this.events).containsExactly(app1Down, app2Up);
+	}
+
+	@Test
+	public void should_pass_through_other_events() {
+		this.notifier.start();
+
+		StepVerifier.create(this.notifier.notify(app1Deregistered)).verifyComplete();
+
+		assertThat(this.events).containsExactly(app1Deregistered);
+	}
+
+	@Test
+	public void should_drop_pending_status_changes_of_deregistered_instance() {
+		this.notifier.start();
+
+		StepVerifier.create(this.notifier.notify(app1Down)).verifyComplete();
+		StepVerifier.create(this.notifier.notify(app2Down)).verifyComplete();
+		StepVerifier.create(this.notifier.notify(app1Deregistered)).verifyComplete();
+
+		await().until(() -> this.events.size() == 2);
+		assertThat(this.events).containsExactly(app1Deregistered, app2Down);
+	}
+
+	@Test
+	public void should_drop_status_changes_of_instances_deregistered_meanwhile() {
+		when(this.repository.find(instance1.getId())).thenReturn(Mono.just(instance1.deregister()));
+		this.notifier.start();
+
+		StepVerifier.create(this.notifier.notify(app1Down)).verifyComplete();
+		StepVerifier.create(this.notifier.notify(app2Down)).verifyComplete();
+
+		await().until(() -> this.events.size() == 1);
+		assertThat(this.events).containsExactly(app2Down);
+	}
+
+	@Test
+	public void should_not_send_ignored_changes_in_digest() {
+		InstanceStatusChangedEvent app1Up = new InstanceStatusChangedEvent(instance1.getId(), 1L, StatusInfo.ofUp());
+		AbstractStatusChangeNotifier statusChangeNotifier = new AbstractStatusChangeNotifier(this.repository) {
+			@Override
+			protected Mono<Void> doNotify(InstanceEvent event, Instance instance) {
+				return Mono.fromRunnable(() -> CoalescingNotifierTest.this.events.add(event));
+			}
+		};
+
+		StepVerifier.create(statusChangeNotifier.notify(new StatusChangeDigestEvent("App", asList(app1Up, app2Down))))
+				.verifyComplete();
+
+		assertThat(this.events).containsExactly(app2Down);
+		assertThat(statusChangeNotifier.getLastStatus(instance1.getId())).isEqualTo("UP");
+	}
+
+	@Test
+	public void should_pass_through_when_not_started() {
+		StepVerifier.create(this.notifier.notify(app1Down)).verifyComplete();
+
+		assertThat(this.events).containsExactly(app1Down);
+	}
+
+	@Test
+	public void should_flush_pending_groups_on_stop() {
+		this.notifier.setWindow(Duration.ofHours(1));
+		this.notifier.start();
+
+		StepVerifier.create(this.notifier.notify(app1Down)).verifyComplete();
+		this.notifier.stop();
+
+		await().until(() -> this.events.size() == 1);
+		assertThat(this.events).containsExactly(app1Down);
+	}
+
+	@Test
+	public void should_rate_limit_notifications() {
+		this.notifier.setMaxNotifications(2);
+		this.notifier.setRateLimitPeriod(Duration.ofSeconds(1));
+
+		assertThat(this.notifier.acquirePermit(this.delegate)).isZero();
+		assertThat(this.notifier.acquirePermit(this.delegate)).isZero();
+		assertThat(this.notifier.acquirePermit(this.delegate)).isPositive().isLessThanOrEqualTo(Duration.ofMillis(500));
+		assertThat(this.notifier.acquirePermit(this.delegate)).isGreaterThan(Duration.ofMillis(500))
+				.isLessThanOrEqualTo(Duration.ofSeconds(1));
+	}
+
+	@Test
+	public void should_rate_limit_each_delegate_separately() {
+		Notifier other = (event) -> Mono.empty();
+		CoalescingNotifier notifier = new CoalescingNotifier(asList(this.delegate, other), this.repository);
+		notifier.setMaxNotifications(1);
+		notifier.setRateLimitPeriod(Duration.ofSeconds(1));
+
+		assertThat(notifier.acquirePermit(this.delegate)).isZero();
+		assertThat(notifier.acquirePermit(other)).isZero();
+		assertThat(notifier.acquirePermit(this.delegate)).isPositive();
+		assertThat(notifier.acquirePermit(other)).isPositive();
+	}
+
+	@Test
+	public void should_not_rate_limit_when_disabled() {
+		this.notifier.setMaxNotifications(0);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(this.notifier.acquirePermit(this.delegate)).isZero();
+		}
+	}
+
+}
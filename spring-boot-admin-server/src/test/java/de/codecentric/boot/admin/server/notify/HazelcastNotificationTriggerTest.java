@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package de.codecentric.boot.admin.server.notify;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
 import reactor.test.publisher.TestPublisher;
 
 import de.codecentric.boot.admin.server.domain.entities.Instance;
@@ -27,12 +28,16 @@ import de.codecentric.boot.admin.server.domain.events.InstanceStatusChangedEvent
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
 import de.codecentric.boot.admin.server.domain.values.Registration;
 import de.codecentric.boot.admin.server.domain.values.StatusInfo;
+import de.codecentric.boot.admin.server.services.InstanceOwnership;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class HazelcastNotificationTriggerTest {
 
@@ -79,4 +84,47 @@ class HazelcastNotificationTriggerTest {
 		verify(this.notifier, never()).notify(event);
 	}
 
+	@Test
+	void should_trigger_notifications_as_owner_only() {
+		// given the trigger owns the instance
+		when(this.notifier.notify(any())).thenReturn(Mono.empty());
+		InstanceOwnership ownership = mock(InstanceOwnership.class);
+		when(ownership.isOwner(this.instance.getId())).thenReturn(true);
+		this.trigger.setOwnership(ownership);
+		this.trigger.start();
+		await().until(this.events::wasSubscribed);
+
+		// when status changed event is emitted twice
+		InstanceStatusChangedEvent event = new InstanceStatusChangedEvent(this.instance.getId(),
+				this.instance.getVersion(), StatusInfo.ofDown());
+		this.events.next(event, event);
+		// then should notify once without touching the distributed map
+		verify(this.notifier, times(1)).notify(event);
+		assertThat(this.sentNotifications).isEmpty();
+	}
+
+	@Test
+	void should_hand_over_notifications_when_ownership_changes() {
+		// given the trigger owned the instance and sent a notification
+		when(this.notifier.notify(any())).thenReturn(Mono.empty());
+		InstanceOwnership ownership = mock(InstanceOwnership.class);
+		when(ownership.isOwner(this.instance.getId())).thenReturn(true, false);
+		this.trigger.setOwnership(ownership);
+		this.trigger.start();
+		await().until(this.events::wasSubscribed);
+		InstanceStatusChangedEvent event = new InstanceStatusChangedEvent(this.instance.getId(),
+				this.instance.getVersion(), StatusInfo.ofDown());
+		this.events.next(event);
+
+		// when the ownership changed
+		InstanceStatusChangedEvent next = new InstanceStatusChangedEvent(this.instance.getId(),
+				this.instance.getVersion() + 1, StatusInfo.ofUp());
+		this.events.next(next);
+
+		// then should not notify and hand over the last sent notification
+		verify(this.notifier, times(1)).notify(event);
+		verify(this.notifier, never()).notify(next);
+		assertThat(this.sentNotifications).containsEntry(this.instance.getId(), event.getVersion());
+	}
+
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.time.Duration;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceStatusChangedEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+import de.codecentric.boot.admin.server.domain.values.StatusInfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HazelcastRemindingNotifierTest {
+
+	private static final Instance instance = Instance.create(InstanceId.of("id-1"))
+			.register(Registration.create("App", "http://health").build()).withStatusInfo(StatusInfo.ofDown());
+
+	private static final InstanceEvent appDown = new InstanceStatusChangedEvent(instance.getId(), 0L,
+			StatusInfo.ofDown());
+
+	private final TestHazelcastInstanceFactory factory = new TestHazelcastInstanceFactory(1);
+
+	private InstanceRepository repository;
+
+	private HazelcastInstance hazelcast;
+
+	private IMap<InstanceId, RemindingNotifier.Reminder> reminders;
+
+	@BeforeEach
+	public void setUp() {
+		this.repository = mock(InstanceRepository.class);
+		when(this.repository.find(any())).thenReturn(Mono.empty());
+		when(this.repository.find(instance.getId())).thenReturn(Mono.just(instance));
+		this.hazelcast = this.factory.newHazelcastInstance();
+		this.reminders = this.hazelcast.getMap("reminders");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.factory.shutdownAll();
+	}
+
+	@Test
+	public void should_store_reminders_in_map() {
+		TestNotifier notifier = new TestNotifier();
+		HazelcastRemindingNotifier reminder = createNotifier(notifier);
+		reminder.setReminderPeriod(Duration.ZERO);
+
+		StepVerifier.create(reminder.notify(appDown)).verifyComplete();
+		assertThat(this.reminders).containsKey(instance.getId());
+
+		StepVerifier.create(reminder.sendReminders()).verifyComplete();
+		assertThat(notifier.getEvents()).containsExactly(appDown, appDown);
+	}
+
+	@Test
+	public void should_restore_reminders_on_start() {
+		HazelcastRemindingNotifier first = createNotifier(new TestNotifier());
+		StepVerifier.create(first.notify(appDown)).verifyComplete();
+
+		TestNotifier notifier = new TestNotifier();
+		HazelcastRemindingNotifier second = createNotifier(notifier);
+		second.setReminderPeriod(Duration.ofMillis(10));
+		second.setCheckReminderInverval(Duration.ofMillis(10));
+		second.start();
+		try {
+			await().until(() -> notifier.getEvents().contains(appDown));
+		}
+		finally {
+			second.stop();
+		}
+	}
+
+	private HazelcastRemindingNotifier createNotifier(TestNotifier notifier) {
+		return new HazelcastRemindingNotifier(notifier, this.repository, this.reminders,
+				this.hazelcast.getPartitionService());
+	}
+
+}
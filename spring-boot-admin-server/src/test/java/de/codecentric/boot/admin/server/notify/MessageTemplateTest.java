@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelEvaluationException;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceRegisteredEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceStatusChangedEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+import de.codecentric.boot.admin.server.domain.values.StatusInfo;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MessageTemplateTest {
+
+	private final Instance instance = Instance.create(InstanceId.of("-id-"))
+			.register(Registration.create("App", "http://health").build());
+
+	private final InstanceEvent statusChanged = new InstanceStatusChangedEvent(this.instance.getId(), 1L,
+			StatusInfo.ofDown());
+
+	private final InstanceEvent registered = new InstanceRegisteredEvent(this.instance.getId(), 1L,
+			this.instance.getRegistration());
+
+	@Test
+	public void should_render_template() {
+		MessageTemplate template = MessageTemplate.of(
+				"#{instance.registration.name} (#{instance.id}) went from #{lastStatus} to #{event.statusInfo.status}");
+
+		assertThat(template.render(this.statusChanged, this.instance, "UP"))
+				.isEqualTo("App (-id-) went from UP to DOWN");
+		assertThat(template.getTemplate()).startsWith("#{instance.registration.name}");
+	}
+
+	@Test
+	public void should_render_different_event_types_after_compilation() {
+		MessageTemplate template = MessageTemplate.of("#{instance.registration.name} #{event.type}");
+
+		for (int i = 0; i < 500; i++) {
+			assertThat(template.render(this.statusChanged, this.instance, "UP")).isEqualTo("App STATUS_CHANGED");
+			assertThat(template.render(this.registered, this.instance, "UP")).isEqualTo("App REGISTERED");
+		}
+	}
+
+	@Test
+	public void should_resolve_map_entries_before_properties() {
+		MessageTemplate template = MessageTemplate.of("#{event.statusInfo.details.empty}");
+		InstanceEvent event = new InstanceStatusChangedEvent(this.instance.getId(), 1L,
+				StatusInfo.valueOf("DOWN", singletonMap("empty", "no")));
+
+		assertThat(template.render(event, this.instance, "UP")).isEqualTo("no");
+	}
+
+	@Test
+	public void should_share_parsed_expressions() {
+		assertThat(MessageTemplate.parseExpression("#{event.type}"))
+				.isSameAs(MessageTemplate.parseExpression("#{event.type}"));
+	}
+
+	@Test
+	public void should_fail_on_invalid_property() {
+		MessageTemplate template = MessageTemplate.of("#{event.statusInfo.status}");
+
+		assertThatThrownBy(() -> template.render(this.registered, this.instance, "UP"))
+				.isInstanceOf(SpelEvaluationException.class);
+	}
+
+}
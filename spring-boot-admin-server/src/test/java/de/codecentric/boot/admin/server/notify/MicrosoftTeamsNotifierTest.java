@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -141,8 +141,8 @@ class MicrosoftTeamsNotifierTest {
 
 	@Test
 	void test_getDeregisteredMessageForAppReturns_correctContent() {
-		Message message = notifier.getDeregisteredMessage(instance,
-				notifier.createEvaluationContext(new InstanceDeregisteredEvent(instance.getId(), 1L), instance));
+		Message message = notifier.getDeregisteredMessage(new InstanceDeregisteredEvent(instance.getId(), 1L),
+				instance);
 
 		assertMessage(message, notifier.getDeRegisteredTitle(), notifier.getMessageSummary(),
 				"Test App with id TestAppId has de-registered from Spring Boot Admin", BLUE);
@@ -150,8 +150,7 @@ class MicrosoftTeamsNotifierTest {
 
 	@Test
 	void test_getRegisteredMessageForAppReturns_correctContent() {
-		Message message = notifier.getRegisteredMessage(instance,
-				notifier.createEvaluationContext(new InstanceDeregisteredEvent(instance.getId(), 1L), instance));
+		Message message = notifier.getRegisteredMessage(new InstanceDeregisteredEvent(instance.getId(), 1L), instance);
 
 		assertMessage(message, notifier.getRegisteredTitle(), notifier.getMessageSummary(),
 				"Test App with id TestAppId has registered with Spring Boot Admin", BLUE);
@@ -159,8 +158,18 @@ class MicrosoftTeamsNotifierTest {
 
 	@Test
 	void test_getStatusChangedMessageForAppReturns_correctContent() {
-		Message message = notifier.getStatusChangedMessage(instance, notifier.createEvaluationContext(
-				new InstanceStatusChangedEvent(instance.getId(), 1L, StatusInfo.ofDown()), instance));
+		Message message = notifier.getStatusChangedMessage(
+				new InstanceStatusChangedEvent(instance.getId(), 1L, StatusInfo.ofDown()), instance);
+
+		assertMessage(message, notifier.getStatusChangedTitle(), notifier.getMessageSummary(),
+				"Test App with id TestAppId changed status from UNKNOWN to DOWN", RED);
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void test_deprecatedGetStatusChangedMessageForAppReturns_correctContent() {
+		InstanceStatusChangedEvent event = new InstanceStatusChangedEvent(instance.getId(), 1L, StatusInfo.ofDown());
+		Message message = notifier.getStatusChangedMessage(instance, notifier.createEvaluationContext(event, instance));
 
 		assertMessage(message, notifier.getStatusChangedTitle(), notifier.getMessageSummary(),
 				"Test App with id TestAppId changed status from UNKNOWN to DOWN", RED);
@@ -170,8 +179,8 @@ class MicrosoftTeamsNotifierTest {
 	void test_getStatusChangedMessageForAppReturns_UP_to_DOWN() {
 		notifier.updateLastStatus(new InstanceStatusChangedEvent(instance.getId(), 1L, StatusInfo.ofUp()));
 
-		Message message = notifier.getStatusChangedMessage(instance, notifier.createEvaluationContext(
-				new InstanceStatusChangedEvent(instance.getId(), 1L, StatusInfo.ofDown()), instance));
+		Message message = notifier.getStatusChangedMessage(
+				new InstanceStatusChangedEvent(instance.getId(), 1L, StatusInfo.ofDown()), instance);
 
 		assertMessage(message, notifier.getStatusChangedTitle(), notifier.getMessageSummary(),
 				"Test App with id TestAppId changed status from UP to DOWN", RED);
@@ -180,8 +189,8 @@ class MicrosoftTeamsNotifierTest {
 	@Test
 	void test_getStatusChangedMessageWithExtraFormatArgumentReturns_activitySubtitlePatternWithAppName() {
 		notifier.setStatusActivitySubtitle("STATUS_ACTIVITY_PATTERN_#{instance.registration.name}");
-		Message message = notifier.getStatusChangedMessage(instance,
-				notifier.createEvaluationContext(new InstanceDeregisteredEvent(instance.getId(), 1L), instance));
+		Message message = notifier.getStatusChangedMessage(new InstanceDeregisteredEvent(instance.getId(), 1L),
+				instance);
 
 		assertThat(message.getSections().get(0).getActivitySubtitle()).isEqualTo("STATUS_ACTIVITY_PATTERN_" + appName);
 	}
@@ -189,8 +198,7 @@ class MicrosoftTeamsNotifierTest {
 	@Test
 	void test_getRegisterMessageWithExtraFormatArgumentReturns_activitySubtitlePatternWithAppName() {
 		notifier.setRegisterActivitySubtitle("REGISTER_ACTIVITY_PATTERN_#{instance.registration.name}");
-		Message message = notifier.getRegisteredMessage(instance,
-				notifier.createEvaluationContext(new InstanceDeregisteredEvent(instance.getId(), 1L), instance));
+		Message message = notifier.getRegisteredMessage(new InstanceDeregisteredEvent(instance.getId(), 1L), instance);
 
 		assertThat(message.getSections().get(0).getActivitySubtitle())
 				.isEqualTo("REGISTER_ACTIVITY_PATTERN_" + appName);
@@ -199,8 +207,8 @@ class MicrosoftTeamsNotifierTest {
 	@Test
 	void test_getDeRegisterMessageWithExtraFormatArgumentReturns_activitySubtitlePatternWithAppName() {
 		notifier.setDeregisterActivitySubtitle("DEREGISTER_ACTIVITY_PATTERN_#{instance.registration.name}");
-		Message message = notifier.getDeregisteredMessage(instance,
-				notifier.createEvaluationContext(new InstanceDeregisteredEvent(instance.getId(), 1L), instance));
+		Message message = notifier.getDeregisteredMessage(new InstanceDeregisteredEvent(instance.getId(), 1L),
+				instance);
 
 		assertThat(message.getSections().get(0).getActivitySubtitle())
 				.isEqualTo("DEREGISTER_ACTIVITY_PATTERN_" + appName);
@@ -211,8 +219,8 @@ class MicrosoftTeamsNotifierTest {
 		notifier.setThemeColor(
 				"#{event.type == 'STATUS_CHANGED' ? (event.statusInfo.status=='UP' ? 'green' : 'red') : 'blue'}");
 
-		Message message = notifier.getStatusChangedMessage(instance, notifier.createEvaluationContext(
-				new InstanceStatusChangedEvent(instance.getId(), 1L, StatusInfo.ofUp()), instance));
+		Message message = notifier.getStatusChangedMessage(
+				new InstanceStatusChangedEvent(instance.getId(), 1L, StatusInfo.ofUp()), instance);
 
 		assertThat(message.getThemeColor()).isEqualTo("green");
 	}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.Options;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.test.StepVerifier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.badRequest;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+
+public class NotifierWebClientTest {
+
+	private final WireMockServer wireMock = new WireMockServer(Options.DYNAMIC_PORT);
+
+	private final NotifierWebClient webClient = new NotifierWebClient(WebClient.create(), 2, Duration.ofMillis(10),
+			Duration.ofMillis(50));
+
+	@BeforeEach
+	public void setUp() {
+		this.wireMock.start();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.wireMock.stop();
+	}
+
+	@Test
+	public void should_post_entity_with_headers() {
+		this.wireMock.stubFor(post(urlEqualTo("/hook")).willReturn(ok()));
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.add("X-Test", "foo");
+		HttpEntity<?> entity = new HttpEntity<>(Collections.singletonMap("text", "App is DOWN"), headers);
+
+		StepVerifier.create(this.webClient.post(URI.create(this.wireMock.url("/hook")), entity)).verifyComplete();
+
+		this.wireMock.verify(postRequestedFor(urlEqualTo("/hook")).withHeader("X-Test", equalTo("foo"))
+				.withRequestBody(equalToJson("{\"text\":\"App is DOWN\"}")));
+	}
+
+	@Test
+	public void should_expand_uri_variables() {
+		this.wireMock.stubFor(get(urlPathEqualTo("/send")).willReturn(ok()));
+
+		StepVerifier.create(this.webClient.get(this.wireMock.url("/send") + "?text={text}",
+				Collections.singletonMap("text", "App & co is DOWN"))).verifyComplete();
+
+		this.wireMock
+				.verify(getRequestedFor(urlPathEqualTo("/send")).withQueryParam("text", equalTo("App & co is DOWN")));
+	}
+
+	@Test
+	public void should_retry_on_server_error() {
+		this.wireMock.stubFor(post(urlEqualTo("/hook")).inScenario("retry").whenScenarioStateIs(STARTED)
+				.willReturn(serverError()).willSetStateTo("recovered"));
+		this.wireMock.stubFor(
+				post(urlEqualTo("/hook")).inScenario("retry").whenScenarioStateIs("recovered").willReturn(ok()));
+
+		StepVerifier.create(this.webClient.post(this.wireMock.url("/hook"), "{}")).verifyComplete();
+
+		this.wireMock.verify(2, postRequestedFor(urlEqualTo("/hook")));
+	}
+
+	@Test
+	public void should_retry_on_too_many_requests() {
+		this.wireMock.stubFor(post(urlEqualTo("/hook")).willReturn(aResponse().withStatus(429)));
+
+		StepVerifier.create(this.webClient.post(this.wireMock.url("/hook"), "{}"))
+				.verifyError(WebClientResponseException.TooManyRequests.class);
+
+		this.wireMock.verify(3, postRequestedFor(urlEqualTo("/hook")));
+	}
+
+	@Test
+	public void should_not_retry_on_client_error() {
+		this.wireMock.stubFor(post(urlEqualTo("/hook")).willReturn(badRequest()));
+
+		StepVerifier.create(this.webClient.post(this.wireMock.url("/hook"), "{}"))
+				.verifyError(WebClientResponseException.BadRequest.class);
+
+		this.wireMock.verify(1, postRequestedFor(urlEqualTo("/hook")));
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.notify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.events.InstanceEvent;
+import de.codecentric.boot.admin.server.domain.events.InstanceStatusChangedEvent;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.StatusInfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+public class QueuedNotifierTest {
+
+	private static final InstanceEvent APP_DOWN = new InstanceStatusChangedEvent(InstanceId.of("-"), 0L,
+			StatusInfo.ofDown());
+
+	private static final InstanceEvent APP_UP = new InstanceStatusChangedEvent(InstanceId.of("-"), 1L,
+			StatusInfo.ofUp());
+
+	private static final InstanceEvent APP_OFFLINE = new InstanceStatusChangedEvent(InstanceId.of("-"), 2L,
+			StatusInfo.ofOffline());
+
+	private final CountDownLatch unblock = new CountDownLatch(1);
+
+	private final List<InstanceEvent> sent = Collections.synchronizedList(new ArrayList<>());
+
+	private final Notifier blockingNotifier = (event) -> Mono.fromRunnable(() -> {
+		try {
+			this.unblock.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		this.sent.add(event);
+	});
+
+	private QueuedNotifier notifier;
+
+	@AfterEach
+	public void tearDown() {
+		this.unblock.countDown();
+		if (this.notifier != null) {
+			this.notifier.stop();
+		}
+	}
+
+	@Test
+	public void should_throw_for_invariants() {
+		assertThatThrownBy(() -> new QueuedNotifier(null, "test", 1, QueuedNotifier.OverflowPolicy.DROP_NEWEST))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(
+				() -> new QueuedNotifier(new TestNotifier(), "test", 0, QueuedNotifier.OverflowPolicy.DROP_NEWEST))
+						.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void should_send_notifications_asynchronously() {
+		this.notifier = new QueuedNotifier(this.blockingNotifier, "test", 10,
+				QueuedNotifier.OverflowPolicy.DROP_NEWEST);
+		this.notifier.start();
+
+		StepVerifier.create(this.notifier.notify(APP_DOWN)).verifyComplete();
+		StepVerifier.create(this.notifier.notify(APP_UP)).verifyComplete();
+		assertThat(this.sent).isEmpty();
+
+		this.unblock.countDown();
+		await().untilAsserted(() -> assertThat(this.sent).containsExactly(APP_DOWN, APP_UP));
+	}
+
+	@Test
+	public void should_send_with_configured_concurrency() {
+		this.notifier = new QueuedNotifier(this.blockingNotifier, "test", 10,
+				QueuedNotifier.OverflowPolicy.DROP_NEWEST);
+		this.notifier.setConcurrency(2);
+		this.notifier.start();
+
+		this.notifier.notify(APP_DOWN).block();
+		this.notifier.notify(APP_UP).block();
+		this.notifier.notify(APP_OFFLINE).block();
+		await().until(() -> this.notifier.getQueueSize() == 1);
+
+		this.unblock.countDown();
+		await().untilAsserted(() -> assertThat(this.sent).containsExactlyInAnyOrder(APP_DOWN, APP_UP, APP_OFFLINE));
+	}
+
+	@Test
+	public void should_send_notifications_after_idling() throws InterruptedException {
+		TestNotifier delegate = new TestNotifier();
+		this.notifier = new QueuedNotifier(delegate, "test", 10, QueuedNotifier.OverflowPolicy.DROP_NEWEST);
+		this.notifier.start();
+
+		this.notifier.notify(APP_DOWN).block();
+		await().untilAsserted(() -> assertThat(delegate.getEvents()).containsExactly(APP_DOWN));
+		Thread.sleep(50L);
+		this.notifier.notify(APP_UP).block();
+		await().untilAsserted(() -> assertThat(delegate.getEvents()).containsExactly(APP_DOWN, APP_UP));
+	}
+
+	@Test
+	public void should_drop_newest_when_full() {
+		this.notifier = new QueuedNotifier(this.blockingNotifier, "test", 1, QueuedNotifier.OverflowPolicy.DROP_NEWEST);
+		this.notifier.start();
+
+		this.notifier.notify(APP_DOWN).block();
+		await().until(() -> this.notifier.getQueueSize() == 0);
+		this.notifier.notify(APP_UP).block();
+		this.notifier.notify(APP_OFFLINE).block();
+		assertThat(this.notifier.getDroppedCount()).isEqualTo(1L);
+
+		this.unblock.countDown();
+		await().untilAsserted(() -> assertThat(this.sent).containsExactly(APP_DOWN, APP_UP));
+	}
+
+	@Test
+	public void should_drop_oldest_when_full() {
+		this.notifier = new QueuedNotifier(this.blockingNotifier, "test", 1, QueuedNotifier.OverflowPolicy.DROP_OLDEST);
+		this.notifier.start();
+
+		this.notifier.notify(APP_DOWN).block();
+		await().until(() -> this.notifier.getQueueSize() == 0);
+		this.notifier.notify(APP_UP).block();
+		this.notifier.notify(APP_OFFLINE).block();
+		assertThat(this.notifier.getDroppedCount()).isEqualTo(1L);
+
+		this.unblock.countDown();
+		await().untilAsserted(() -> assertThat(this.sent).containsExactly(APP_DOWN, APP_OFFLINE));
+	}
+
+	@Test
+	public void should_continue_on_exception() {
+		TestNotifier delegate = new TestNotifier();
+		Notifier failing = (event) -> (event == APP_DOWN) ? Mono.error(new IllegalStateException("Test"))
+				: delegate.notify(event);
+		this.notifier = new QueuedNotifier(failing, "test", 10, QueuedNotifier.OverflowPolicy.DROP_NEWEST);
+		this.notifier.start();
+
+		this.notifier.notify(APP_DOWN).block();
+		this.notifier.notify(APP_UP).block();
+
+		await().untilAsserted(() -> assertThat(delegate.getEvents()).containsExactly(APP_UP));
+	}
+
+	@Test
+	public void should_publish_metrics() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.notifier = new QueuedNotifier(this.blockingNotifier, "test", 10,
+				QueuedNotifier.OverflowPolicy.DROP_NEWEST);
+		this.notifier.bindTo(registry);
+		this.notifier.start();
+
+		this.notifier.notify(APP_DOWN).block();
+		this.notifier.notify(APP_UP).block();
+
+		await().untilAsserted(() -> assertThat(
+				registry.get("spring.boot.admin.notifications.queue.size").tag("notifier", "test").gauge().value())
+						.isEqualTo(1.0));
+		this.unblock.countDown();
+		await().untilAsserted(() -> assertThat(
+				registry.get("spring.boot.admin.notifications.queue.latency").tag("notifier", "test").timer().count())
+						.isEqualTo(2L));
+	}
+
+}
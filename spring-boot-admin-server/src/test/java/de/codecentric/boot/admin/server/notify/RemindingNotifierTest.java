@@ -17,6 +17,9 @@
 package de.codecentric.boot.admin.server.notify;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -137,6 +140,53 @@ public class RemindingNotifierTest {
 		assertThat(notifier.getEvents()).containsExactlyInAnyOrder(appDown);
 	}
 
+	@Test
+	public void should_only_poll_due_reminders() {
+		TestNotifier notifier = new TestNotifier();
+		RemindingNotifier reminder = new RemindingNotifier(notifier, this.repository);
+		reminder.setCheckReminderInverval(Duration.ofSeconds(1));
+		reminder.setReminderPeriod(Duration.ofMinutes(10));
+
+		StepVerifier.create(reminder.notify(appDown)).verifyComplete();
+		Instant now = Instant.now();
+
+		assertThat(reminder.pollDueReminders(now)).isEmpty();
+		assertThat(reminder.pollDueReminders(now.plus(Duration.ofMinutes(5)))).isEmpty();
+		assertThat(reminder.pollDueReminders(now.plus(Duration.ofMinutes(11)))).containsExactly(instance1.getId());
+		assertThat(reminder.pollDueReminders(now.plus(Duration.ofMinutes(12)))).isEmpty();
+	}
+
+	@Test
+	public void should_not_poll_ended_reminders() {
+		TestNotifier notifier = new TestNotifier();
+		RemindingNotifier reminder = new RemindingNotifier(notifier, this.repository);
+		reminder.setReminderPeriod(Duration.ofMinutes(10));
+
+		StepVerifier.create(reminder.notify(appDown)).verifyComplete();
+		StepVerifier.create(reminder.notify(appUp)).verifyComplete();
+
+		assertThat(reminder.pollDueReminders(Instant.now().plus(Duration.ofHours(1)))).isEmpty();
+	}
+
+	@Test
+	public void should_keep_reminder_state_in_given_map() {
+		TestNotifier notifier = new TestNotifier();
+		ConcurrentMap<InstanceId, RemindingNotifier.Reminder> reminders = new ConcurrentHashMap<>();
+		RemindingNotifier reminder = new RemindingNotifier(notifier, this.repository, reminders);
+		reminder.setReminderPeriod(Duration.ZERO);
+
+		StepVerifier.create(reminder.notify(appDown)).verifyComplete();
+		assertThat(reminders).containsKey(instance1.getId());
+		Instant before = reminders.get(instance1.getId()).getLastNotification();
+
+		StepVerifier.create(reminder.sendReminders()).verifyComplete();
+		assertThat(reminders.get(instance1.getId()).getLastNotification()).isAfterOrEqualTo(before);
+		assertThat(notifier.getEvents()).containsExactly(appDown, appDown);
+
+		StepVerifier.create(reminder.notify(appDeregister)).verifyComplete();
+		assertThat(reminders).isEmpty();
+	}
+
 	@Test
 	public void should_resubscribe_after_error() {
 		TestPublisher<InstanceEvent> eventPublisher = TestPublisher.create();
@@ -80,6 +80,52 @@ public class FilteringNotifierTest {
 		assertThat(notifier.getNotificationFilters()).doesNotContainKey(filter2.getId());
 	}
 
+	@Test
+	public void test_indexed_filters() {
+		TestNotifier delegate = new TestNotifier();
+		FilteringNotifier notifier = new FilteringNotifier(delegate, repository);
+
+		notifier.addFilter(new InstanceIdNotificationFilter(InstanceId.of("other"), null));
+		notifier.addFilter(new ApplicationNameNotificationFilter("bar", null));
+		StepVerifier.create(notifier.notify(event)).verifyComplete();
+		assertThat(delegate.getEvents()).containsExactly(event);
+
+		InstanceIdNotificationFilter instanceFilter = new InstanceIdNotificationFilter(instance.getId(), null);
+		notifier.addFilter(instanceFilter);
+		StepVerifier.create(notifier.notify(event)).verifyComplete();
+		assertThat(delegate.getEvents()).containsExactly(event);
+
+		notifier.removeFilter(instanceFilter.getId());
+		ApplicationNameNotificationFilter applicationFilter = new ApplicationNameNotificationFilter("foo", null);
+		notifier.addFilter(applicationFilter);
+		StepVerifier.create(notifier.notify(event)).verifyComplete();
+		assertThat(delegate.getEvents()).containsExactly(event);
+
+		notifier.removeFilter(applicationFilter.getId());
+		StepVerifier.create(notifier.notify(event)).verifyComplete();
+		assertThat(delegate.getEvents()).containsExactly(event, event);
+	}
+
+	@Test
+	public void test_expired_removal_in_expiry_order() {
+		FilteringNotifier notifier = new FilteringNotifier(new TestNotifier(), repository);
+		notifier.setCleanupInterval(Duration.ZERO);
+
+		InstanceIdNotificationFilter expired1 = new InstanceIdNotificationFilter(instance.getId(),
+				Instant.now().minus(Duration.ofSeconds(2)));
+		ApplicationNameNotificationFilter expired2 = new ApplicationNameNotificationFilter("foo",
+				Instant.now().minus(Duration.ofSeconds(1)));
+		ApplicationNameNotificationFilter active = new ApplicationNameNotificationFilter("foo",
+				Instant.now().plus(Duration.ofHours(1)));
+		notifier.addFilter(active);
+		notifier.addFilter(expired2);
+		notifier.addFilter(expired1);
+
+		StepVerifier.create(notifier.notify(event)).verifyComplete();
+
+		assertThat(notifier.getNotificationFilters()).containsOnlyKeys(active.getId());
+	}
+
 	@Test
 	public void test_filter() {
 		TestNotifier delegate = new TestNotifier();
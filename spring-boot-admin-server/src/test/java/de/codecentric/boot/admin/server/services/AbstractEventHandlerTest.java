@@ -17,7 +17,13 @@
 package de.codecentric.boot.admin.server.services;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
@@ -34,6 +40,10 @@ import de.codecentric.boot.admin.server.domain.events.InstanceRegisteredEvent;
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
 import de.codecentric.boot.admin.server.domain.values.Registration;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
 public class AbstractEventHandlerTest {
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractEventHandlerTest.class);
@@ -76,6 +86,68 @@ public class AbstractEventHandlerTest {
 				.expectNext(firstEvent, secondEvent).thenCancel().verify(Duration.ofSeconds(1));
 	}
 
+	@Test
+	public void should_keep_order_per_instance_when_partitioned() {
+		List<InstanceEvent> events = IntStream.range(0, 400)
+				.mapToObj((i) -> new InstanceRegisteredEvent(InstanceId.of("id-" + (i % 10)), i / 10, registration))
+				.collect(Collectors.toList());
+
+		TestEventHandler eventHandler = new TestEventHandler(Flux.fromIterable(events));
+		eventHandler.setParallelism(4);
+		eventHandler.start();
+
+		List<InstanceEvent> received = new ArrayList<>();
+		StepVerifier.create(eventHandler.getFlux()).recordWith(() -> received).expectNextCount(400).thenCancel()
+				.verify(Duration.ofSeconds(5));
+		eventHandler.stop();
+
+		Map<InstanceId, List<Long>> versions = received.stream().collect(Collectors.groupingBy(
+				InstanceEvent::getInstance, Collectors.mapping(InstanceEvent::getVersion, Collectors.toList())));
+		assertThat(versions).hasSize(10);
+		versions.values().forEach((v) -> assertThat(v).isSorted().hasSize(40));
+	}
+
+	@Test
+	public void should_resubscribe_after_error_when_partitioned() {
+		TestPublisher<InstanceEvent> testPublisher = TestPublisher.create();
+
+		TestEventHandler eventHandler = new TestEventHandler(testPublisher.flux());
+		eventHandler.setParallelism(2);
+		eventHandler.start();
+
+		await().until(() -> testPublisher.subscribeCount() == 1);
+		testPublisher.next(errorEvent);
+		await().until(() -> testPublisher.subscribeCount() == 2);
+
+		StepVerifier.create(eventHandler.getFlux()).expectSubscription()
+				.then(() -> testPublisher.next(firstEvent, secondEvent)).expectNext(firstEvent, secondEvent)
+				.thenCancel().verify(Duration.ofSeconds(1));
+		eventHandler.stop();
+	}
+
+	@Test
+	public void should_register_lag_per_rail() {
+		TestEventHandler eventHandler = new TestEventHandler(Flux.empty());
+		eventHandler.setParallelism(3);
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		eventHandler.bindTo(registry);
+
+		assertThat(registry.find("spring.boot.admin.events.handler.lag").tag("handler", "TestEventHandler").gauges())
+				.hasSize(3).allSatisfy((gauge) -> assertThat(gauge.value()).isEqualTo(0.0));
+		assertThat(eventHandler.getLag(2)).isZero();
+	}
+
+	@Test
+	public void should_not_change_parallelism_while_running() {
+		TestEventHandler eventHandler = new TestEventHandler(Flux.never());
+		eventHandler.start();
+
+		assertThatThrownBy(() -> eventHandler.setParallelism(2)).isInstanceOf(IllegalStateException.class);
+		eventHandler.stop();
+		assertThatThrownBy(() -> eventHandler.setParallelism(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
 	public static final class TestEventHandler extends AbstractEventHandler<InstanceRegisteredEvent> {
 
 		private final Sinks.Many<InstanceEvent> unicast;
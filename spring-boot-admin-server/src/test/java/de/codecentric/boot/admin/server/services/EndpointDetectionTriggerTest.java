@@ -53,6 +53,7 @@ public class EndpointDetectionTriggerTest {
 	@BeforeEach
 	public void setUp() throws Exception {
 		when(this.detector.detectEndpoints(any(InstanceId.class))).thenReturn(Mono.empty());
+		when(this.detector.redetectEndpoints(any(InstanceId.class))).thenReturn(Mono.empty());
 		this.trigger = new EndpointDetectionTrigger(this.detector, this.events.flux());
 		this.trigger.start();
 		await().until(this.events::wasSubscribed);
@@ -72,8 +73,8 @@ public class EndpointDetectionTriggerTest {
 		// when status-change event is emitted
 		this.events.next(new InstanceRegistrationUpdatedEvent(this.instance.getId(), this.instance.getVersion(),
 				this.instance.getRegistration()));
-		// then should update
-		verify(this.detector, times(1)).detectEndpoints(this.instance.getId());
+		// then should update discarding cached endpoints
+		verify(this.detector, times(1)).redetectEndpoints(this.instance.getId());
 	}
 
 	@Test
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HazelcastInstanceOwnershipTest {
+
+	private final TestHazelcastInstanceFactory factory = new TestHazelcastInstanceFactory(3);
+
+	private final List<Instance> instances = new CopyOnWriteArrayList<>();
+
+	private final InstanceRepository repository = mock(InstanceRepository.class);
+
+	@BeforeEach
+	public void setUp() {
+		when(this.repository.findAll()).thenAnswer((invocation) -> Flux.fromIterable(this.instances));
+		Registration registration = Registration.create("app", "http://health").build();
+		for (int i = 0; i < 100; i++) {
+			this.instances.add(Instance.create(InstanceId.of("instance-" + i)).register(registration));
+		}
+	}
+
+	@Test
+	public void should_assign_each_instance_to_exactly_one_member() {
+		HazelcastInstanceOwnership firstOwnership = createOwnership(this.factory.newHazelcastInstance());
+		HazelcastInstanceOwnership secondOwnership = createOwnership(this.factory.newHazelcastInstance());
+
+		await().untilAsserted(() -> {
+			assertOwnedExactlyOnce(firstOwnership, secondOwnership);
+			assertThat(getOwnedInstances(firstOwnership)).isNotEmpty();
+			assertThat(getOwnedInstances(secondOwnership)).isNotEmpty();
+		});
+	}
+
+	@Test
+	public void should_not_assign_instances_to_members_without_admin_server() {
+		HazelcastInstanceOwnership firstOwnership = createOwnership(this.factory.newHazelcastInstance());
+		this.factory.newHazelcastInstance();
+
+		assertThat(getOwnedInstances(firstOwnership)).hasSize(100);
+		assertOwnedExactlyOnce(firstOwnership);
+	}
+
+	@Test
+	public void should_not_own_deregistered_instances() {
+		HazelcastInstanceOwnership ownership = createOwnership(this.factory.newHazelcastInstance());
+		this.instances.set(0, this.instances.get(0).deregister());
+
+		assertThat(getOwnedInstances(ownership)).hasSize(99).doesNotContain(InstanceId.of("instance-0"));
+	}
+
+	@Test
+	public void should_reassign_instances_when_members_change() {
+		HazelcastInstanceOwnership firstOwnership = createOwnership(this.factory.newHazelcastInstance());
+		HazelcastInstance second = this.factory.newHazelcastInstance();
+		HazelcastInstanceOwnership secondOwnership = createOwnership(second);
+		await().untilAsserted(() -> assertOwnedExactlyOnce(firstOwnership, secondOwnership));
+
+		HazelcastInstanceOwnership thirdOwnership = createOwnership(this.factory.newHazelcastInstance());
+		await().untilAsserted(() -> {
+			assertThat(getOwnedInstances(thirdOwnership)).isNotEmpty();
+			assertOwnedExactlyOnce(firstOwnership, secondOwnership, thirdOwnership);
+		});
+
+		second.shutdown();
+		await().untilAsserted(() -> assertOwnedExactlyOnce(firstOwnership, thirdOwnership));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.factory.terminateAll();
+	}
+
+	private HazelcastInstanceOwnership createOwnership(HazelcastInstance hazelcast) {
+		HazelcastInstanceOwnership ownership = new HazelcastInstanceOwnership(hazelcast, this.repository,
+				hazelcast.getReplicatedMap("admin-members"));
+		ownership.start();
+		return ownership;
+	}
+
+	private static List<InstanceId> getOwnedInstances(InstanceOwnership ownership) {
+		return ownership.getOwnedInstances().collectList().block(Duration.ofSeconds(5));
+	}
+
+	private void assertOwnedExactlyOnce(InstanceOwnership... ownerships) {
+		for (Instance instance : this.instances) {
+			long owners = 0;
+			for (InstanceOwnership ownership : ownerships) {
+				if (ownership.isOwner(instance.getId())) {
+					assertThat(getOwnedInstances(ownership)).contains(instance.getId());
+					owners++;
+				}
+			}
+			assertThat(owners).as("owners of %s", instance.getId()).isEqualTo(1);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,15 @@ package de.codecentric.boot.admin.server.services;
 import java.time.Duration;
 import java.util.function.Function;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import de.codecentric.boot.admin.server.domain.values.InstanceId;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atLeastOnce;
@@ -92,6 +95,36 @@ public class IntervalCheckTest {
 		verify(this.checkFn, atLeast(2)).apply(InstanceId.of("Test"));
 	}
 
+	@Test
+	public void should_check_owned_instances_only() throws InterruptedException {
+		InstanceId owned = InstanceId.of("owned");
+		InstanceOwnership ownership = mock(InstanceOwnership.class);
+		when(ownership.getOwnedInstances()).thenReturn(Flux.just(owned));
+		this.intervalCheck.setOwnership(ownership);
+		this.intervalCheck.markAsChecked(INSTANCE_ID);
+
+		this.intervalCheck.start();
+		Thread.sleep(100);
+		verify(this.checkFn, atLeastOnce()).apply(owned);
+		verify(this.checkFn, never()).apply(INSTANCE_ID);
+	}
+
+	@Test
+	public void should_record_metrics() throws InterruptedException {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.intervalCheck.bindTo(registry);
+		this.intervalCheck.markAsChecked(INSTANCE_ID);
+
+		this.intervalCheck.start();
+		Thread.sleep(100);
+		assertThat(registry.get("spring.boot.admin.checks.duration").tag("check", "test").timer().count())
+				.isGreaterThan(0L);
+		assertThat(registry.get("spring.boot.admin.checks.instances").tag("check", "test").gauge().value())
+				.isEqualTo(1.0);
+		assertThat(registry.get("spring.boot.admin.checks.backlog").tag("check", "test").gauge().value())
+				.isEqualTo(0.0);
+	}
+
 	@AfterEach
 	public void tearDown() {
 		this.intervalCheck.stop();
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.SnapshottingInstanceRepository;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+import de.codecentric.boot.admin.server.eventstore.InMemoryEventStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TombstoneEvictorTest {
+
+	private final InMemoryEventStore eventStore = new InMemoryEventStore();
+
+	private final SnapshottingInstanceRepository repository = new SnapshottingInstanceRepository(this.eventStore);
+
+	private final List<InstanceId> evicted = new ArrayList<>();
+
+	private final TombstoneEvictor evictor = new TombstoneEvictor(this.repository, this.eventStore,
+			Arrays.asList(this.repository, this.evicted::add));
+
+	private final Registration registration = Registration.create("foo", "http://health").build();
+
+	@BeforeEach
+	public void setUp() {
+		this.repository.start();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.repository.stop();
+	}
+
+	@Test
+	public void should_evict_deregistered_instances_after_ttl() {
+		Instance deregistered = Instance.create(InstanceId.of("deregistered")).register(this.registration).deregister();
+		Instance registered = Instance.create(InstanceId.of("registered")).register(this.registration);
+		StepVerifier.create(this.repository.save(deregistered)).expectNextCount(1L).verifyComplete();
+		StepVerifier.create(this.repository.save(registered)).expectNextCount(1L).verifyComplete();
+
+		this.evictor.setTimeToLive(Duration.ofHours(1L));
+		StepVerifier.create(this.evictor.evictTombstones()).verifyComplete();
+		assertThat(this.evicted).isEmpty();
+
+		this.evictor.setTimeToLive(Duration.ofMillis(-1L));
+		StepVerifier.create(this.evictor.evictTombstones()).verifyComplete();
+
+		assertThat(this.evicted).containsExactly(deregistered.getId());
+		StepVerifier.create(this.eventStore.find(deregistered.getId())).verifyComplete();
+		StepVerifier.create(this.repository.findAll().map(Instance::getId)).expectNext(registered.getId())
+				.verifyComplete();
+	}
+
+	@Test
+	public void should_keep_reregistered_instance() {
+		Instance instance = Instance.create(InstanceId.of("id")).register(this.registration).deregister();
+		StepVerifier.create(this.repository.save(instance)).expectNextCount(1L).verifyComplete();
+		StepVerifier
+				.create(this.repository.computeIfPresent(instance.getId(),
+						(id, i) -> this.repository.save(i.register(this.registration))))
+				.expectNextCount(1L).verifyComplete();
+
+		this.evictor.setTimeToLive(Duration.ofMillis(-1L));
+		StepVerifier.create(this.evictor.evictTombstones()).verifyComplete();
+
+		assertThat(this.evicted).isEmpty();
+		StepVerifier.create(this.repository.find(instance.getId()))
+				.assertNext((i) -> assertThat(i.isRegistered()).isTrue()).verifyComplete();
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.services.endpoints;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.values.Endpoint;
+import de.codecentric.boot.admin.server.domain.values.Endpoints;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingEndpointDetectionStrategyTest {
+
+	private final AtomicInteger detections = new AtomicInteger();
+
+	private final EndpointDetectionStrategy delegate = (instance) -> Mono.fromSupplier(() -> {
+		this.detections.incrementAndGet();
+		String managementUrl = instance.getRegistration().getManagementUrl();
+		return Endpoints.single(Endpoint.HEALTH, managementUrl + "/health").withEndpoint(Endpoint.INFO,
+				managementUrl + "/info");
+	});
+
+	private final CachingEndpointDetectionStrategy strategy = new CachingEndpointDetectionStrategy(this.delegate,
+			Duration.ofMinutes(1L), 10);
+
+	@Test
+	public void should_reuse_endpoints_for_same_deployment() {
+		Instance instance1 = instance("1", "http://host1:8080/mgmt");
+		Instance instance2 = instance("2", "http://host2:8080/mgmt");
+
+		StepVerifier.create(this.strategy.detectEndpoints(instance1))
+				.expectNext(Endpoints.single(Endpoint.HEALTH, "http://host1:8080/mgmt/health")
+						.withEndpoint(Endpoint.INFO, "http://host1:8080/mgmt/info"))
+				.verifyComplete();
+		StepVerifier.create(this.strategy.detectEndpoints(instance2))
+				.expectNext(Endpoints.single(Endpoint.HEALTH, "http://host2:8080/mgmt/health")
+						.withEndpoint(Endpoint.INFO, "http://host2:8080/mgmt/info"))
+				.verifyComplete();
+
+		assertThat(this.detections).hasValue(1);
+	}
+
+	@Test
+	public void should_not_reuse_endpoints_for_different_deployment() {
+		StepVerifier.create(this.strategy.detectEndpoints(instance("1", "http://host1:8080/mgmt"))).expectNextCount(1)
+				.verifyComplete();
+		StepVerifier.create(this.strategy.detectEndpoints(instance("2", "http://host2:8080/actuator")))
+				.expectNextCount(1).verifyComplete();
+
+		assertThat(this.detections).hasValue(2);
+	}
+
+	@Test
+	public void should_detect_again_after_invalidation() {
+		Instance instance = instance("1", "http://host1:8080/mgmt");
+		StepVerifier.create(this.strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+
+		this.strategy.invalidate(instance);
+
+		StepVerifier.create(this.strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+		assertThat(this.detections).hasValue(2);
+	}
+
+	@Test
+	public void should_not_cache_endpoints_outside_management_url() {
+		CachingEndpointDetectionStrategy strategy = new CachingEndpointDetectionStrategy((instance) -> {
+			this.detections.incrementAndGet();
+			return Mono.just(Endpoints.single(Endpoint.HEALTH, "http://other/health"));
+		}, Duration.ofMinutes(1L), 10);
+
+		Instance instance = instance("1", "http://host1:8080/mgmt");
+		StepVerifier.create(strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+		StepVerifier.create(strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+
+		assertThat(this.detections).hasValue(2);
+	}
+
+	@Test
+	public void should_not_cache_incomplete_endpoints() {
+		CachingEndpointDetectionStrategy strategy = new CachingEndpointDetectionStrategy(
+				(instance) -> this.delegate.detectEndpoints(instance)
+						.flatMap((endpoints) -> CachingEndpointDetectionStrategy.incomplete().thenReturn(endpoints)),
+				Duration.ofMinutes(1L), 10);
+
+		Instance instance = instance("1", "http://host1:8080/mgmt");
+		StepVerifier.create(strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+		StepVerifier.create(strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+
+		assertThat(this.detections).hasValue(2);
+	}
+
+	private static Instance instance(String id, String managementUrl) {
+		Registration registration = Registration.create("app", managementUrl + "/health").managementUrl(managementUrl)
+				.metadata("version", "1.0.0").build();
+		return Instance.create(InstanceId.of(id)).register(registration);
+	}
+
+}
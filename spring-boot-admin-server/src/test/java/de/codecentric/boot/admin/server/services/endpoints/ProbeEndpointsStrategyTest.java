@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package de.codecentric.boot.admin.server.services.endpoints;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.core.Options;
@@ -45,6 +46,7 @@ import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions.retry;
 import static de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions.timeout;
 import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class ProbeEndpointsStrategyTest {
@@ -151,4 +153,52 @@ public class ProbeEndpointsStrategyTest {
 				.verifyComplete();
 	}
 
+	@Test
+	public void should_mark_detection_incomplete_on_failed_probes() {
+		// given
+		Instance instance = Instance.create(InstanceId.of("id")).register(Registration
+				.create("test", this.wireMock.url("/mgmt/health")).managementUrl(this.wireMock.url("/mgmt")).build());
+
+		this.wireMock.stubFor(options(urlEqualTo("/mgmt/info")).willReturn(ok()));
+		this.wireMock.stubFor(options(urlEqualTo("/mgmt/error")).willReturn(serverError()));
+
+		ProbeEndpointsStrategy probeStrategy = new ProbeEndpointsStrategy(this.instanceWebClient,
+				new String[] { "info", "error" });
+		AtomicInteger detections = new AtomicInteger();
+		CachingEndpointDetectionStrategy strategy = new CachingEndpointDetectionStrategy(
+				(i) -> probeStrategy.detectEndpoints(i).doOnSubscribe((s) -> detections.incrementAndGet()),
+				Duration.ofMinutes(1L), 10);
+
+		// when
+		StepVerifier.create(strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+		StepVerifier.create(strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+
+		// then
+		assertThat(detections).hasValue(2);
+	}
+
+	@Test
+	public void should_not_mark_detection_incomplete_on_missing_endpoints() {
+		// given
+		Instance instance = Instance.create(InstanceId.of("id")).register(Registration
+				.create("test", this.wireMock.url("/mgmt/health")).managementUrl(this.wireMock.url("/mgmt")).build());
+
+		this.wireMock.stubFor(options(urlEqualTo("/mgmt/info")).willReturn(ok()));
+		this.wireMock.stubFor(options(urlEqualTo("/mgmt/non-exist")).willReturn(notFound()));
+
+		ProbeEndpointsStrategy probeStrategy = new ProbeEndpointsStrategy(this.instanceWebClient,
+				new String[] { "info", "non-exist" });
+		AtomicInteger detections = new AtomicInteger();
+		CachingEndpointDetectionStrategy strategy = new CachingEndpointDetectionStrategy(
+				(i) -> probeStrategy.detectEndpoints(i).doOnSubscribe((s) -> detections.incrementAndGet()),
+				Duration.ofMinutes(1L), 10);
+
+		// when
+		StepVerifier.create(strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+		StepVerifier.create(strategy.detectEndpoints(instance)).expectNextCount(1).verifyComplete();
+
+		// then
+		assertThat(detections).hasValue(1);
+	}
+
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.utils.jackson;
+
+import java.util.Collections;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+import de.codecentric.boot.admin.server.domain.values.StatusInfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class InstanceJsonCacheTest {
+
+	private final InstanceJsonCache cache = spy(new InstanceJsonCache());
+
+	private final ObjectMapper cachingMapper = Jackson2ObjectMapperBuilder.json()
+			.modules(new AdminServerModule(new String[] { ".*password$" }, this.cache), new JavaTimeModule()).build();
+
+	private final ObjectMapper plainMapper = Jackson2ObjectMapperBuilder.json()
+			.modules(new AdminServerModule(new String[] { ".*password$" }), new JavaTimeModule()).build();
+
+	private final Instance instance = Instance.create(InstanceId.of("abc")).register(
+			Registration.create("tést", "http://localhost:8080/health").metadata("password", "secret").build());
+
+	@Test
+	public void should_serialize_same_as_uncached() throws JsonProcessingException {
+		String json = this.cachingMapper.writeValueAsString(this.instance);
+
+		assertThat(json).isEqualTo(this.plainMapper.writeValueAsString(this.instance));
+		assertThat(json).doesNotContain("secret");
+		assertThat(this.cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void should_reuse_cached_json_for_same_version() throws JsonProcessingException {
+		this.cachingMapper.writeValueAsString(this.instance);
+
+		assertThat(this.cache.getJson(this.instance, this.lastScope(), (i) -> "not-cached"))
+				.doesNotContain("not-cached");
+		assertThat(this.cachingMapper.writeValueAsString(Collections.singletonList(this.instance)))
+				.isEqualTo(this.plainMapper.writeValueAsString(Collections.singletonList(this.instance)));
+	}
+
+	@Test
+	public void should_replace_entry_on_new_version() throws JsonProcessingException {
+		this.cachingMapper.writeValueAsString(this.instance);
+
+		Instance updated = this.instance.withStatusInfo(StatusInfo.ofUp());
+		String json = this.cachingMapper.writeValueAsString(updated);
+
+		assertThat(json).isEqualTo(this.plainMapper.writeValueAsString(updated)).contains("\"UP\"");
+		assertThat(this.cache.size()).isEqualTo(1);
+		Object scope = this.lastScope();
+		assertThat(this.cache.getJson(updated, scope, (i) -> "not-cached")).isEqualTo(json);
+		assertThat(this.cache.getJson(this.instance, scope, (i) -> "old")).isEqualTo("old");
+		assertThat(this.cache.getJson(updated, scope, (i) -> "not-cached")).isEqualTo(json);
+	}
+
+	@Test
+	public void should_not_cache_deregistered_instances() throws JsonProcessingException {
+		this.cachingMapper.writeValueAsString(this.instance);
+
+		Instance deregistered = this.instance.deregister();
+		assertThat(this.cachingMapper.writeValueAsString(deregistered))
+				.isEqualTo(this.plainMapper.writeValueAsString(deregistered));
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	public void should_not_share_json_between_mappers_with_different_config() throws JsonProcessingException {
+		ObjectMapper snakeCaseMapper = Jackson2ObjectMapperBuilder.json()
+				.modules(new AdminServerModule(new String[] { ".*password$" }, this.cache), new JavaTimeModule())
+				.propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE).build();
+
+		assertThat(this.cachingMapper.writeValueAsString(this.instance)).contains("\"statusInfo\"");
+		assertThat(snakeCaseMapper.writeValueAsString(this.instance)).contains("\"status_info\"");
+		assertThat(this.cachingMapper.writeValueAsString(this.instance)).contains("\"statusInfo\"");
+	}
+
+	@Test
+	public void should_keep_generator_features() throws JsonProcessingException {
+		this.cachingMapper.writeValueAsString(this.instance);
+
+		ObjectWriter escaping = this.cachingMapper.writer().with(JsonWriteFeature.ESCAPE_NON_ASCII);
+		assertThat(escaping.writeValueAsString(this.instance)).isEqualTo(
+				this.plainMapper.writer().with(JsonWriteFeature.ESCAPE_NON_ASCII).writeValueAsString(this.instance))
+				.contains("t\\u00E9st");
+		assertThat(this.cachingMapper.writerWithDefaultPrettyPrinter().writeValueAsString(this.instance))
+				.isEqualTo(this.plainMapper.writerWithDefaultPrettyPrinter().writeValueAsString(this.instance));
+	}
+
+	private Object lastScope() {
+		ArgumentCaptor<Object> scope = ArgumentCaptor.forClass(Object.class);
+		verify(this.cache, atLeastOnce()).getJson(any(), scope.capture(), any());
+		return scope.getValue();
+	}
+
+}
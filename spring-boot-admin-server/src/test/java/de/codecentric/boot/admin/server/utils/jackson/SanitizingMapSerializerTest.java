@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.utils.jackson;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SanitizingMapSerializerTest {
+
+	private static final String[] DEFAULT_PATTERNS = { ".*password$", ".*secret$", ".*key$", ".*token$",
+			".*credentials.*", ".*vcap_services$" };
+
+	@Test
+	public void should_sanitize_default_patterns() throws JsonProcessingException {
+		Map<String, String> metadata = new LinkedHashMap<>();
+		metadata.put("user.password", "secret");
+		metadata.put("API-KEY", "secret");
+		metadata.put("my.Credentials.user", "secret");
+		metadata.put("token", "secret");
+		metadata.put("tokens", "visible");
+		metadata.put("keystore", "visible");
+		metadata.put("name", "visible");
+		metadata.put("null-secret", null);
+
+		assertThat(serialize(DEFAULT_PATTERNS, metadata)).isEqualTo("{\"user.password\":\"******\","
+				+ "\"API-KEY\":\"******\",\"my.Credentials.user\":\"******\",\"token\":\"******\","
+				+ "\"tokens\":\"visible\",\"keystore\":\"visible\",\"name\":\"visible\",\"null-secret\":null}");
+	}
+
+	@Test
+	public void should_sanitize_combined_regex_patterns() throws JsonProcessingException {
+		Map<String, String> metadata = new LinkedHashMap<>();
+		metadata.put("db.pass", "secret");
+		metadata.put("AUTH_HEADER", "secret");
+		metadata.put("aa", "secret");
+		metadata.put("ab", "visible");
+
+		assertThat(serialize(new String[] { "db\\.pass(word)?", "auth_.*", "(a)\\1" }, metadata))
+				.isEqualTo("{\"db.pass\":\"******\",\"AUTH_HEADER\":\"******\",\"aa\":\"******\",\"ab\":\"visible\"}");
+	}
+
+	@Test
+	public void should_return_same_results_when_cached() throws JsonProcessingException {
+		Map<String, String> metadata = new LinkedHashMap<>();
+		metadata.put("password", "secret");
+		metadata.put("name", "visible");
+		SanitizingMapSerializer serializer = new SanitizingMapSerializer(DEFAULT_PATTERNS);
+
+		String first = serialize(serializer, metadata);
+		String second = serialize(serializer, metadata);
+
+		assertThat(first).isEqualTo(second).isEqualTo("{\"password\":\"******\",\"name\":\"visible\"}");
+	}
+
+	private static String serialize(String[] patterns, Map<String, String> metadata) throws JsonProcessingException {
+		return serialize(new SanitizingMapSerializer(patterns), metadata);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static String serialize(SanitizingMapSerializer serializer, Map<String, String> metadata)
+			throws JsonProcessingException {
+		SimpleModule module = new SimpleModule();
+		module.addSerializer((Class) Map.class, serializer);
+		return new ObjectMapper().registerModule(module).writeValueAsString(metadata);
+	}
+
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
@@ -41,6 +42,7 @@ import de.codecentric.boot.admin.server.AdminReactiveApplicationTest;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class InstancesControllerIntegrationTest {
@@ -88,6 +90,32 @@ public class InstancesControllerIntegrationTest {
 				.isEqualTo(emptyList());
 	}
 
+	@Test
+	public void should_return_paginated_instances_and_events() {
+		List<String> ids = Stream.of("a", "b", "c").map(this::register).sorted().collect(toList());
+
+		String cursor = this.client.get().uri("/instances?limit=2").exchange().expectStatus().isOk().expectHeader()
+				.valueEquals(InstancesController.NEXT_CURSOR_HEADER, ids.get(1)).expectBody().jsonPath("$.length()")
+				.isEqualTo(2).jsonPath("$[0].id").isEqualTo(ids.get(0)).returnResult().getResponseHeaders()
+				.getFirst(InstancesController.NEXT_CURSOR_HEADER);
+		this.client.get().uri("/instances?limit=2&cursor=" + cursor).exchange().expectStatus().isOk().expectHeader()
+				.doesNotExist(InstancesController.NEXT_CURSOR_HEADER).expectBody().jsonPath("$.length()").isEqualTo(1)
+				.jsonPath("$[0].id").isEqualTo(ids.get(2));
+		this.client.get().uri("/instances?name=b&status=UNKNOWN&status=DOWN&status=OFFLINE").exchange().expectStatus()
+				.isOk().expectBody().jsonPath("$.length()").isEqualTo(1).jsonPath("$[0].registration.name")
+				.isEqualTo("b");
+		this.client.get().uri("/instances?status=UP").exchange().expectStatus().isOk().expectBody()
+				.jsonPath("$.length()").isEqualTo(0);
+
+		this.client.get().uri("/instances/events?name=c&type=REGISTERED").accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isOk().expectBody().jsonPath("$.length()").isEqualTo(1)
+				.jsonPath("$[0].registration.name").isEqualTo("c");
+		this.client.get().uri("/instances/events?type=REGISTERED&limit=1").accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isOk().expectHeader().exists(InstancesController.NEXT_CURSOR_HEADER);
+		this.client.get().uri("/instances/events?cursor=!!!").accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isBadRequest();
+	}
+
 	@Test
 	public void should_return_not_found_when_deleting_unknown_instance() {
 		this.client.delete().uri("/instances/unknown").exchange().expectStatus().isNotFound();
@@ -178,6 +206,14 @@ public class InstancesControllerIntegrationTest {
 				.expectBody(Map.class).isEqualTo(singletonMap("id", id));
 	}
 
+	private String register(String name) {
+		String registration = "{ \"name\": \"" + name + "\", \"healthUrl\": \"http://localhost:" + localPort + "/"
+				+ name + "/health\" }";
+		return this.client.post().uri("/instances").accept(MediaType.APPLICATION_JSON)
+				.contentType(MediaType.APPLICATION_JSON).bodyValue(registration).exchange().expectStatus().isCreated()
+				.expectBody(RESPONSE_TYPE).returnResult().getResponseBody().get("id").toString();
+	}
+
 	private String register() {
 		//@formatter:off
 		EntityExchangeResult<Map<String, Object>> result = client.post()
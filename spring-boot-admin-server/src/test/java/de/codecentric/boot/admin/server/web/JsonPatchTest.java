@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonPatchTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	public void should_return_empty_patch_for_equal_documents() throws JsonProcessingException {
+		assertThat(diff("{\"a\":1,\"b\":[1,2]}", "{\"a\":1,\"b\":[1,2]}")).isEmpty();
+	}
+
+	@Test
+	public void should_diff_objects_field_by_field() throws JsonProcessingException {
+		JsonNode patch = diff("{\"a\":1,\"b\":{\"c\":\"x\",\"d\":true},\"e\":2}",
+				"{\"a\":1,\"b\":{\"c\":\"y\",\"d\":true},\"f\":3}");
+
+		assertThat(patch.toString()).isEqualTo(
+				"[{\"op\":\"remove\",\"path\":\"/e\"}," + "{\"op\":\"replace\",\"path\":\"/b/c\",\"value\":\"y\"},"
+						+ "{\"op\":\"add\",\"path\":\"/f\",\"value\":3}]");
+	}
+
+	@Test
+	public void should_diff_arrays_of_same_size_by_element() throws JsonProcessingException {
+		JsonNode patch = diff("{\"list\":[{\"s\":\"UP\"},{\"s\":\"UP\"}]}",
+				"{\"list\":[{\"s\":\"UP\"},{\"s\":\"DOWN\"}]}");
+
+		assertThat(patch.toString()).isEqualTo("[{\"op\":\"replace\",\"path\":\"/list/1/s\",\"value\":\"DOWN\"}]");
+	}
+
+	@Test
+	public void should_replace_arrays_of_different_size() throws JsonProcessingException {
+		JsonNode patch = diff("{\"list\":[1]}", "{\"list\":[1,2]}");
+
+		assertThat(patch.toString()).isEqualTo("[{\"op\":\"replace\",\"path\":\"/list\",\"value\":[1,2]}]");
+	}
+
+	@Test
+	public void should_escape_pointer() throws JsonProcessingException {
+		JsonNode patch = diff("{\"a/b~c\":1}", "{\"a/b~c\":2}");
+
+		assertThat(patch.toString()).isEqualTo("[{\"op\":\"replace\",\"path\":\"/a~1b~0c\",\"value\":2}]");
+	}
+
+	private JsonNode diff(String source, String target) throws JsonProcessingException {
+		return JsonPatch.diff(this.objectMapper.readTree(source), this.objectMapper.readTree(target));
+	}
+
+}
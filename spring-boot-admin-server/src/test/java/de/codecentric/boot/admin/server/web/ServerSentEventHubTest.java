@@ -0,0 +1,213 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.entities.EventsourcingInstanceRepository;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+import de.codecentric.boot.admin.server.eventstore.InMemoryEventStore;
+import de.codecentric.boot.admin.server.services.ApplicationRegistry;
+import de.codecentric.boot.admin.server.services.HashingInstanceUrlIdGenerator;
+import de.codecentric.boot.admin.server.services.InstanceRegistry;
+import de.codecentric.boot.admin.server.utils.jackson.AdminServerModule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class ServerSentEventHubTest {
+
+	private final InMemoryEventStore eventStore = new InMemoryEventStore();
+
+	private final InstanceRegistry instanceRegistry = new InstanceRegistry(
+			new EventsourcingInstanceRepository(this.eventStore), new HashingInstanceUrlIdGenerator());
+
+	private final ApplicationRegistry applicationRegistry = new ApplicationRegistry(this.instanceRegistry,
+			this.eventStore);
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+			.modulesToInstall(new AdminServerModule(new String[] { ".*password$" })).build();
+
+	@Test
+	public void should_share_event_frames_between_subscribers() {
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, this.instanceRegistry,
+				this.applicationRegistry, this.objectMapper);
+
+		Flux<String> first = hub.getEventStream().map(ServerSentEvent::data);
+		Flux<String> second = hub.getEventStream().map(ServerSentEvent::data);
+
+		StepVerifier.create(Flux.zip(first, second)).then(() -> this.register("app")).assertNext((frames) -> {
+			assertThat(frames.getT1()).contains("\"type\":\"REGISTERED\"");
+			assertThat(frames.getT2()).isSameAs(frames.getT1());
+		}).thenCancel().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void should_replay_events_after_last_event_id() {
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, this.instanceRegistry,
+				this.applicationRegistry, this.objectMapper);
+
+		List<ServerSentEvent<String>> received = new ArrayList<>();
+		StepVerifier.create(hub.getEventStream()).then(() -> this.register("app-1")).recordWith(() -> received)
+				.expectNextCount(1).thenCancel().verify(Duration.ofSeconds(5));
+		String lastEventId = received.get(0).id();
+		assertThat(lastEventId).isNotNull();
+
+		this.register("app-2");
+		this.register("app-3");
+
+		StepVerifier.create(hub.getEventStream(lastEventId).map(ServerSentEvent::data))
+				.assertNext((json) -> assertThat(json).contains("app-2"))
+				.assertNext((json) -> assertThat(json).contains("app-3")).then(() -> this.register("app-4"))
+				.assertNext((json) -> assertThat(json).contains("app-4")).thenCancel().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void should_send_reset_when_events_cannot_be_replayed() {
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, this.instanceRegistry,
+				this.applicationRegistry, this.objectMapper);
+
+		StepVerifier.create(hub.getEventStream("unknown:1"))
+				.assertNext((frame) -> assertThat(frame.event()).isEqualTo("reset")).then(() -> this.register("app"))
+				.assertNext((frame) -> assertThat(frame.data()).contains("\"type\":\"REGISTERED\"")).thenCancel()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void should_emit_only_frames_of_requested_instance() {
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, this.instanceRegistry,
+				this.applicationRegistry, this.objectMapper);
+		InstanceId id = new HashingInstanceUrlIdGenerator().generateId(this.registration("app"));
+
+		StepVerifier.create(hub.getInstanceStream(id).map(ServerSentEvent::data)).then(() -> {
+			this.register("other");
+			this.register("app");
+		}).assertNext((json) -> assertThat(json).contains("\"id\":\"" + id + "\"").contains("\"name\":\"app\""))
+				.thenCancel().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void should_not_look_up_instances_without_subscribers() {
+		InstanceRegistry registry = spy(this.instanceRegistry);
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, registry, this.applicationRegistry,
+				this.objectMapper);
+		InstanceId id = new HashingInstanceUrlIdGenerator().generateId(this.registration("app"));
+		InstanceId otherId = new HashingInstanceUrlIdGenerator().generateId(this.registration("other"));
+
+		StepVerifier.create(hub.getInstanceStream(id)).then(() -> {
+			this.register("other");
+			this.register("app");
+		}).expectNextCount(1).thenCancel().verify(Duration.ofSeconds(5));
+
+		verify(registry, never()).getInstance(otherId);
+	}
+
+	@Test
+	public void should_emit_application_frames() {
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, this.instanceRegistry,
+				this.applicationRegistry, this.objectMapper);
+
+		StepVerifier.create(hub.getApplicationStream().map(ServerSentEvent::data)).then(() -> this.register("app"))
+				.assertNext((json) -> assertThat(json).contains("\"name\":\"app\"").contains("\"instances\":["))
+				.thenCancel().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void should_complete_stream_of_slow_subscriber() {
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, this.instanceRegistry,
+				this.applicationRegistry, this.objectMapper, 1);
+
+		StepVerifier.create(hub.getEventStream(), 0).then(() -> {
+			this.register("app-1");
+			this.register("app-2");
+			this.register("app-3");
+		}).thenRequest(10).expectNextCount(1).expectComplete().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void should_coalesce_application_updates() {
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, this.instanceRegistry,
+				this.applicationRegistry, this.objectMapper, 16, Duration.ofMillis(500L));
+
+		StepVerifier.create(hub.getApplicationStream().map(ServerSentEvent::data)).then(() -> {
+			this.register("app", "http://host-1/health");
+			this.register("app", "http://host-2/health");
+			this.register("app", "http://host-3/health");
+		}).assertNext((json) -> assertThat(json).contains("host-1").contains("host-2").contains("host-3"))
+				.expectNoEvent(Duration.ofMillis(600L)).thenCancel().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void should_emit_patches_to_delta_subscribers() {
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, this.instanceRegistry,
+				this.applicationRegistry, this.objectMapper);
+
+		StepVerifier.create(hub.getApplicationDeltaStream()).then(() -> this.register("app", "http://host-1/health"))
+				.assertNext((frame) -> {
+					assertThat(frame.event()).isNull();
+					assertThat(frame.data()).contains("host-1");
+				}).then(() -> this.register("app", "http://host-2/health")).assertNext((frame) -> {
+					assertThat(frame.event()).isEqualTo("patch");
+					assertThat(frame.data()).startsWith("{\"name\":\"app\",\"patch\":[")
+							.contains("\"path\":\"/instances\"").contains("host-2");
+				}).thenCancel().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void should_count_subscribers() {
+		ServerSentEventHub hub = new ServerSentEventHub(this.eventStore, this.instanceRegistry,
+				this.applicationRegistry, this.objectMapper);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		hub.bindTo(registry);
+
+		StepVerifier.create(hub.getEventStream()).then(() -> {
+			assertThat(registry.get("spring.boot.admin.sse.subscribers").tag("stream", "events").gauge().value())
+					.isEqualTo(1.0);
+			assertThat(registry.get("spring.boot.admin.sse.subscribers").tag("stream", "applications").gauge().value())
+					.isEqualTo(0.0);
+		}).thenCancel().verify(Duration.ofSeconds(5));
+
+		assertThat(registry.get("spring.boot.admin.sse.subscribers").tag("stream", "events").gauge().value())
+				.isEqualTo(0.0);
+	}
+
+	private InstanceId register(String name, String healthUrl) {
+		return this.instanceRegistry.register(Registration.create(name, healthUrl).build()).block();
+	}
+
+	private InstanceId register(String name) {
+		return this.instanceRegistry.register(this.registration(name)).block();
+	}
+
+	private Registration registration(String name) {
+		return Registration.create(name, "http://" + name + "/health").build();
+	}
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.web.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.values.Endpoint;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.web.client.exception.CircuitBreakerOpenException;
+
+import static de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions.ATTRIBUTE_ENDPOINT;
+import static de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions.ATTRIBUTE_PROXIED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerInstanceExchangeFilterFunctionTest {
+
+	private static final Instance INSTANCE = Instance.create(InstanceId.of("i"));
+
+	private static final ClientRequest INFO_REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("/info"))
+			.attribute(ATTRIBUTE_ENDPOINT, Endpoint.INFO).build();
+
+	private static final ClientRequest HEALTH_REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("/health"))
+			.attribute(ATTRIBUTE_ENDPOINT, Endpoint.HEALTH).build();
+
+	private static final ClientRequest PROXIED_HEALTH_REQUEST = ClientRequest.from(HEALTH_REQUEST)
+			.attribute(ATTRIBUTE_PROXIED, true).build();
+
+	private static final ClientRequest ENV_REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("/env"))
+			.attribute(ATTRIBUTE_ENDPOINT, "env").build();
+
+	private final AtomicLong invocations = new AtomicLong(0L);
+
+	private final ExchangeFunction failing = (request) -> Mono.defer(() -> {
+		this.invocations.incrementAndGet();
+		return Mono.error(new IOException("Connection refused"));
+	});
+
+	private final ExchangeFunction succeeding = (request) -> Mono.fromSupplier(() -> {
+		this.invocations.incrementAndGet();
+		return ClientResponse.create(HttpStatus.OK).build();
+	});
+
+	private Instant now = Instant.ofEpochSecond(1_000L);
+
+	private final Clock clock = new Clock() {
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return CircuitBreakerInstanceExchangeFilterFunctionTest.this.now;
+		}
+	};
+
+	private final CircuitBreakerInstanceExchangeFilterFunction filter = new CircuitBreakerInstanceExchangeFilterFunction(
+			2, Duration.ofSeconds(30L), this.clock);
+
+	@Test
+	void should_open_after_consecutive_failures() {
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.failing)).verifyError(IOException.class);
+		assertThat(this.filter.isOpen(INSTANCE.getId())).isFalse();
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.failing)).verifyError(IOException.class);
+		assertThat(this.filter.isOpen(INSTANCE.getId())).isTrue();
+
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.failing))
+				.verifyError(CircuitBreakerOpenException.class);
+		assertThat(this.invocations.get()).isEqualTo(2L);
+	}
+
+	@Test
+	void should_reset_failures_on_success() {
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.failing)).verifyError(IOException.class);
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.succeeding)).expectNextCount(1L)
+				.verifyComplete();
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.failing)).verifyError(IOException.class);
+
+		assertThat(this.filter.isOpen(INSTANCE.getId())).isFalse();
+	}
+
+	@Test
+	void should_only_let_health_probe_through_after_open_duration() {
+		this.openCircuit();
+
+		this.now = this.now.plusSeconds(10L);
+		StepVerifier.create(this.filter.filter(INSTANCE, HEALTH_REQUEST, this.succeeding))
+				.verifyError(CircuitBreakerOpenException.class);
+
+		this.now = this.now.plusSeconds(30L);
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.succeeding))
+				.verifyError(CircuitBreakerOpenException.class);
+		StepVerifier.create(this.filter.filter(INSTANCE, HEALTH_REQUEST, this.succeeding)).expectNextCount(1L)
+				.verifyComplete();
+
+		assertThat(this.filter.isOpen(INSTANCE.getId())).isFalse();
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.succeeding)).expectNextCount(1L)
+				.verifyComplete();
+	}
+
+	@Test
+	void should_reopen_on_failed_probe() {
+		this.openCircuit();
+
+		this.now = this.now.plusSeconds(30L);
+		StepVerifier.create(this.filter.filter(INSTANCE, HEALTH_REQUEST, this.failing)).verifyError(IOException.class);
+
+		assertThat(this.filter.isOpen(INSTANCE.getId())).isTrue();
+		StepVerifier.create(this.filter.filter(INSTANCE, HEALTH_REQUEST, this.succeeding))
+				.verifyError(CircuitBreakerOpenException.class);
+	}
+
+	@Test
+	void should_not_count_error_responses_as_failure() {
+		ExchangeFunction serverError = (request) -> Mono
+				.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+		for (int i = 0; i < 5; i++) {
+			StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, serverError)).expectNextCount(1L)
+					.verifyComplete();
+		}
+
+		assertThat(this.filter.isOpen(INSTANCE.getId())).isFalse();
+	}
+
+	@Test
+	void should_only_count_status_and_info_polls() {
+		for (int i = 0; i < 5; i++) {
+			StepVerifier.create(this.filter.filter(INSTANCE, PROXIED_HEALTH_REQUEST, this.failing))
+					.verifyError(IOException.class);
+			StepVerifier.create(this.filter.filter(INSTANCE, ENV_REQUEST, this.failing)).verifyError(IOException.class);
+		}
+
+		assertThat(this.filter.isOpen(INSTANCE.getId())).isFalse();
+	}
+
+	@Test
+	void should_not_reject_other_requests_when_open() {
+		this.openCircuit();
+
+		StepVerifier.create(this.filter.filter(INSTANCE, PROXIED_HEALTH_REQUEST, this.succeeding)).expectNextCount(1L)
+				.verifyComplete();
+		StepVerifier.create(this.filter.filter(INSTANCE, ENV_REQUEST, this.succeeding)).expectNextCount(1L)
+				.verifyComplete();
+		assertThat(this.filter.isOpen(INSTANCE.getId())).isTrue();
+	}
+
+	private void openCircuit() {
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.failing)).verifyError(IOException.class);
+		StepVerifier.create(this.filter.filter(INSTANCE, INFO_REQUEST, this.failing)).verifyError(IOException.class);
+		assertThat(this.filter.isOpen(INSTANCE.getId())).isTrue();
+	}
+
+}
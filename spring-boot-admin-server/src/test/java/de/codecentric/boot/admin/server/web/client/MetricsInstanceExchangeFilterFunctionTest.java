@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.codecentric.boot.admin.server.web.client;
+
+import java.io.IOException;
+import java.net.URI;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.values.Endpoint;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.domain.values.Registration;
+
+import static de.codecentric.boot.admin.server.web.client.InstanceExchangeFilterFunctions.ATTRIBUTE_ENDPOINT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsInstanceExchangeFilterFunctionTest {
+
+	private static final Instance INSTANCE = Instance.create(InstanceId.of("i"))
+			.register(Registration.create("app", "http://localhost/health").build());
+
+	private static final ClientRequest HEALTH_REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("/health"))
+			.attribute(ATTRIBUTE_ENDPOINT, Endpoint.HEALTH).build();
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void should_record_instance_requests() {
+		MetricsInstanceExchangeFilterFunction filter = new MetricsInstanceExchangeFilterFunction(false);
+		filter.bindTo(this.registry);
+
+		StepVerifier
+				.create(filter.filter(INSTANCE, HEALTH_REQUEST,
+						(request) -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build())))
+				.expectNextCount(1L).verifyComplete();
+
+		Timer timer = this.registry.get("spring.boot.admin.instance.requests").tag("endpoint", "health")
+				.tag("status", "503").tag("outcome", "SERVER_ERROR").tag("exception", "none").timer();
+		assertThat(timer.count()).isEqualTo(1L);
+		assertThat(timer.getId().getTag("application")).isNull();
+	}
+
+	@Test
+	void should_record_failed_requests() {
+		MetricsInstanceExchangeFilterFunction filter = new MetricsInstanceExchangeFilterFunction(false);
+		filter.bindTo(this.registry);
+
+		StepVerifier.create(
+				filter.filter(INSTANCE, HEALTH_REQUEST, (request) -> Mono.error(new IOException("Connection refused"))))
+				.verifyError(IOException.class);
+
+		assertThat(this.registry.get("spring.boot.admin.instance.requests").tag("status", "IO_ERROR")
+				.tag("outcome", "UNKNOWN").tag("exception", "IOException").timer().count()).isEqualTo(1L);
+	}
+
+	@Test
+	void should_record_proxied_requests_with_application_tag() {
+		MetricsInstanceExchangeFilterFunction filter = new MetricsInstanceExchangeFilterFunction(true);
+		filter.bindTo(this.registry);
+		ClientRequest proxied = ClientRequest.from(HEALTH_REQUEST)
+				.attribute(InstanceExchangeFilterFunctions.ATTRIBUTE_PROXIED, true).build();
+
+		StepVerifier
+				.create(filter.filter(INSTANCE, proxied,
+						(request) -> Mono.just(ClientResponse.create(HttpStatus.OK).build())))
+				.expectNextCount(1L).verifyComplete();
+
+		assertThat(this.registry.get("spring.boot.admin.proxy.requests").tag("application", "app")
+				.tag("outcome", "SUCCESS").timer().count()).isEqualTo(1L);
+		assertThat(this.registry.find("spring.boot.admin.instance.requests").timer()).isNull();
+	}
+
+}